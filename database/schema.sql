@@ -1,11 +1,34 @@
 -- Parking Lot Management System Database Schema
+-- Reference copy of the tables created by database/SchemaBootstrap.java,
+-- which is the source of truth and applies them once at startup.
+-- Keep the two in step when the layout changes.
+
+-- Money columns (rates, fees, fines, totals) hold INTEGER sen since
+-- version 6; their DECIMAL declarations are kept from version 1
+
+-- Applied schema versions (current: 6)
+CREATE TABLE IF NOT EXISTS schema_version (
+    version INTEGER PRIMARY KEY,
+    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
 
 CREATE TABLE IF NOT EXISTS parking_spots (
     spot_id VARCHAR(20) PRIMARY KEY,
-    floor_number INT NOT NULL,
+    floor_number INTEGER NOT NULL,
+    row_number INTEGER NOT NULL,
+    spot_number INTEGER NOT NULL,
     spot_type VARCHAR(20) NOT NULL,
     hourly_rate DECIMAL(10,2) NOT NULL,
-    is_occupied BOOLEAN DEFAULT 0
+    status VARCHAR(20) NOT NULL,
+    current_vehicle VARCHAR(20),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Optional - for tracking floor metadata
+CREATE TABLE IF NOT EXISTS floors (
+    floor_number INTEGER PRIMARY KEY,
+    total_spots INTEGER DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
 CREATE TABLE IF NOT EXISTS vehicles (
@@ -15,6 +38,7 @@ CREATE TABLE IF NOT EXISTS vehicles (
     entry_time TIMESTAMP NOT NULL,
     exit_time TIMESTAMP,
     spot_id VARCHAR(20),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (spot_id) REFERENCES parking_spots(spot_id)
 );
 
@@ -23,6 +47,7 @@ CREATE TABLE IF NOT EXISTS tickets (
     license_plate VARCHAR(20) NOT NULL,
     spot_id VARCHAR(20) NOT NULL,
     entry_time TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (license_plate) REFERENCES vehicles(license_plate),
     FOREIGN KEY (spot_id) REFERENCES parking_spots(spot_id)
 );
@@ -30,24 +55,121 @@ CREATE TABLE IF NOT EXISTS tickets (
 CREATE TABLE IF NOT EXISTS payments (
     payment_id VARCHAR(50) PRIMARY KEY,
     license_plate VARCHAR(20) NOT NULL,
-    payment_date TIMESTAMP NOT NULL,
+    ticket_id VARCHAR(50) NOT NULL,
     parking_fee DECIMAL(10,2) NOT NULL,
-    fine_amount DECIMAL(10,2) DEFAULT 0.00,
+    fine_amount DECIMAL(10,2) DEFAULT 0,
     total_amount DECIMAL(10,2) NOT NULL,
-    payment_method VARCHAR(10) NOT NULL
+    payment_method VARCHAR(20) NOT NULL,
+    payment_time TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
 CREATE TABLE IF NOT EXISTS fines (
-    fine_id INTEGER PRIMARY KEY AUTOINCREMENT,
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
     license_plate VARCHAR(20) NOT NULL,
-    fine_date TIMESTAMP NOT NULL,
-    fine_reason VARCHAR(100) NOT NULL,
-    fine_amount DECIMAL(10,2) NOT NULL,
-    status VARCHAR(20) DEFAULT 'UNPAID'
+    amount DECIMAL(10,2) NOT NULL,
+    reason VARCHAR(255),
+    status VARCHAR(20) DEFAULT 'UNPAID',
+    date_issued TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
-CREATE TABLE IF NOT EXISTS floors (
-    floor_number INT PRIMARY KEY,
-    total_spots INT NOT NULL,
-    occupied_spots INT DEFAULT 0
-);
\ No newline at end of file
+-- Version 2 - indexes for the hot queries
+CREATE INDEX IF NOT EXISTS idx_tickets_plate_entry
+    ON tickets (license_plate, entry_time DESC);
+
+CREATE INDEX IF NOT EXISTS idx_vehicles_parked
+    ON vehicles (license_plate, vehicle_type, entry_time, spot_id, exit_time)
+    WHERE exit_time IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_fines_unpaid
+    ON fines (license_plate, amount, status)
+    WHERE status = 'UNPAID';
+
+-- Version 3 - keyset index for the paged transaction history
+-- (replaces idx_payments_time from version 2)
+CREATE INDEX IF NOT EXISTS idx_payments_time_id
+    ON payments (payment_time, payment_id);
+
+-- Version 4 - timestamp columns hold epoch milliseconds; converts any
+-- local-time text values left by older builds (see SchemaBootstrap)
+
+-- Version 5 - dashboard aggregates, kept current by triggers
+-- (also drops idx_payments_method_total from version 2; the writer
+-- connection runs with PRAGMA recursive_triggers = 1)
+CREATE TABLE IF NOT EXISTS revenue_totals (
+    payment_method VARCHAR(20) NOT NULL,
+    spot_type VARCHAR(20) NOT NULL,
+    transactions INTEGER NOT NULL DEFAULT 0,
+    parking_fee DECIMAL(12,2) NOT NULL DEFAULT 0,
+    fine_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    total_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (payment_method, spot_type)
+) WITHOUT ROWID;
+
+CREATE TABLE IF NOT EXISTS revenue_hourly (
+    day DATE NOT NULL,
+    hour INTEGER NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    spot_type VARCHAR(20) NOT NULL,
+    transactions INTEGER NOT NULL DEFAULT 0,
+    total_amount DECIMAL(12,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, hour, payment_method, spot_type)
+) WITHOUT ROWID;
+
+CREATE TABLE IF NOT EXISTS occupancy_stats (
+    floor_number INTEGER NOT NULL,
+    spot_type VARCHAR(20) NOT NULL,
+    total_spots INTEGER NOT NULL DEFAULT 0,
+    occupied_spots INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (floor_number, spot_type)
+) WITHOUT ROWID;
+
+CREATE TRIGGER IF NOT EXISTS trg_payments_revenue AFTER INSERT ON payments
+BEGIN
+    INSERT INTO revenue_totals
+        (payment_method, spot_type, transactions, parking_fee, fine_amount, total_amount)
+    VALUES (NEW.payment_method,
+            COALESCE((SELECT s.spot_type FROM tickets t JOIN parking_spots s ON s.spot_id = t.spot_id
+                      WHERE t.ticket_id = NEW.ticket_id), 'UNKNOWN'),
+            1, NEW.parking_fee, NEW.fine_amount, NEW.total_amount)
+    ON CONFLICT (payment_method, spot_type) DO UPDATE SET
+        transactions = transactions + 1,
+        parking_fee = parking_fee + excluded.parking_fee,
+        fine_amount = fine_amount + excluded.fine_amount,
+        total_amount = total_amount + excluded.total_amount;
+    INSERT INTO revenue_hourly
+        (day, hour, payment_method, spot_type, transactions, total_amount)
+    VALUES (date(NEW.payment_time / 1000, 'unixepoch', 'localtime'),
+            CAST(strftime('%H', NEW.payment_time / 1000, 'unixepoch', 'localtime') AS INTEGER),
+            NEW.payment_method,
+            COALESCE((SELECT s.spot_type FROM tickets t JOIN parking_spots s ON s.spot_id = t.spot_id
+                      WHERE t.ticket_id = NEW.ticket_id), 'UNKNOWN'),
+            1, NEW.total_amount)
+    ON CONFLICT (day, hour, payment_method, spot_type) DO UPDATE SET
+        transactions = transactions + 1,
+        total_amount = total_amount + excluded.total_amount;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_spots_occupancy_insert AFTER INSERT ON parking_spots
+BEGIN
+    INSERT INTO occupancy_stats (floor_number, spot_type, total_spots, occupied_spots)
+    VALUES (NEW.floor_number, NEW.spot_type, 1, NEW.status = 'OCCUPIED')
+    ON CONFLICT (floor_number, spot_type) DO UPDATE SET
+        total_spots = total_spots + 1,
+        occupied_spots = occupied_spots + excluded.occupied_spots;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_spots_occupancy_delete AFTER DELETE ON parking_spots
+BEGIN
+    UPDATE occupancy_stats SET total_spots = total_spots - 1,
+        occupied_spots = occupied_spots - (OLD.status = 'OCCUPIED')
+    WHERE floor_number = OLD.floor_number AND spot_type = OLD.spot_type;
+END;
+
+CREATE TRIGGER IF NOT EXISTS trg_spots_occupancy_status AFTER UPDATE OF status ON parking_spots
+WHEN OLD.status IS NOT NEW.status
+BEGIN
+    UPDATE occupancy_stats SET
+        occupied_spots = occupied_spots + (NEW.status = 'OCCUPIED') - (OLD.status = 'OCCUPIED')
+    WHERE floor_number = NEW.floor_number AND spot_type = NEW.spot_type;
+END;
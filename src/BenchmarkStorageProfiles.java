@@ -0,0 +1,161 @@
+import database.DaoRegistry;
+import database.DatabaseManager;
+import database.ParkingSpotsDAO;
+import database.PaymentsDAO;
+import database.StorageProfile;
+import database.TicketsDAO;
+import database.VehiclesDAO;
+import models.parking.ParkingLot;
+import models.parking.ParkingSpot;
+import models.parking.SpotStatus;
+import models.payment.Money;
+import models.payment.Payment;
+import models.payment.PaymentMethod;
+import models.vehicle.Car;
+import models.vehicle.Ticket;
+import models.vehicle.Vehicle;
+import java.io.File;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Benchmark - entry/exit commit latency under each storage profile
+ * Each vehicle entry and exit is persisted exactly as the gates persist it:
+ * the real DAOs inside DatabaseManager.persist, on a schema created by the
+ * normal bootstrap, committed synchronously
+ *
+ * The storage profile and database file are fixed when DatabaseManager
+ * starts, so each profile runs in its own JVM against a scratch database
+ *
+ * Usage: java BenchmarkStorageProfiles [cycles]   (default 500)
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public class BenchmarkStorageProfiles {
+    private static final String RUN_PROFILE = "--run";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals(RUN_PROFILE)) {
+            runProfile(Integer.parseInt(args[1]));
+            return;
+        }
+        int cycles = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+
+        System.out.println("╔════════════════════════════════════════════════╗");
+        System.out.println("║  STORAGE PROFILE BENCHMARK                     ║");
+        System.out.println("╚════════════════════════════════════════════════╝\n");
+
+        System.out.println(cycles + " entry + " + cycles + " exit transactions per profile\n");
+        System.out.printf("%-10s %-10s %10s %10s %10s %10s%n",
+                          "Profile", "Path", "p50 (ms)", "p99 (ms)", "max (ms)", "tx/sec");
+        System.out.println("─────────────────────────────────────────────────────────────────");
+
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        for (StorageProfile profile : StorageProfile.values()) {
+            File file = File.createTempFile("parking_bench_" + profile.name().toLowerCase(), ".db");
+            file.delete(); // let the bootstrap create the schema in a fresh file
+            try {
+                Process child = new ProcessBuilder(java,
+                        "-cp", System.getProperty("java.class.path"),
+                        "-Dparking.db.profile=" + profile.name(),
+                        "-Dparking.db.file=" + file.getPath(),
+                        "-Dparking.db.durability=SYNC",
+                        "-Dorg.slf4j.simpleLogger.defaultLogLevel=warn",
+                        BenchmarkStorageProfiles.class.getName(), RUN_PROFILE, String.valueOf(cycles))
+                    .inheritIO()
+                    .start();
+                if (child.waitFor() != 0) {
+                    System.out.println("✗ " + profile.name() + " run failed");
+                    return;
+                }
+            } finally {
+                deleteDatabaseFiles(file);
+            }
+        }
+
+        System.out.println("\n✓ Benchmark complete");
+    }
+
+    /**
+     * Park and release vehicles through the DAOs, timing each commit
+     * Runs in the child JVM started for one profile
+     */
+    private static void runProfile(int cycles) {
+        DatabaseManager database = DatabaseManager.getInstance();
+        DaoRegistry daos = DaoRegistry.getInstance();
+        VehiclesDAO vehiclesDAO = daos.getVehiclesDAO();
+        TicketsDAO ticketsDAO = daos.getTicketsDAO();
+        ParkingSpotsDAO spotsDAO = daos.getParkingSpotsDAO();
+        PaymentsDAO paymentsDAO = daos.getPaymentsDAO();
+
+        ParkingLot lot = new ParkingLot("Benchmark Lot");
+        lot.initializeDefaultLayout(1);
+        if (!spotsDAO.saveParkingLot(lot)) {
+            System.exit(1);
+        }
+
+        long fee = Money.ofRinggit(5);
+        long[] entry = new long[cycles];
+        long[] exit = new long[cycles];
+        for (int i = 0; i < cycles; i++) {
+            Vehicle car = new Car("BEN" + i);
+            car.setEntryTime(LocalDateTime.now());
+            ParkingSpot spot = lot.claimAvailableSpot(car);
+            Ticket ticket = new Ticket(car, spot);
+            String plate = car.getLicensePlate();
+            String spotId = spot.getSpotId();
+
+            long start = System.nanoTime();
+            boolean parked = database.persist("entry " + plate,
+                () -> vehiclesDAO.saveVehicle(car, spot)
+                    && ticketsDAO.saveTicket(ticket)
+                    && spotsDAO.updateSpotStatus(spotId, SpotStatus.OCCUPIED, plate));
+            entry[i] = System.nanoTime() - start;
+
+            Payment payment = new Payment(plate, fee, 0, PaymentMethod.CASH, ticket.getTicketId());
+            start = System.nanoTime();
+            boolean left = database.persist("exit " + plate,
+                () -> paymentsDAO.savePayment(payment)
+                    && spotsDAO.updateSpotStatus(spotId, SpotStatus.AVAILABLE, null)
+                    && vehiclesDAO.deleteVehicle(plate)
+                    && ticketsDAO.deleteTicket(ticket.getTicketId()));
+            exit[i] = System.nanoTime() - start;
+            spot.releaseVehicle();
+
+            if (!parked || !left) {
+                System.exit(1);
+            }
+        }
+
+        StorageProfile profile = StorageProfile.fromSystemProperty();
+        printRow(profile, "entry", entry);
+        printRow(profile, "exit", exit);
+        database.closeConnection();
+    }
+
+    private static void printRow(StorageProfile profile, String path, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long n : sorted) {
+            total += n;
+        }
+        System.out.printf("%-10s %-10s %10.3f %10.3f %10.3f %10.0f%n",
+                          profile.name(), path,
+                          millis(sorted[sorted.length / 2]),
+                          millis(sorted[Math.min(sorted.length - 1, (int) (sorted.length * 0.99))]),
+                          millis(sorted[sorted.length - 1]),
+                          sorted.length / (total / 1_000_000_000.0));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static void deleteDatabaseFiles(File file) {
+        for (String suffix : new String[] {"", "-wal", "-shm", "-journal"}) {
+            new File(file.getPath() + suffix).delete();
+        }
+    }
+}
@@ -1,8 +1,11 @@
+import database.DaoRegistry;
 import database.DatabaseManager;
+import database.EventJournal;
 import database.ParkingSpotsDAO;
 import java.awt.*;
 import javax.swing.*;
 import models.parking.ParkingLot;
+import services.AsyncConsoleStream;
 import views.AdminPanel;
 import views.EntryPanel;
 import views.ExitPanel;
@@ -15,6 +18,9 @@ import views.ReportPanel;
  */
 public class Main {
     public static void main(String[] args) {
+        // Logging must be configured before the first logger is created
+        configureLogging();
+        
         // Initialize database first
         System.out.println("═══════════════════════════════════════════════════");
         System.out.println("  Parking Lot Management System - Starting...    ");
@@ -29,13 +35,22 @@ public class Main {
         
         SwingUtilities.invokeLater(() -> {
             ParkingLot parkingLot;
-            ParkingSpotsDAO dao = new ParkingSpotsDAO();
+            ParkingSpotsDAO dao = DaoRegistry.getInstance().getParkingSpotsDAO();
             
             // ---------------------------------------------------------
             // FIX: Try to load existing data from database first
             // ---------------------------------------------------------
             System.out.println("Checking for existing data...");
-            ParkingLot existingLot = dao.loadParkingLot("University Parking Lot");
+            EventJournal journal = EventJournal.getInstance();
+            ParkingLot existingLot = journal.recover("University Parking Lot");
+            if (existingLot != null && !dao.validateParkingLot(existingLot)) {
+                // Snapshot is stale or damaged - SQLite is the source of truth
+                System.out.println("Snapshot does not match the database, reloading from database...");
+                existingLot = null;
+            }
+            if (existingLot == null) {
+                existingLot = dao.loadParkingLot("University Parking Lot");
+            }
             
             if (existingLot != null) {
                 // CASE 1: Data exists! Use it.
@@ -48,6 +63,7 @@ public class Main {
                 parkingLot.initializeDefaultLayout(5); 
                 dao.saveParkingLot(parkingLot);
             }
+            journal.start(parkingLot);
             // ---------------------------------------------------------
             
             // Create main frame
@@ -92,9 +108,34 @@ public class Main {
             System.out.println("═══════════════════════════════════════════════════\n");
         });
         
-        // Add shutdown hook to close database connection
+        // Add shutdown hook to commit queued gate writes and close database connection
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            dbManager.flushPendingWrites();
+            EventJournal.getInstance().close();
             dbManager.closeConnection();
+            AsyncConsoleStream.shutdown();
         }));
     }
+    
+    /**
+     * Defaults for the SLF4J simple logger - any of these can be overridden
+     * with -D on the command line (e.g. -Dorg.slf4j.simpleLogger.defaultLogLevel=debug)
+     */
+    private static void configureLogging() {
+        setDefault("org.slf4j.simpleLogger.defaultLogLevel", "info");
+        setDefault("org.slf4j.simpleLogger.logFile", "System.err");
+        setDefault("org.slf4j.simpleLogger.showDateTime", "true");
+        setDefault("org.slf4j.simpleLogger.dateTimeFormat", "HH:mm:ss.SSS");
+        setDefault("org.slf4j.simpleLogger.showShortLogName", "true");
+        
+        if (Boolean.parseBoolean(System.getProperty("parking.log.async", "true"))) {
+            AsyncConsoleStream.install();
+        }
+    }
+    
+    private static void setDefault(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
 }
\ No newline at end of file
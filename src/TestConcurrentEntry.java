@@ -0,0 +1,273 @@
+import models.parking.*;
+import models.vehicle.*;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stress test for concurrent spot claiming
+ * Several "gates" (threads) race for spots in one lot and the test checks
+ * that no spot is ever handed to two vehicles
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public class TestConcurrentEntry {
+    private static final int GATES = 16;
+    private static final int FLOORS = 20;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("╔════════════════════════════════════════════════╗");
+        System.out.println("║  CONCURRENT ENTRY STRESS TEST                  ║");
+        System.out.println("╚════════════════════════════════════════════════╝\n");
+
+        // Test 1: Many gates filling the lot
+        testFillRace();
+
+        // Test 2: Every gate racing for the same spot
+        testSingleSpotRace();
+
+        // Test 3: Continuous park/leave churn
+        testChurn();
+
+        // Test 4: Every gate parking the same plate
+        testSamePlateRace();
+
+        System.out.println("\n╔════════════════════════════════════════════════╗");
+        System.out.println("║  ALL CONCURRENCY TESTS PASSED! ✓               ║");
+        System.out.println("╚════════════════════════════════════════════════╝");
+    }
+
+    private static void testFillRace() throws Exception {
+        System.out.println("TEST 1: " + GATES + " gates filling the lot");
+        System.out.println("─────────────────────────────────────────────────");
+
+        ParkingLot parkingLot = quietly(() -> buildLot());
+        int carSpots = parkingLot.getAvailableCountByType(SpotType.COMPACT) +
+                       parkingLot.getAvailableCountByType(SpotType.REGULAR);
+        int carsPerGate = (carSpots / GATES) * 2; // twice what fits
+
+        Map<ParkingSpot, Vehicle> winners = new ConcurrentHashMap<>();
+        AtomicInteger parked = new AtomicInteger();
+        AtomicInteger doubleAssigned = new AtomicInteger();
+
+        runGates(gate -> {
+            for (int i = 0; i < carsPerGate; i++) {
+                Vehicle car = new Car("G" + gate + "C" + i);
+                ParkingSpot spot = parkingLot.claimAvailableSpot(car);
+                if (spot != null) {
+                    parked.incrementAndGet();
+                    if (winners.putIfAbsent(spot, car) != null) {
+                        doubleAssigned.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        check(doubleAssigned.get() == 0, doubleAssigned.get() + " spots assigned twice");
+        check(parked.get() == carSpots, "Parked " + parked.get() + " cars into " + carSpots + " spots");
+        check(parkingLot.getOccupiedSpots() == carSpots, "Occupied counter is " + parkingLot.getOccupiedSpots());
+        check(parkingLot.findFirstAvailableSpot(VehicleType.CAR) == null, "Lot still reports a free car spot");
+        for (Map.Entry<ParkingSpot, Vehicle> entry : winners.entrySet()) {
+            check(entry.getKey().getCurrentVehicle() == entry.getValue(),
+                  "Spot " + entry.getKey().getSpotId() + " holds the wrong vehicle");
+            check(parkingLot.findSpotByVehicle(entry.getValue().getLicensePlate()) == entry.getKey(),
+                  "Plate index wrong for " + entry.getValue().getLicensePlate());
+        }
+
+        System.out.println("✓ " + parked.get() + " cars parked into " + carSpots + " spots, no double assignment\n");
+    }
+
+    private static void testSingleSpotRace() throws Exception {
+        System.out.println("TEST 2: " + GATES + " gates racing for one spot");
+        System.out.println("─────────────────────────────────────────────────");
+
+        ParkingLot parkingLot = quietly(() -> buildLot());
+        ParkingSpot contested = parkingLot.getSpotById("F1-R2-S6");
+        int rounds = 2000;
+
+        AtomicInteger roundWinners = new AtomicInteger();
+        AtomicInteger badRounds = new AtomicInteger();
+        CyclicBarrier start = new CyclicBarrier(GATES);
+        CyclicBarrier finish = new CyclicBarrier(GATES, () -> {
+            if (roundWinners.getAndSet(0) != 1) {
+                badRounds.incrementAndGet();
+            }
+            contested.releaseVehicle();
+        });
+
+        runGates(gate -> {
+            for (int round = 0; round < rounds; round++) {
+                start.await();
+                if (contested.assignVehicle(new Car("R" + round + "G" + gate))) {
+                    roundWinners.incrementAndGet();
+                }
+                finish.await();
+            }
+        });
+
+        check(badRounds.get() == 0, badRounds.get() + " rounds without exactly one winner");
+        check(parkingLot.getOccupiedSpots() == 0, "Occupied counter is " + parkingLot.getOccupiedSpots());
+        check(parkingLot.findFirstAvailableSpot(VehicleType.SUV) == contested, "Contested spot not free at the end");
+
+        System.out.println("✓ " + rounds + " rounds, exactly one winner each time\n");
+    }
+
+    private static void testChurn() throws Exception {
+        System.out.println("TEST 3: Park/leave churn across " + GATES + " gates");
+        System.out.println("─────────────────────────────────────────────────");
+
+        ParkingLot parkingLot = quietly(() -> buildLot());
+        int totalSpots = parkingLot.getTotalSpots();
+        int cycles = 3000;
+
+        AtomicInteger stolen = new AtomicInteger();
+        AtomicInteger visits = new AtomicInteger();
+
+        runGates(gate -> {
+            for (int i = 0; i < cycles; i++) {
+                Vehicle car = new Car("CH" + gate + "-" + i);
+                ParkingSpot spot = parkingLot.claimAvailableSpot(car);
+                if (spot == null) {
+                    continue;
+                }
+                visits.incrementAndGet();
+                Thread.yield();
+                if (spot.getCurrentVehicle() != car) {
+                    stolen.incrementAndGet();
+                }
+                spot.releaseVehicle();
+            }
+        });
+
+        check(stolen.get() == 0, stolen.get() + " spots were taken over while occupied");
+        check(parkingLot.getOccupiedSpots() == 0, "Occupied counter is " + parkingLot.getOccupiedSpots());
+        check(parkingLot.findAvailableSpots(VehicleType.HANDICAPPED).size() == totalSpots,
+              "Free-spot bitmaps lost spots");
+        check(parkingLot.getCurrentlyParkedVehicles().isEmpty(), "Plate index kept departed vehicles");
+
+        System.out.println("✓ " + visits.get() + " park/leave cycles, bitmaps and counters consistent\n");
+    }
+
+    private static void testSamePlateRace() throws Exception {
+        System.out.println("TEST 4: " + GATES + " gates parking the same plate");
+        System.out.println("─────────────────────────────────────────────────");
+
+        ParkingLot parkingLot = quietly(() -> buildLot());
+        int rounds = 2000;
+
+        AtomicInteger roundWinners = new AtomicInteger();
+        AtomicInteger badRounds = new AtomicInteger();
+        AtomicInteger currentRound = new AtomicInteger();
+        AtomicReference<ParkingSpot> parkedSpot = new AtomicReference<>();
+        CyclicBarrier start = new CyclicBarrier(GATES);
+        CyclicBarrier finish = new CyclicBarrier(GATES, () -> {
+            ParkingSpot spot = parkedSpot.getAndSet(null);
+            if (roundWinners.getAndSet(0) != 1 || parkingLot.getOccupiedSpots() != 1
+                    || parkingLot.findSpotByVehicle("SAME" + currentRound.getAndIncrement()) != spot) {
+                badRounds.incrementAndGet();
+            }
+            if (spot != null) {
+                spot.releaseVehicle();
+            }
+        });
+
+        runGates(gate -> {
+            for (int round = 0; round < rounds; round++) {
+                start.await();
+                try {
+                    ParkingSpot spot = parkingLot.claimAvailableSpot(new Car("SAME" + round));
+                    if (spot != null) {
+                        roundWinners.incrementAndGet();
+                        parkedSpot.set(spot);
+                    }
+                } catch (IllegalStateException e) {
+                    // Another gate is already parking this plate
+                }
+                finish.await();
+            }
+        });
+
+        check(badRounds.get() == 0, badRounds.get() + " rounds did not park the plate exactly once");
+        check(parkingLot.getOccupiedSpots() == 0, "Occupied counter is " + parkingLot.getOccupiedSpots());
+        check(parkingLot.getCurrentlyParkedVehicles().isEmpty(), "Plate index kept departed vehicles");
+
+        System.out.println("✓ " + rounds + " rounds, each plate parked exactly once\n");
+    }
+
+    // ---- helpers ----
+
+    private interface GateWork {
+        void run(int gate) throws Exception;
+    }
+
+    private interface Setup<T> {
+        T get();
+    }
+
+    private static ParkingLot buildLot() {
+        ParkingLot parkingLot = new ParkingLot("Stress Lot");
+        parkingLot.initializeDefaultLayout(FLOORS);
+        return parkingLot;
+    }
+
+    /**
+     * Runs the work on every gate thread at once, with console output muted
+     */
+    private static void runGates(GateWork work) throws Exception {
+        CountDownLatch ready = new CountDownLatch(1);
+        Thread[] gates = new Thread[GATES];
+        Throwable[] failure = new Throwable[1];
+
+        for (int g = 0; g < GATES; g++) {
+            final int gate = g;
+            gates[g] = new Thread(() -> {
+                try {
+                    ready.await();
+                    work.run(gate);
+                } catch (Throwable t) {
+                    synchronized (failure) {
+                        failure[0] = t;
+                    }
+                }
+            }, "gate-" + g);
+            gates[g].start();
+        }
+
+        quietly(() -> {
+            ready.countDown();
+            for (Thread gate : gates) {
+                try {
+                    gate.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return null;
+        });
+
+        if (failure[0] != null) {
+            throw new RuntimeException("Gate thread failed", failure[0]);
+        }
+    }
+
+    private static <T> T quietly(Setup<T> setup) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return setup.get();
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError("✗ " + message);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import database.EventJournal;
+import database.JournalEvent;
+import models.parking.*;
+import models.vehicle.*;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Event journal test - journal gate events, then recover the lot from the
+ * snapshot plus journal and compare it with the original
+ * Runs against a temporary journal directory; no database needed
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public class TestEventJournal {
+    private static final int FLOORS = 5;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("parking-journal");
+        System.setProperty("parking.journal.dir", dir.toString());
+        System.setProperty("parking.journal.snapshotEvery", "40");
+        System.setProperty("parking.journal.segmentKb", "4");
+        System.setProperty("org.slf4j.simpleLogger.defaultLogLevel", "warn");
+
+        System.out.println("╔════════════════════════════════════════════════╗");
+        System.out.println("║  EVENT JOURNAL TEST                            ║");
+        System.out.println("╚════════════════════════════════════════════════╝\n");
+
+        // Test 1: Journal a day of traffic and recover it
+        System.out.println("TEST 1: Recover lot from snapshot + journal");
+        System.out.println("─────────────────────────────────────────────────");
+        EventJournal journal = EventJournal.getInstance();
+        ParkingLot lot = new ParkingLot("Journal Test Lot");
+        lot.initializeDefaultLayout(FLOORS);
+        journal.start(lot);
+
+        // Four gates park 15 cars each at the same time
+        List<ParkingSpot> taken = Collections.synchronizedList(new ArrayList<>());
+        Thread[] gates = new Thread[4];
+        for (int g = 0; g < gates.length; g++) {
+            int gate = g;
+            gates[g] = new Thread(() -> {
+                for (int i = gate * 15; i < (gate + 1) * 15; i++) {
+                    Vehicle car = new Car("JRN" + i);
+                    car.setEntryTime(LocalDateTime.now().minusMinutes(i));
+                    ParkingSpot spot = lot.claimAvailableSpot(car);
+                    try {
+                        journal.append(JournalEvent.entry(car, spot));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    taken.add(spot);
+                }
+            });
+            gates[g].start();
+        }
+        for (Thread gate : gates) {
+            gate.join();
+        }
+        check("60 cars parked by 4 gates", lot.getOccupiedSpots() == 60);
+        // Every third car leaves again
+        for (int i = 0; i < taken.size(); i += 3) {
+            ParkingSpot spot = taken.get(i);
+            String plate = spot.getCurrentVehicle().getLicensePlate();
+            spot.releaseVehicle();
+            journal.append(JournalEvent.exit(plate, spot.getSpotId(), LocalDateTime.now()));
+        }
+        journal.close();
+
+        ParkingLot recovered = journal.recover("Journal Test Lot");
+        check("lot recovered", recovered != null);
+        check("same occupied count (" + lot.getOccupiedSpots() + ")",
+              recovered != null && recovered.getOccupiedSpots() == lot.getOccupiedSpots());
+        check("same vehicles in the same spots", recovered != null && sameState(lot, recovered));
+        check("older snapshots pruned", count(dir, "snapshot-") == 1);
+        check("shutdown snapshot covers all 80 events",
+              newest(dir, "snapshot-").getFileName().toString().equals("snapshot-00000000000000000080.bin"));
+        System.out.println();
+
+        // Test 2: A torn record at the end of the journal is ignored
+        System.out.println("TEST 2: Torn final record");
+        System.out.println("─────────────────────────────────────────────────");
+        Path newest = newest(dir, "segment-");
+        byte[] bytes = Files.readAllBytes(newest);
+        int lastRecord = lastRecordOffset(bytes);
+        bytes[lastRecord + 12] ^= 0x5A; // corrupt the payload, keep the length
+        Files.write(newest, bytes);
+        ParkingLot afterTear = journal.recover("Journal Test Lot");
+        check("lot still recovered", afterTear != null);
+        check("only the torn event lost",
+              afterTear != null && Math.abs(afterTear.getOccupiedSpots() - lot.getOccupiedSpots()) <= 1);
+        System.out.println();
+
+        // Test 3: A damaged snapshot is never used
+        System.out.println("TEST 3: Damaged snapshot");
+        System.out.println("─────────────────────────────────────────────────");
+        Path snapshot = newest(dir, "snapshot-");
+        byte[] snapshotBytes = Files.readAllBytes(snapshot);
+        snapshotBytes[snapshotBytes.length / 2] ^= 0x5A;
+        Files.write(snapshot, snapshotBytes);
+        check("recovery falls back (returns null)", journal.recover("Journal Test Lot") == null);
+
+        System.out.println("\n╔════════════════════════════════════════════════╗");
+        System.out.println("║  ALL EVENT JOURNAL TESTS PASSED! ✓             ║");
+        System.out.println("╚════════════════════════════════════════════════╝");
+    }
+
+    private static boolean sameState(ParkingLot expected, ParkingLot actual) {
+        for (Floor floor : expected.getFloors()) {
+            for (ParkingSpot spot : floor.getAllSpots()) {
+                ParkingSpot other = actual.getSpotById(spot.getSpotId());
+                if (other == null || other.getStatus() != spot.getStatus()) {
+                    return false;
+                }
+                Vehicle a = spot.getCurrentVehicle();
+                Vehicle b = other.getCurrentVehicle();
+                if (a != null && (b == null || !a.getLicensePlate().equals(b.getLicensePlate())
+                        || a.getType() != b.getType()
+                        || !a.getEntryTime().withNano(0).equals(b.getEntryTime().withNano(0)))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Offset of the last record in a segment file (records start after the 16-byte header)
+     */
+    private static int lastRecordOffset(byte[] segment) {
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.wrap(segment);
+        int position = 16;
+        int last = -1;
+        while (position + 8 <= segment.length && buffer.getInt(position) > 0) {
+            last = position;
+            position += 8 + buffer.getInt(position);
+        }
+        return last;
+    }
+
+    private static long count(Path dir, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private static Path newest(Path dir, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(prefix)
+                                     && !p.getFileName().toString().endsWith(".tmp"))
+                        .max(Path::compareTo).orElseThrow();
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        System.out.println((ok ? "✓ " : "✗ ") + name);
+        if (!ok) {
+            System.out.println("\n✗ EVENT JOURNAL TEST FAILED");
+            System.exit(1);
+        }
+    }
+}
@@ -1,4 +1,6 @@
 import models.parking.*;
+import models.vehicle.*;
+import models.payment.Money;
 
 /**
  * Test class for Member 1's parking structure implementation
@@ -24,6 +26,12 @@ public class TestMember1 {
         // Test 4: Test spot retrieval
         testSpotRetrieval();
         
+        // Test 5: Test license plate lookup
+        testPlateLookup();
+        
+        // Test 6: Test free spot search
+        testFreeSpotSearch();
+        
         System.out.println("\n╔════════════════════════════════════════════════╗");
         System.out.println("║  ALL TESTS PASSED! ✓                          ║");
         System.out.println("╚════════════════════════════════════════════════╝");
@@ -72,6 +80,24 @@ public class TestMember1 {
         System.out.println("Available spots: " + parkingLot.getAvailableSpots());
         System.out.println("Occupied spots: " + parkingLot.getOccupiedSpots());
         
+        ParkingSpot compact = parkingLot.getSpotById("F2-R1-S1");
+        ParkingSpot regular = parkingLot.getSpotById("F2-R2-S6");
+        compact.assignVehicle(new Car("OCC1"));
+        regular.assignVehicle(new SUV("OCC2"));
+        
+        Floor floor2 = parkingLot.getFloor(2);
+        assert parkingLot.getOccupiedSpots() == 2 : "Lot occupied count wrong";
+        assert parkingLot.getAvailableSpots() == 34 : "Lot available count wrong";
+        assert floor2.getOccupiedCount() == 2 : "Floor occupied count wrong";
+        assert floor2.getOccupiedCountByType(SpotType.COMPACT) == 1 : "Compact occupied count wrong";
+        assert floor2.getAvailableCountByType(SpotType.REGULAR) == 7 : "Regular available count wrong";
+        assert parkingLot.getFloor(1).getOccupiedCount() == 0 : "Wrong floor counted";
+        System.out.println("After parking 2 vehicles: " + parkingLot);
+        
+        compact.releaseVehicle();
+        assert parkingLot.getOccupiedSpots() == 1 : "Release not counted";
+        assert floor2.getOccupiedCountByType(SpotType.COMPACT) == 0 : "Compact release not counted";
+        
         System.out.println("\n✓ Occupancy calculations working");
         System.out.println();
     }
@@ -88,11 +114,68 @@ public class TestMember1 {
         if (spot != null) {
             System.out.println("Found spot: " + spot.getSpotId());
             System.out.println("Type: " + spot.getType().getDisplayName());
-            System.out.println("Rate: RM " + spot.getHourlyRate() + "/hour");
+            System.out.println("Rate: RM " + Money.format(spot.getHourlyRate()) + "/hour");
             System.out.println("Status: " + spot.getStatus().getDisplayName());
         }
         
+        assert parkingLot.getSpotById("F1-R4-S18") == parkingLot.getFloor(1).getSpotById("F1-R4-S18") : "Lot and floor lookups disagree";
+        assert parkingLot.getSpotById("F9-R1-S1") == null : "Found spot on missing floor";
+        assert parkingLot.getFloor(1).getSpotById("F2-R1-S1") == null : "Floor returned another floor's spot";
+        
         System.out.println("\n✓ Spot retrieval working");
         System.out.println();
     }
+    
+    private static void testPlateLookup() {
+        System.out.println("TEST 5: Testing License Plate Lookup");
+        System.out.println("─────────────────────────────────────────────────");
+        
+        ParkingLot parkingLot = new ParkingLot("Test Lot");
+        parkingLot.initializeDefaultLayout(2);
+        
+        Vehicle car = new Car("LOOKUP1");
+        ParkingSpot spot = parkingLot.getSpotById("F2-R2-S6");
+        spot.assignVehicle(car);
+        
+        assert parkingLot.findSpotByVehicle("LOOKUP1") == spot : "Plate index missed assigned vehicle";
+        assert parkingLot.findVehicleByLicensePlate("LOOKUP1") == car : "Vehicle lookup failed";
+        System.out.println("Found LOOKUP1 at: " + parkingLot.findSpotByVehicle("LOOKUP1").getSpotId());
+        
+        spot.releaseVehicle();
+        assert parkingLot.findSpotByVehicle("LOOKUP1") == null : "Plate index kept released vehicle";
+        
+        spot.parkVehicle(car);
+        assert parkingLot.findSpotByVehicle("LOOKUP1") == spot : "Plate index missed restored vehicle";
+        spot.removeVehicle();
+        assert parkingLot.findVehicleByLicensePlate("LOOKUP1") == null : "Plate index kept removed vehicle";
+        
+        System.out.println("\n✓ License plate lookup working");
+        System.out.println();
+    }
+    
+    private static void testFreeSpotSearch() {
+        System.out.println("TEST 6: Testing Free Spot Search");
+        System.out.println("─────────────────────────────────────────────────");
+        
+        ParkingLot parkingLot = new ParkingLot("Test Lot");
+        parkingLot.initializeDefaultLayout(2);
+        
+        // SUVs only fit regular spots - first one is F1-R2-S6
+        ParkingSpot first = parkingLot.findFirstAvailableSpot(VehicleType.SUV);
+        assert first.getSpotId().equals("F1-R2-S6") : "Wrong first SUV spot: " + first.getSpotId();
+        assert first == parkingLot.findAvailableSpots(VehicleType.SUV).get(0) : "List and first-spot search disagree";
+        
+        first.assignVehicle(new SUV("FREE1"));
+        ParkingSpot next = parkingLot.findFirstAvailableSpot(VehicleType.SUV);
+        assert next.getSpotId().equals("F1-R2-S7") : "Occupied spot still reported free";
+        assert parkingLot.getAvailableCountByType(SpotType.REGULAR) == 15 : "Free regular count wrong";
+        System.out.println("First SUV spot after one park: " + next.getSpotId());
+        
+        first.releaseVehicle();
+        assert parkingLot.findFirstAvailableSpot(VehicleType.SUV) == first : "Released spot not free again";
+        assert parkingLot.getAvailableCountByType(SpotType.REGULAR) == 16 : "Free regular count wrong";
+        
+        System.out.println("\n✓ Free spot search working");
+        System.out.println();
+    }
 }
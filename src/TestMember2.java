@@ -2,6 +2,7 @@ import models.parking.*;
 import models.vehicle.*;
 import controllers.EntryController;
 import database.VehiclesDAO;
+import database.TicketRow;
 import database.TicketsDAO;
 import java.time.LocalDateTime;
 
@@ -184,9 +185,9 @@ public class TestMember2 {
         System.out.println("✓ Ticket saved to database");
         
         // Test ticket retrieval
-        String[] ticketData = ticketsDAO.getTicketByLicensePlate("DB123");
+        TicketRow ticketData = ticketsDAO.getTicketByLicensePlate("DB123");
         assert ticketData != null : "Ticket retrieval failed";
-        assert ticketData[1].equals("DB123") : "Retrieved wrong ticket";
+        assert ticketData.getLicensePlate().equals("DB123") : "Retrieved wrong ticket";
         System.out.println("✓ Ticket retrieved from database");
         
         System.out.println("\n✓ Database integration working\n");
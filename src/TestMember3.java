@@ -1,5 +1,6 @@
 import controllers.BillingCalculator;
 import controllers.ExitController;
+import controllers.ExitQuote;
 import controllers.PaymentProcessor;
 import database.*;
 import java.time.LocalDateTime;
@@ -101,29 +102,29 @@ public class TestMember3 {
         System.out.println("\n🧪 Testing Fee Calculation:\n");
         
         // Test parking fee calculation
-        double fee1 = BillingCalculator.calculateParkingFee(3, 5.0);
+        long fee1 = BillingCalculator.calculateParkingFee(3, 500);
         System.out.println("Test 2a - 3 hours at RM 5.00/hour:");
-        System.out.println("  Expected: RM 15.00 | Actual: RM " + String.format("%.2f", fee1));
-        System.out.println("  Result: " + (fee1 == 15.0 ? "✓ PASS" : "✗ FAIL"));
+        System.out.println("  Expected: RM 15.00 | Actual: RM " + Money.format(fee1));
+        System.out.println("  Result: " + (fee1 == 1500 ? "✓ PASS" : "✗ FAIL"));
         
-        double fee2 = BillingCalculator.calculateParkingFee(2, 2.0);
+        long fee2 = BillingCalculator.calculateParkingFee(2, 200);
         System.out.println("\nTest 2b - 2 hours at RM 2.00/hour:");
-        System.out.println("  Expected: RM 4.00 | Actual: RM " + String.format("%.2f", fee2));
-        System.out.println("  Result: " + (fee2 == 4.0 ? "✓ PASS" : "✗ FAIL"));
+        System.out.println("  Expected: RM 4.00 | Actual: RM " + Money.format(fee2));
+        System.out.println("  Result: " + (fee2 == 400 ? "✓ PASS" : "✗ FAIL"));
         
         System.out.println("\n🧪 Testing Total Bill with Fines:\n");
         
-        double total1 = BillingCalculator.calculateTotalBill(15.0, 0.0);
+        long total1 = BillingCalculator.calculateTotalBill(1500, 0);
         System.out.println("Test 3a - No fines:");
         System.out.println("  Parking: RM 15.00, Fine: RM 0.00");
-        System.out.println("  Expected: RM 15.00 | Actual: RM " + String.format("%.2f", total1));
-        System.out.println("  Result: " + (total1 == 15.0 ? "✓ PASS" : "✗ FAIL"));
+        System.out.println("  Expected: RM 15.00 | Actual: RM " + Money.format(total1));
+        System.out.println("  Result: " + (total1 == 1500 ? "✓ PASS" : "✗ FAIL"));
         
-        double total2 = BillingCalculator.calculateTotalBill(15.0, 50.0);
+        long total2 = BillingCalculator.calculateTotalBill(1500, 5000);
         System.out.println("\nTest 3b - With fine:");
         System.out.println("  Parking: RM 15.00, Fine: RM 50.00");
-        System.out.println("  Expected: RM 65.00 | Actual: RM " + String.format("%.2f", total2));
-        System.out.println("  Result: " + (total2 == 65.0 ? "✓ PASS" : "✗ FAIL"));
+        System.out.println("  Expected: RM 65.00 | Actual: RM " + Money.format(total2));
+        System.out.println("  Result: " + (total2 == 6500 ? "✓ PASS" : "✗ FAIL"));
     }
     
     /**
@@ -137,8 +138,8 @@ public class TestMember3 {
         // Test cash payment
         Payment payment1 = processor.processPayment(
             "ABC123",
-            15.0,
-            0.0,
+            1500,
+            0,
             PaymentMethod.CASH,
             "T-ABC123-20250130100000"
         );
@@ -147,8 +148,8 @@ public class TestMember3 {
         if (payment1 != null) {
             System.out.println("  ✓ Payment created: " + payment1.getPaymentId());
             System.out.println("  License Plate: " + payment1.getLicensePlate());
-            System.out.println("  Parking Fee: RM " + String.format("%.2f", payment1.getParkingFee()));
-            System.out.println("  Total: RM " + String.format("%.2f", payment1.getTotalAmount()));
+            System.out.println("  Parking Fee: RM " + Money.format(payment1.getParkingFee()));
+            System.out.println("  Total: RM " + Money.format(payment1.getTotalAmount()));
             System.out.println("  Method: " + payment1.getPaymentMethod());
             System.out.println("  Result: ✓ PASS");
         } else {
@@ -158,8 +159,8 @@ public class TestMember3 {
         // Test card payment
         Payment payment2 = processor.processPayment(
             "XYZ789",
-            10.0,
-            50.0,
+            1000,
+            5000,
             PaymentMethod.CARD,
             "T-XYZ789-20250130110000"
         );
@@ -167,22 +168,22 @@ public class TestMember3 {
         System.out.println("\nTest 2 - Card Payment with Fine:");
         if (payment2 != null) {
             System.out.println("  ✓ Payment created: " + payment2.getPaymentId());
-            System.out.println("  Parking Fee: RM " + String.format("%.2f", payment2.getParkingFee()));
-            System.out.println("  Fine: RM " + String.format("%.2f", payment2.getFineAmount()));
-            System.out.println("  Total: RM " + String.format("%.2f", payment2.getTotalAmount()));
+            System.out.println("  Parking Fee: RM " + Money.format(payment2.getParkingFee()));
+            System.out.println("  Fine: RM " + Money.format(payment2.getFineAmount()));
+            System.out.println("  Total: RM " + Money.format(payment2.getTotalAmount()));
             System.out.println("  Method: " + payment2.getPaymentMethod());
-            System.out.println("  Result: " + (payment2.getTotalAmount() == 60.0 ? "✓ PASS" : "✗ FAIL"));
+            System.out.println("  Result: " + (payment2.getTotalAmount() == 6000 ? "✓ PASS" : "✗ FAIL"));
         } else {
             System.out.println("  ✗ FAIL - Payment creation failed");
         }
         
         // Test change calculation
         System.out.println("\n🧪 Testing Change Calculation:\n");
-        double change = processor.calculateChange(15.0, 20.0);
+        long change = processor.calculateChange(1500, 2000);
         System.out.println("Test 3 - Change Calculation:");
         System.out.println("  Total Due: RM 15.00, Paid: RM 20.00");
-        System.out.println("  Expected Change: RM 5.00 | Actual: RM " + String.format("%.2f", change));
-        System.out.println("  Result: " + (change == 5.0 ? "✓ PASS" : "✗ FAIL"));
+        System.out.println("  Expected Change: RM 5.00 | Actual: RM " + Money.format(change));
+        System.out.println("  Result: " + (change == 500 ? "✓ PASS" : "✗ FAIL"));
     }
     
     /**
@@ -196,8 +197,8 @@ public class TestMember3 {
         // Create test payment
         Payment testPayment = new Payment(
             "TEST123",
-            20.0,
-            0.0,
+            2000,
+            0,
             PaymentMethod.CASH,
             "T-TEST123-20250130120000"
         );
@@ -209,12 +210,12 @@ public class TestMember3 {
         
         // Test retrieve payment
         System.out.println("\nTest 2 - Retrieve Payment:");
-        String[] paymentData = paymentsDAO.getPaymentById(testPayment.getPaymentId());
+        PaymentRow paymentData = paymentsDAO.getPaymentById(testPayment.getPaymentId());
         if (paymentData != null) {
             System.out.println("  ✓ Payment retrieved:");
-            System.out.println("    Payment ID: " + paymentData[0]);
-            System.out.println("    License Plate: " + paymentData[1]);
-            System.out.println("    Total: RM " + paymentData[5]);
+            System.out.println("    Payment ID: " + paymentData.getPaymentId());
+            System.out.println("    License Plate: " + paymentData.getLicensePlate());
+            System.out.println("    Total: RM " + Money.format(paymentData.getTotalAmount()));
             System.out.println("  Result: ✓ PASS");
         } else {
             System.out.println("  ✗ FAIL - Could not retrieve payment");
@@ -222,8 +223,8 @@ public class TestMember3 {
         
         // Test revenue calculation
         System.out.println("\nTest 3 - Total Revenue:");
-        double revenue = paymentsDAO.getTotalRevenue();
-        System.out.println("  Total Revenue: RM " + String.format("%.2f", revenue));
+        long revenue = paymentsDAO.getTotalRevenue();
+        System.out.println("  Total Revenue: RM " + Money.format(revenue));
         System.out.println("  Result: " + (revenue >= 0 ? "✓ PASS" : "✗ FAIL"));
         
         // Test payment count
@@ -282,13 +283,13 @@ public class TestMember3 {
         System.out.println("\nStep 3: Calculate bill");
         System.out.println("─────────────────────────────────────────────────────");
         
-        double[] bill = exitController.calculateBill("TEST999");
+        ExitQuote bill = exitController.quoteExit("TEST999");
         if (bill != null) {
             System.out.println("✓ Bill calculated:");
-            System.out.println("  Duration: " + (long)bill[0] + " hours");
-            System.out.println("  Parking Fee: RM " + String.format("%.2f", bill[1]));
-            System.out.println("  Fine: RM " + String.format("%.2f", bill[2]));
-            System.out.println("  Total: RM " + String.format("%.2f", bill[3]));
+            System.out.println("  Duration: " + bill.getDurationHours() + " hours");
+            System.out.println("  Parking Fee: RM " + Money.format(bill.getParkingFee()));
+            System.out.println("  Fine: RM " + Money.format(bill.getTotalFine()));
+            System.out.println("  Total: RM " + Money.format(bill.getTotalBill()));
         } else {
             System.out.println("✗ Bill calculation failed");
             return;
@@ -301,7 +302,7 @@ public class TestMember3 {
         if (receipt != null) {
             System.out.println("✓ Exit processed successfully");
             System.out.println("  Receipt ID: " + receipt.getReceiptId());
-            System.out.println("  Total Paid: RM " + String.format("%.2f", receipt.getTotalPaid()));
+            System.out.println("  Total Paid: RM " + Money.format(receipt.getTotalPaid()));
             System.out.println("\n" + receipt.getFormattedReceipt());
         } else {
             System.out.println("✗ Exit processing failed");
@@ -319,6 +320,57 @@ public class TestMember3 {
             System.out.println("✗ Vehicle still in system");
         }
         
+        System.out.println("\nStep 6: Exit with lost ticket and vehicle records");
+        System.out.println("─────────────────────────────────────────────────────");
+        
+        Ticket lostTicket = entryController.processParkingEntry("TEST998", VehicleType.CAR, false, null);
+        if (lostTicket == null) {
+            System.out.println("✗ Failed to park vehicle");
+            return;
+        }
+        database.DatabaseManager.getInstance().flushPendingWrites();
+        database.DaoRegistry daos = database.DaoRegistry.getInstance();
+        daos.getTicketsDAO().deleteTicket(lostTicket.getTicketId());
+        daos.getVehiclesDAO().deleteVehicle("TEST998");
+        
+        Receipt lostReceipt = exitController.processExit("TEST998", PaymentMethod.CASH);
+        if (lostReceipt != null && exitController.findVehicle("TEST998") == null) {
+            System.out.println("✓ Vehicle billed from its entry time and released");
+            System.out.println("  Ticket ID on receipt: " + lostReceipt.getTicketId());
+        } else {
+            System.out.println("✗ Vehicle with lost records could not leave");
+            return;
+        }
+        
+        System.out.println("\nStep 7: Unpaid fine carried into the next exit");
+        System.out.println("─────────────────────────────────────────────────────");
+        
+        long carried = Money.ofRinggit(30);
+        if (!exitController.issueFine("TEST997", carried, "Parked in reserved spot")) {
+            System.out.println("✗ Failed to record unpaid fine");
+            return;
+        }
+        if (entryController.processParkingEntry("TEST997", VehicleType.CAR, false, null) == null) {
+            System.out.println("✗ Failed to park vehicle");
+            return;
+        }
+        database.DatabaseManager.getInstance().flushPendingWrites();
+        
+        ExitQuote fineQuote = exitController.quoteExit("TEST997");
+        Receipt fineReceipt = exitController.processExit("TEST997", PaymentMethod.CASH);
+        database.DatabaseManager.getInstance().flushPendingWrites();
+        long stillOwed = daos.getFinesDAO().getUnpaidFinesTotal("TEST997");
+        if (fineQuote != null && fineQuote.getPreviousFines() == carried
+                && fineReceipt != null && fineReceipt.getFineAmount() == carried
+                && stillOwed == 0) {
+            System.out.println("✓ RM " + Money.format(carried) + " carried over, charged and settled");
+        } else {
+            System.out.println("✗ Unpaid fine not carried over (quoted "
+                + (fineQuote != null ? Money.format(fineQuote.getPreviousFines()) : "-")
+                + ", still owed RM " + Money.format(stillOwed) + ")");
+            return;
+        }
+        
         System.out.println("\n✓ COMPLETE EXIT WORKFLOW TEST PASSED");
     }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 import database.DatabaseManager;
+import database.UnitOfWork;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.Scanner;
 
 public class TestMember4 {
@@ -22,48 +25,44 @@ public class TestMember4 {
     }
 
     private static void simulateTimeTravel(String licensePlate, int hours) {
-        Connection conn = DatabaseManager.getInstance().getConnection();
-        
-        // SQLite Syntax: datetime('now', '-25 hours')
-        String timeModifier = "-" + hours + " hours";
+        // Stored as epoch milliseconds, like every other entry time
+        Timestamp entryTime = Timestamp.valueOf(LocalDateTime.now().minusHours(hours));
         
         // Update BOTH 'vehicles' and 'tickets' tables
         // If we don't update 'tickets', the ExitController won't see the new time!
-        String sqlVehicle = "UPDATE vehicles SET entry_time = datetime('now', 'localtime', ?) WHERE license_plate = ?";
-        String sqlTicket  = "UPDATE tickets SET entry_time = datetime('now', 'localtime', ?) WHERE license_plate = ?";
+        String sqlVehicle = "UPDATE vehicles SET entry_time = ? WHERE license_plate = ?";
+        String sqlTicket  = "UPDATE tickets SET entry_time = ? WHERE license_plate = ?";
         
-        try {
-            conn.setAutoCommit(false); // Start Transaction
+        try (UnitOfWork uow = DatabaseManager.getInstance().beginUnitOfWork()) { // Start Transaction
+            Connection conn = uow.getConnection();
 
             int rowsV = 0;
             int rowsT = 0;
 
             // Update Vehicle Table
             try (PreparedStatement pstmt1 = conn.prepareStatement(sqlVehicle)) {
-                pstmt1.setString(1, timeModifier);
+                pstmt1.setTimestamp(1, entryTime);
                 pstmt1.setString(2, licensePlate);
                 rowsV = pstmt1.executeUpdate();
             }
 
             // Update Ticket Table
             try (PreparedStatement pstmt2 = conn.prepareStatement(sqlTicket)) {
-                pstmt2.setString(1, timeModifier);
+                pstmt2.setTimestamp(1, entryTime);
                 pstmt2.setString(2, licensePlate);
                 rowsT = pstmt2.executeUpdate();
             }
             
             if (rowsV > 0 || rowsT > 0) {
-                conn.commit(); // Save changes
+                uow.commit(); // Save changes
                 System.out.println("✅ SUCCESS! Vehicle " + licensePlate + " is now parked " + hours + " hours ago.");
                 System.out.println("   - Vehicles Table Updated: " + (rowsV > 0 ? "Yes" : "No"));
                 System.out.println("   - Tickets Table Updated:  " + (rowsT > 0 ? "Yes" : "No"));
                 System.out.println("Go to 'Vehicle Exit' panel now to see the fine!");
             } else {
-                conn.rollback();
+                uow.rollback();
                 System.out.println("❌ ERROR: Vehicle not found or not currently parked.");
             }
-            
-            conn.setAutoCommit(true); // Reset
 
         } catch (SQLException e) {
             e.printStackTrace();
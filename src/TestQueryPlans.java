@@ -0,0 +1,138 @@
+import database.ConnectionLease;
+import database.DatabaseManager;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query plan checks for the hot DAO queries
+ * Runs EXPLAIN QUERY PLAN on each one and fails if SQLite would scan a
+ * whole table or sort in a temporary b-tree instead of using an index
+ *
+ * The SQL below must match the DAO methods named next to it
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public class TestQueryPlans {
+    private static int failures = 0;
+
+    public static void main(String[] args) throws SQLException {
+        System.out.println("╔════════════════════════════════════════════════╗");
+        System.out.println("║  QUERY PLAN TEST                               ║");
+        System.out.println("╚════════════════════════════════════════════════╝\n");
+
+        DatabaseManager dbManager = DatabaseManager.getInstance();
+        if (!dbManager.testConnection()) {
+            System.out.println("✗ Database connection failed");
+            System.exit(1);
+        }
+
+        // TicketsDAO.getTicketByLicensePlate
+        check("latest ticket by plate",
+              "SELECT * FROM tickets WHERE license_plate = ? " +
+              "ORDER BY entry_time DESC LIMIT 1");
+
+        // VehiclesDAO.getCurrentVehicleCount
+        check("parked vehicle count",
+              "SELECT COUNT(*) as total FROM vehicles WHERE exit_time IS NULL");
+
+        // VehiclesDAO.getAllCurrentVehicles
+        check("parked vehicle list",
+              "SELECT v.license_plate, v.vehicle_type, v.entry_time, v.spot_id " +
+              "FROM vehicles v WHERE v.exit_time IS NULL");
+
+        // PaymentsDAO.getRevenueByMethod
+        check("revenue by method",
+              "SELECT COALESCE(SUM(total_amount), 0) as total FROM revenue_totals " +
+              "WHERE payment_method = ?");
+
+        // PaymentsDAO.getHourlyRevenue
+        check("hourly revenue for a day",
+              "SELECT hour, SUM(total_amount) as total FROM revenue_hourly " +
+              "WHERE day = ? GROUP BY hour");
+
+        // Aggregate trigger on every payment - ticket to spot type
+        check("spot type of a payment",
+              "SELECT s.spot_type FROM tickets t JOIN parking_spots s ON s.spot_id = t.spot_id " +
+              "WHERE t.ticket_id = ?");
+
+        // PaymentsDAO.getPaymentsPage
+        check("payment history page",
+              "SELECT payment_id, license_plate, ticket_id, parking_fee, fine_amount, " +
+              "total_amount, payment_method, payment_time FROM payments " +
+              "WHERE payment_time >= ? AND (payment_time, payment_id) < (?, ?) " +
+              "ORDER BY payment_time DESC, payment_id DESC LIMIT ?");
+
+        // PaymentsDAO.streamPayments
+        check("payment history stream",
+              "SELECT payment_id, license_plate, ticket_id, parking_fee, fine_amount, " +
+              "total_amount, payment_method, payment_time FROM payments " +
+              "WHERE payment_time >= ? AND payment_time < ? " +
+              "ORDER BY payment_time DESC, payment_id DESC");
+
+        // FinesDAO.getUnpaidFinesTotal
+        check("unpaid fines total",
+              "SELECT COALESCE(SUM(amount), 0) as total FROM fines " +
+              "WHERE license_plate = ? AND status = 'UNPAID'");
+
+        // FinesDAO unpaid-plates filter (built at startup)
+        check("plates with unpaid fines",
+              "SELECT DISTINCT license_plate FROM fines WHERE status = 'UNPAID'");
+
+        // FinesDAO.markFinesAsPaid
+        check("mark fines paid",
+              "UPDATE fines SET status = 'PAID' " +
+              "WHERE license_plate = ? AND status = 'UNPAID'");
+
+        dbManager.closeConnection();
+
+        System.out.println();
+        if (failures > 0) {
+            System.out.println("✗ " + failures + " QUERY PLAN CHECK(S) FAILED");
+            System.exit(1);
+        }
+        System.out.println("╔════════════════════════════════════════════════╗");
+        System.out.println("║  ALL QUERY PLAN CHECKS PASSED! ✓               ║");
+        System.out.println("╚════════════════════════════════════════════════╝");
+    }
+
+    private static void check(String name, String sql) throws SQLException {
+        List<String> plan = explain(sql);
+        boolean ok = true;
+        for (String step : plan) {
+            boolean fullScan = step.startsWith("SCAN") && !step.contains("INDEX");
+            boolean tempSort = step.contains("USE TEMP B-TREE");
+            if (fullScan || tempSort) {
+                ok = false;
+            }
+        }
+
+        System.out.println((ok ? "✓ " : "✗ ") + name);
+        for (String step : plan) {
+            System.out.println("    " + step);
+        }
+        if (!ok) {
+            failures++;
+        }
+    }
+
+    /**
+     * Plan steps for the SQL, with every parameter bound to a placeholder value
+     */
+    private static List<String> explain(String sql) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (ConnectionLease lease = DatabaseManager.getInstance().acquireReadConnection();
+             PreparedStatement pstmt = lease.getConnection().prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            int params = pstmt.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= params; i++) {
+                pstmt.setString(i, "PLAN-CHECK");
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    plan.add(rs.getString("detail"));
+                }
+            }
+        }
+        return plan;
+    }
+}
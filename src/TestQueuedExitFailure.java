@@ -0,0 +1,99 @@
+import controllers.EntryController;
+import controllers.ExitController;
+import database.DaoRegistry;
+import database.DatabaseManager;
+import database.UnitOfWork;
+import models.parking.*;
+import models.payment.PaymentMethod;
+import models.payment.Receipt;
+import models.vehicle.Ticket;
+import models.vehicle.VehicleType;
+import java.io.File;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Group commit exit test - an exit whose transaction fails in GROUP_COMMIT
+ * mode must leave the car parked, in memory and in the database, and must
+ * succeed once the fault is gone
+ * Runs against a scratch database file
+ *
+ * @author Member 3 - Exit & Payment Management Lead
+ */
+public class TestQueuedExitFailure {
+    private static final String PLATE = "QEX001";
+
+    public static void main(String[] args) throws Exception {
+        File file = File.createTempFile("parking_exit_test", ".db");
+        file.delete();
+        System.setProperty("parking.db.file", file.getPath());
+        System.setProperty("parking.db.durability", "GROUP_COMMIT");
+
+        System.out.println("╔════════════════════════════════════════════════╗");
+        System.out.println("║  GROUP COMMIT EXIT FAILURE TEST                ║");
+        System.out.println("╚════════════════════════════════════════════════╝\n");
+
+        DatabaseManager database = DatabaseManager.getInstance();
+        DaoRegistry daos = DaoRegistry.getInstance();
+        ParkingLot parkingLot = new ParkingLot("Exit Failure Lot");
+        parkingLot.initializeDefaultLayout(1);
+        check("spots saved", daos.getParkingSpotsDAO().saveParkingLot(parkingLot));
+
+        EntryController entryController = new EntryController(parkingLot);
+        ExitController exitController = new ExitController(parkingLot);
+        Ticket ticket = entryController.processParkingEntry(PLATE, VehicleType.CAR, false, null);
+        check("vehicle parked (entry queued)", ticket != null);
+        ParkingSpot spot = ticket.getSpot();
+
+        // Test 1: The exit's transaction fails
+        System.out.println("\nTEST 1: Exit transaction fails");
+        System.out.println("─────────────────────────────────────────────────");
+        database.flushPendingWrites();
+        execute(database, "ALTER TABLE payments RENAME TO payments_hidden");
+        try {
+            Receipt failed = exitController.processExit(PLATE, PaymentMethod.CASH);
+            check("no receipt issued", failed == null);
+            check("car still parked in memory", exitController.findVehicle(PLATE) != null
+                                                && spot.getStatus() == SpotStatus.OCCUPIED);
+            check("car still parked in the database",
+                  daos.getTicketsDAO().getTicketByLicensePlate(PLATE) != null);
+        } finally {
+            execute(database, "ALTER TABLE payments_hidden RENAME TO payments");
+        }
+
+        // Test 2: The same exit goes through once the fault is gone
+        System.out.println("\nTEST 2: Exit retried after the fault");
+        System.out.println("─────────────────────────────────────────────────");
+        Receipt receipt = exitController.processExit(PLATE, PaymentMethod.CASH);
+        check("receipt issued", receipt != null);
+        check("spot free in memory", exitController.findVehicle(PLATE) == null
+                                     && spot.getStatus() == SpotStatus.AVAILABLE);
+        check("ticket removed from the database",
+              daos.getTicketsDAO().getTicketByLicensePlate(PLATE) == null);
+
+        database.closeConnection();
+        for (String suffix : new String[] {"", "-wal", "-shm", "-journal"}) {
+            new File(file.getPath() + suffix).delete();
+        }
+
+        System.out.println("\n╔════════════════════════════════════════════════╗");
+        System.out.println("║  ALL EXIT FAILURE TESTS PASSED! ✓              ║");
+        System.out.println("╚════════════════════════════════════════════════╝");
+    }
+
+    private static void execute(DatabaseManager database, String sql) throws SQLException {
+        try (UnitOfWork uow = database.beginUnitOfWork();
+             Statement stmt = uow.getConnection().createStatement()) {
+            stmt.execute(sql);
+            uow.commit();
+        }
+    }
+
+    private static void check(String name, boolean ok) {
+        System.out.println((ok ? "✓ " : "✗ ") + name);
+        if (!ok) {
+            System.out.println("\n✗ EXIT FAILURE TEST FAILED");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import models.tariff.Tariff;
+import models.tariff.TariffSchedule;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.Random;
+
+/**
+ * Tariff test - price stays with a compiled schedule and compare every fee
+ * with a plain hour-by-hour count of the same rules
+ * No database needed
+ *
+ * @author Member 3 - Exit & Payment Management Lead
+ */
+public class TestTariffs {
+    private static final long BASE = 500;
+    private static final long PEAK = 800;
+    private static final long WEEKEND = 300;
+    private static final long FRIDAY_NIGHT = 650;
+    private static final long NIGHT_CAP = 1000;
+
+    public static void main(String[] args) {
+        System.out.println("╔════════════════════════════════════════════════╗");
+        System.out.println("║  TARIFF SCHEDULE TEST                          ║");
+        System.out.println("╚════════════════════════════════════════════════╝\n");
+
+        // Test 1: A flat tariff is hours x rate
+        System.out.println("TEST 1: Flat tariff");
+        System.out.println("─────────────────────────────────────────────────");
+        TariffSchedule flat = new Tariff("Flat", BASE).compile();
+        LocalDateTime monday = LocalDate.of(2025, 1, 6).atTime(9, 17);
+        check("3 hours = RM 15.00", flat.calculateFee(monday, 3) == 1500);
+        check("1000 hours = RM 5000.00", flat.calculateFee(monday, 1000) == 500_000);
+        System.out.println();
+
+        // Test 2: Peak, weekend, overnight cap and free first hour
+        System.out.println("TEST 2: Mixed tariff against hour-by-hour pricing");
+        System.out.println("─────────────────────────────────────────────────");
+        TariffSchedule mixed = mixedTariff(1).compile();
+        check("first hour free", mixed.calculateFee(monday, 1) == 0);
+        check("Monday 09:17, 2 hours = 1 free + 1 peak", mixed.calculateFee(monday, 2) == PEAK);
+        LocalDateTime night = LocalDate.of(2025, 1, 7).atTime(21, 0);
+        check("Tuesday 21:00, 12 hours = free hour then a capped night + 2 base",
+              mixed.calculateFee(night, 12) == NIGHT_CAP + 2 * BASE);
+        check("random stays up to three weeks", compareRandomStays(mixed, 1, 20_000, 3 * 168));
+        check("tariff with no free hours", compareRandomStays(mixedTariff(0).compile(), 0, 5_000, 400));
+        System.out.println();
+
+        // Test 3: Caps must leave some hours uncapped
+        System.out.println("TEST 3: Invalid tariff");
+        System.out.println("─────────────────────────────────────────────────");
+        boolean rejected = false;
+        try {
+            new Tariff("Always capped", BASE)
+                .cap(Tariff.EVERY_DAY, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, NIGHT_CAP)
+                .compile();
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        check("cap over the whole week rejected", rejected);
+
+        System.out.println("\n╔════════════════════════════════════════════════╗");
+        System.out.println("║  ALL TARIFF TESTS PASSED! ✓                    ║");
+        System.out.println("╚════════════════════════════════════════════════╝");
+    }
+
+    /**
+     * Weekday peak from 08:30, weekends cheaper, Friday night (into Saturday)
+     * priced on its own, every night capped
+     */
+    private static Tariff mixedTariff(int freeHours) {
+        return new Tariff("Mixed", BASE)
+            .rate(Tariff.WEEKDAYS, LocalTime.of(8, 30), LocalTime.of(18, 0), PEAK)
+            .rate(Tariff.WEEKEND, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, WEEKEND)
+            .rate(EnumSet.of(DayOfWeek.FRIDAY), LocalTime.of(20, 0), LocalTime.of(2, 0), FRIDAY_NIGHT)
+            .cap(Tariff.EVERY_DAY, LocalTime.of(22, 0), LocalTime.of(7, 0), NIGHT_CAP)
+            .firstHoursFree(freeHours);
+    }
+
+    private static boolean compareRandomStays(TariffSchedule schedule, int freeHours, int stays, int maxHours) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDate.of(2025, 1, 6).atStartOfDay();
+        for (int i = 0; i < stays; i++) {
+            LocalDateTime entry = start.plusMinutes(random.nextInt(7 * 24 * 60));
+            long hours = 1 + random.nextInt(maxHours);
+            long expected = priceHourByHour(entry, hours, freeHours);
+            long actual = schedule.calculateFee(entry, hours);
+            if (expected != actual) {
+                System.out.println("  " + entry + " for " + hours + "h: expected " + expected + ", got " + actual);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long priceHourByHour(LocalDateTime entry, long hours, int freeHours) {
+        long fee = 0;
+        LocalDateTime night = null;
+        long spentTonight = 0;
+        for (long k = freeHours; k < hours; k++) {
+            LocalDateTime hourStart = entry.plusHours(k);
+            long rate = rateAt(hourStart);
+            LocalDateTime thisNight = nightOf(hourStart);
+            if (thisNight == null) {
+                fee += rate;
+            } else {
+                if (!thisNight.equals(night)) {
+                    spentTonight = 0;
+                }
+                long charge = Math.min(rate, NIGHT_CAP - spentTonight);
+                spentTonight += charge;
+                fee += charge;
+            }
+            night = thisNight;
+        }
+        return fee;
+    }
+
+    private static long rateAt(LocalDateTime time) {
+        DayOfWeek day = time.getDayOfWeek();
+        LocalTime clock = time.toLocalTime();
+        if ((day == DayOfWeek.FRIDAY && !clock.isBefore(LocalTime.of(20, 0)))
+                || (day == DayOfWeek.SATURDAY && clock.isBefore(LocalTime.of(2, 0)))) {
+            return FRIDAY_NIGHT;
+        }
+        if (day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY) {
+            return WEEKEND;
+        }
+        if (!clock.isBefore(LocalTime.of(8, 30)) && clock.isBefore(LocalTime.of(18, 0))) {
+            return PEAK;
+        }
+        return BASE;
+    }
+
+    /**
+     * Start of the capped night an hour falls in, or null outside 22:00 - 07:00
+     */
+    private static LocalDateTime nightOf(LocalDateTime time) {
+        LocalTime clock = time.toLocalTime();
+        if (!clock.isBefore(LocalTime.of(22, 0))) {
+            return time.toLocalDate().atTime(22, 0);
+        }
+        if (clock.isBefore(LocalTime.of(7, 0))) {
+            return time.toLocalDate().minusDays(1).atTime(22, 0);
+        }
+        return null;
+    }
+
+    private static void check(String name, boolean ok) {
+        System.out.println((ok ? "✓ " : "✗ ") + name);
+        if (!ok) {
+            System.out.println("\n✗ TARIFF TEST FAILED");
+            System.exit(1);
+        }
+    }
+}
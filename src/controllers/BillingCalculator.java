@@ -2,6 +2,7 @@ package controllers;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import models.payment.Money;
 
 /**
  * Billing Calculator
@@ -12,6 +13,8 @@ import java.time.temporal.ChronoUnit;
  * Example: 2 hours 30 minutes = 3 hours
  * Example: 3 hours 0 minutes = 3 hours (exact)
  * 
+ * All amounts are in sen (see Money), so fees add up exactly
+ * 
  * @author Member 3 - Exit & Payment Management Lead
  */
 public class BillingCalculator {
@@ -53,10 +56,10 @@ public class BillingCalculator {
      * Calculate parking fee
      * 
      * @param durationHours Duration in hours
-     * @param hourlyRate Hourly rate of the spot
-     * @return Total parking fee
+     * @param hourlyRate Hourly rate of the spot, in sen
+     * @return Total parking fee, in sen
      */
-    public static double calculateParkingFee(long durationHours, double hourlyRate) {
+    public static long calculateParkingFee(long durationHours, long hourlyRate) {
         if (durationHours < 0) {
             throw new IllegalArgumentException("Duration cannot be negative");
         }
@@ -65,18 +68,18 @@ public class BillingCalculator {
             throw new IllegalArgumentException("Hourly rate cannot be negative");
         }
         
-        return durationHours * hourlyRate;
+        return Money.times(hourlyRate, durationHours);
     }
     
     /**
      * Calculate total bill including fines
      * 
-     * @param parkingFee Parking fee amount
-     * @param fineAmount Fine amount (0 if no fines)
-     * @return Total amount due
+     * @param parkingFee Parking fee amount, in sen
+     * @param fineAmount Fine amount (0 if no fines), in sen
+     * @return Total amount due, in sen
      */
-    public static double calculateTotalBill(double parkingFee, double fineAmount) {
-        return parkingFee + fineAmount;
+    public static long calculateTotalBill(long parkingFee, long fineAmount) {
+        return Math.addExact(parkingFee, fineAmount);
     }
     
     /**
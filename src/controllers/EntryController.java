@@ -7,8 +7,15 @@ import models.vehicle.*;
 import database.VehiclesDAO;
 import database.TicketsDAO;
 import database.ParkingSpotsDAO; // Added import
+import database.DatabaseManager;
+import database.EventJournal;
+import database.JournalEvent;
+import database.DaoRegistry;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Entry Controller - handles vehicle entry and parking process
@@ -17,6 +24,8 @@ import java.util.List;
  * * @author Member 2 - Vehicle & Entry Management Lead
  */
 public class EntryController {
+    private static final Logger logger = LoggerFactory.getLogger(EntryController.class);
+    
     private ParkingLot parkingLot;
     private VehiclesDAO vehiclesDAO;
     private TicketsDAO ticketsDAO;
@@ -28,10 +37,11 @@ public class EntryController {
      */
     public EntryController(ParkingLot parkingLot) {
         this.parkingLot = parkingLot;
-        this.vehiclesDAO = new VehiclesDAO();
-        this.ticketsDAO = new TicketsDAO();
-        this.spotsDAO = new ParkingSpotsDAO(); // Initialize DAO
-        System.out.println("✓ EntryController initialized");
+        DaoRegistry daos = DaoRegistry.getInstance();
+        this.vehiclesDAO = daos.getVehiclesDAO();
+        this.ticketsDAO = daos.getTicketsDAO();
+        this.spotsDAO = daos.getParkingSpotsDAO();
+        logger.debug("EntryController initialized");
     }
     
     /**
@@ -49,7 +59,8 @@ public class EntryController {
         
         licensePlate = licensePlate.trim().toUpperCase();
         
-        // Check if vehicle already parked
+        // Check if vehicle already parked (early answer for the form; the
+        // lot enforces it atomically when the spot is claimed)
         Vehicle existingVehicle = parkingLot.findVehicleByLicensePlate(licensePlate);
         if (existingVehicle != null) {
             throw new IllegalStateException("Vehicle " + licensePlate + " is already parked!");
@@ -91,48 +102,80 @@ public class EntryController {
      * * @param vehicle Vehicle to park
      * @param spotId ID of the spot to park in
      * @return Generated parking ticket, or null if failed
+     * @throws IllegalStateException if the vehicle is already parked
      */
     public Ticket parkVehicle(Vehicle vehicle, String spotId) {
         // Get the spot
         ParkingSpot spot = parkingLot.getSpotById(spotId);
         if (spot == null) {
-            System.err.println("✗ Spot not found: " + spotId);
+            logger.warn("Spot not found: {}", spotId);
             return null;
         }
         
-        // Check if spot is available
-        if (!spot.isAvailable()) {
-            System.err.println("✗ Spot " + spotId + " is already occupied");
+        // Set entry time
+        vehicle.setEntryTime(LocalDateTime.now());
+        
+        // Claim the spot (uses Member 1's method - Updates Memory)
+        // The claim is atomic, so if another gate took the spot first it fails here
+        if (!parkingLot.claimSpot(spot, vehicle)) {
+            logger.warn("Spot {} is no longer available", spotId);
             return null;
         }
         
-        // Set entry time
-        LocalDateTime entryTime = LocalDateTime.now();
-        vehicle.setEntryTime(entryTime);
-        
-        // Assign vehicle to spot (uses Member 1's method - Updates Memory)
-        boolean assigned = spot.assignVehicle(vehicle);
+        return completeEntry(vehicle, spot);
+    }
+    
+    /**
+     * Park a vehicle in the first suitable free spot
+     * Retries with the next free spot if another gate claims one first
+     * * @param vehicle Vehicle to park
+     * @return Generated parking ticket, or null if no spot is free
+     * @throws IllegalStateException if the vehicle is already parked
+     */
+    public Ticket parkVehicleInFirstAvailableSpot(Vehicle vehicle) {
+        vehicle.setEntryTime(LocalDateTime.now());
         
-        if (!assigned) {
-            System.err.println("✗ Failed to assign vehicle to spot");
+        ParkingSpot spot = parkingLot.claimAvailableSpot(vehicle);
+        if (spot == null) {
+            logger.warn("No available spots for {}", vehicle.getType());
             return null;
         }
         
+        return completeEntry(vehicle, spot);
+    }
+    
+    /**
+     * Issue the ticket and persist a vehicle that has already claimed its spot
+     */
+    private Ticket completeEntry(Vehicle vehicle, ParkingSpot spot) {
         // Generate ticket
         Ticket ticket = new Ticket(vehicle, spot);
         
-        // Save to database (Updates DB)
-        vehiclesDAO.saveVehicle(vehicle, spot);
-        ticketsDAO.saveTicket(ticket);
+        // Save to database (Updates DB) - vehicle, ticket and spot status
+        // are written as one transaction, so a crash never leaves half an entry.
+        // In GROUP_COMMIT mode this only queues the writes and the driver is
+        // let in on the in-memory state
+        boolean persisted = DatabaseManager.getInstance().persist(
+            "entry " + vehicle.getLicensePlate(),
+            () -> vehiclesDAO.saveVehicle(vehicle, spot)
+                && ticketsDAO.saveTicket(ticket)
+                && spotsDAO.updateSpotStatus(spot.getSpotId(), SpotStatus.OCCUPIED, vehicle.getLicensePlate()));
+        
+        if (!persisted) {
+            spot.releaseVehicle();
+            logger.error("Failed to save entry for {}", vehicle.getLicensePlate());
+            return null;
+        }
         
-        // --- FIX START: Update the Spot Status in Database ---
-        spotsDAO.updateSpotStatus(spot.getSpotId(), SpotStatus.OCCUPIED, vehicle.getLicensePlate());
-        // --- FIX END ---
+        try {
+            EventJournal.getInstance().append(JournalEvent.entry(vehicle, spot));
+        } catch (IOException e) {
+            // The entry is already saved; the next start loads the lot from the database
+            logger.error("Entry of {} saved but not journaled", vehicle.getLicensePlate(), e);
+        }
         
-        System.out.println("✓ Vehicle parked successfully!");
-        System.out.println("  Vehicle: " + vehicle.getLicensePlate());
-        System.out.println("  Spot: " + spot.getSpotId());
-        System.out.println("  Ticket: " + ticket.getTicketId());
+        logger.info("Vehicle parked successfully: {} -> spot {}, ticket {}",
+                    vehicle.getLicensePlate(), spot.getSpotId(), ticket.getTicketId());
         
         return ticket;
     }
@@ -151,24 +194,16 @@ public class EntryController {
             // Create vehicle
             Vehicle vehicle = createVehicle(licensePlate, vehicleType, hasHandicappedCard);
             
-            // Determine spot to use
-            String spotId = preferredSpotId;
-            
-            if (spotId == null || spotId.trim().isEmpty()) {
-                // Find first available spot
-                List<ParkingSpot> availableSpots = findAvailableSpots(vehicleType);
-                if (availableSpots.isEmpty()) {
-                    System.err.println("✗ No available spots for " + vehicleType);
-                    return null;
-                }
-                spotId = availableSpots.get(0).getSpotId();
+            // No preference - claim the first available spot
+            if (preferredSpotId == null || preferredSpotId.trim().isEmpty()) {
+                return parkVehicleInFirstAvailableSpot(vehicle);
             }
             
             // Park vehicle
-            return parkVehicle(vehicle, spotId);
+            return parkVehicle(vehicle, preferredSpotId);
             
         } catch (IllegalArgumentException | IllegalStateException e) {
-            System.err.println("✗ Parking entry failed: " + e.getMessage());
+            logger.error("Parking entry failed: {}", e.getMessage());
             return null;
         }
     }
@@ -3,18 +3,32 @@ package controllers;
 import models.parking.ParkingLot;
 import models.parking.ParkingSpot;
 import models.parking.SpotStatus;
+import models.vehicle.Ticket;
 import models.vehicle.Vehicle;
+import models.payment.Money;
 import models.payment.Payment;
 import models.payment.PaymentMethod;
 import models.payment.Receipt;
+import models.fine.Fine;
+import database.TicketRow;
 import database.TicketsDAO;
 import database.VehiclesDAO;
 import database.ParkingSpotsDAO;
 import database.PaymentsDAO;
+import database.FinesDAO;
+import database.DatabaseManager;
+import database.EventJournal;
+import database.JournalEvent;
+import database.DaoRegistry;
 import services.FineCalculator;
+import services.TariffCalculator;
+import models.tariff.TariffSchedule;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.sql.Timestamp;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Exit Controller - INTEGRATED WITH STRATEGY PATTERN
@@ -22,21 +36,34 @@ import java.sql.Timestamp;
  * * @author Member 3 - Exit & Payment Management Lead
  */
 public class ExitController {
+    private static final Logger logger = LoggerFactory.getLogger(ExitController.class);
+    
     private ParkingLot parkingLot;
     private TicketsDAO ticketsDAO;
     private VehiclesDAO vehiclesDAO;
     private ParkingSpotsDAO spotsDAO;
     private PaymentsDAO paymentsDAO;
+    private FinesDAO finesDAO;
     private PaymentProcessor paymentProcessor;
     
+    // A quote outlives the bill screen only briefly; after this it is recalculated
+    private static final long QUOTE_TTL_MILLIS = Long.getLong("parking.exit.quoteTtlSeconds", 120L) * 1000L;
+    
+    // Latest quote per plate, taken by the payment step; quotes that are
+    // never paid are swept out once they expire
+    private final ConcurrentHashMap<String, ExitQuote> quotes = new ConcurrentHashMap<>();
+    private volatile long nextQuoteSweepMillis;
+    
     public ExitController(ParkingLot parkingLot) {
         this.parkingLot = parkingLot;
-        this.ticketsDAO = new TicketsDAO();
-        this.vehiclesDAO = new VehiclesDAO();
-        this.spotsDAO = new ParkingSpotsDAO();
-        this.paymentsDAO = new PaymentsDAO();
+        DaoRegistry daos = DaoRegistry.getInstance();
+        this.ticketsDAO = daos.getTicketsDAO();
+        this.vehiclesDAO = daos.getVehiclesDAO();
+        this.spotsDAO = daos.getParkingSpotsDAO();
+        this.paymentsDAO = daos.getPaymentsDAO();
+        this.finesDAO = daos.getFinesDAO();
         this.paymentProcessor = new PaymentProcessor();
-        System.out.println("✓ ExitController initialized");
+        logger.debug("ExitController initialized");
     }
     
     public Vehicle findVehicle(String licensePlate) {
@@ -53,82 +80,168 @@ public class ExitController {
         return parkingLot.findSpotByVehicle(vehicle.getLicensePlate());
     }
     
-    public double[] calculateBill(String licensePlate) {
+    /**
+     * Work out the bill for a vehicle and keep it as the plate's quote
+     * processExit charges this quote while it is still valid
+     */
+    public ExitQuote quoteExit(String licensePlate) {
+        if (licensePlate == null || licensePlate.trim().isEmpty()) {
+            return null;
+        }
+        licensePlate = licensePlate.trim().toUpperCase();
+        
         Vehicle vehicle = findVehicle(licensePlate);
         if (vehicle == null) {
-            System.err.println("✗ Vehicle not found: " + licensePlate);
+            logger.warn("Vehicle not found: {}", licensePlate);
             return null;
         }
         
         ParkingSpot spot = getVehicleSpot(vehicle);
         if (spot == null) {
-            System.err.println("✗ Parking spot not found for vehicle: " + licensePlate);
+            logger.warn("Parking spot not found for vehicle: {}", licensePlate);
             return null;
         }
-
-
         
-        // --- FIX START: RELOAD ENTRY TIME FROM DATABASE ---
+        ExitQuote quote = computeQuote(licensePlate, vehicle, spot);
+        if (quote != null) {
+            quotes.put(licensePlate, quote);
+        }
+        sweepExpiredQuotes();
+        return quote;
+    }
+    
+    /**
+     * Record a fine the driver has not paid (e.g. a violation reported by an
+     * attendant, or a disputed charge); it is carried into the plate's next exit
+     * 
+     * @param amount Fine in sen
+     * @return true if the fine was recorded
+     */
+    public boolean issueFine(String licensePlate, long amount, String reason) {
+        if (!validateLicensePlate(licensePlate) || amount <= 0) {
+            logger.warn("Invalid fine: plate {}, amount {}", licensePlate, amount);
+            return false;
+        }
+        Fine fine = new Fine(licensePlate.trim().toUpperCase(), amount,
+                             reason == null || reason.trim().isEmpty() ? "Unpaid fine" : reason.trim());
+        return DatabaseManager.getInstance().persistNow(
+            "fine " + fine.getLicensePlate(), () -> finesDAO.addFine(fine));
+    }
+    
+    /**
+     * Drop the quotes of drivers who never paid, at most once per TTL
+     */
+    private void sweepExpiredQuotes() {
+        long now = System.currentTimeMillis();
+        if (now < nextQuoteSweepMillis) {
+            return;
+        }
+        nextQuoteSweepMillis = now + QUOTE_TTL_MILLIS;
+        quotes.values().removeIf(quote -> quote.isExpired(now));
+    }
+    
+    private ExitQuote computeQuote(String licensePlate, Vehicle vehicle, ParkingSpot spot) {
         // We trust the database (which Admin Panel updated) over the stale Java object
-LocalDateTime entryTime;
-        String[] ticketData = ticketsDAO.getTicketByLicensePlate(licensePlate);
-        
-        if (ticketData != null) {
-            try {
-                // Parse time from DB
-                entryTime = java.sql.Timestamp.valueOf(ticketData[3]).toLocalDateTime();
-                
-                // ✅ FIX: Update the memory object so the UI updates too!
-                // (This fixes the "Today/Yesterday" display bug)
-                vehicle.setEntryTime(entryTime); 
-                
-            } catch (Exception e) {
-                entryTime = vehicle.getEntryTime();
-            }
+        TicketRow ticket = ticketsDAO.getTicketByLicensePlate(licensePlate);
+        if (ticket == null) {
+            // The entry may still be waiting in the write-behind queue
+            DatabaseManager.getInstance().flushPendingWrites();
+            ticket = ticketsDAO.getTicketByLicensePlate(licensePlate);
+        }
+        LocalDateTime entryTime;
+        String ticketId;
+        String spotId;
+        if (ticket != null) {
+            entryTime = ticket.getEntryTime();
+            ticketId = ticket.getTicketId();
+            spotId = ticket.getSpotId();
+            
+            // Update the memory object so the UI shows the same entry time
+            // (This fixes the "Today/Yesterday" display bug)
+            vehicle.setEntryTime(entryTime);
         } else {
+            // Lost ticket: bill from the vehicle's own entry time
             entryTime = vehicle.getEntryTime();
+            if (entryTime == null) {
+                logger.warn("Entry time not found for vehicle: {}", licensePlate);
+                return null;
+            }
+            logger.warn("Ticket not found for vehicle {}, billing from its entry time", licensePlate);
+            ticketId = Ticket.idFor(licensePlate, entryTime);
+            spotId = spot.getSpotId();
         }
         
-        // --- FIX END ---
-        
-        if (entryTime == null) {
-            System.err.println("✗ Entry time not found for vehicle: " + licensePlate);
-            return null;
-        }
-        
-        LocalDateTime exitTime = LocalDateTime.now();
+        LocalDateTime quotedAt = LocalDateTime.now();
         
         // 1. Calculate Duration
-        long durationHours = BillingCalculator.calculateDuration(entryTime, exitTime);
+        long durationHours = BillingCalculator.calculateDuration(entryTime, quotedAt);
         
-        // 2. Calculate Standard Parking Fee
-        double hourlyRate = spot.getHourlyRate();
-        double parkingFee = BillingCalculator.calculateParkingFee(durationHours, hourlyRate);
+        // 2. Calculate Parking Fee (the spot type's tariff if it has one, else the flat rate)
+        long hourlyRate = spot.getHourlyRate();
+        TariffSchedule tariff = TariffCalculator.getSchedule(spot.getType());
+        long parkingFee = tariff != null
+            ? tariff.calculateFee(entryTime, durationHours)
+            : BillingCalculator.calculateParkingFee(durationHours, hourlyRate);
         
         // 3. STRATEGY PATTERN: Calculate Overstay Fine (Current Session)
-        double overstayFine = FineCalculator.calculate(durationHours);
+        long overstayFine = FineCalculator.calculate(durationHours);
         
-        // 4. Get Previous Unpaid Fines (from Database)
-        double previousFines = paymentsDAO.getUnpaidFines(licensePlate);
+        // 4. Get Previous Unpaid Fines (from the fines ledger)
+        long previousFines = finesDAO.getUnpaidFinesTotal(licensePlate);
         
         // 5. Total Fine & Total Bill
-        double totalFine = overstayFine + previousFines;
-        double totalBill = BillingCalculator.calculateTotalBill(parkingFee, totalFine);
+        long totalBill = BillingCalculator.calculateTotalBill(parkingFee, overstayFine + previousFines);
         
-        System.out.println("✓ Bill calculated for " + licensePlate);
-        System.out.println("  Duration: " + durationHours + " hours");
-        System.out.println("  Parking Fee: RM " + String.format("%.2f", parkingFee));
-        System.out.println("  Overstay Fine: RM " + String.format("%.2f", overstayFine));
-        System.out.println("  Previous Fines: RM " + String.format("%.2f", previousFines));
-        System.out.println("  Total Due: RM " + String.format("%.2f", totalBill));
+        ExitQuote quote = new ExitQuote(licensePlate, ticketId, spotId,
+                                        entryTime, quotedAt, System.currentTimeMillis() + QUOTE_TTL_MILLIS,
+                                        durationHours, hourlyRate, tariff, parkingFee,
+                                        overstayFine, previousFines, totalBill);
         
-        return new double[]{durationHours, parkingFee, totalFine, totalBill};
+        if (logger.isInfoEnabled()) {
+            logger.info("Bill calculated for {}: {} hours, fee RM {}, overstay fine RM {}, previous fines RM {}, total RM {}",
+                        licensePlate, durationHours,
+                        Money.format(parkingFee), Money.format(overstayFine),
+                        Money.format(previousFines), Money.format(totalBill));
+        }
+        return quote;
     }
-
+    
+    /**
+     * The plate's quote if it can still be charged as it is: not expired,
+     * for the same ticket, spot and stored entry time, with the stay still
+     * in the billed hour and the tariff and fines ledger unchanged
+     * Only quotes this controller issued are in the map, and each is used
+     * at most once
+     */
+    private ExitQuote takeValidQuote(String licensePlate, Vehicle vehicle, ParkingSpot spot) {
+        ExitQuote quote = quotes.remove(licensePlate);
+        if (quote == null) {
+            return null;
+        }
+        // The entry time is read from the ticket again, as computeQuote does:
+        // an admin edit changes the database, not the in-memory vehicle
+        TicketRow ticket = ticketsDAO.getTicketByLicensePlate(licensePlate);
+        LocalDateTime entryTime = ticket != null ? ticket.getEntryTime() : vehicle.getEntryTime();
+        String ticketId = ticket != null ? ticket.getTicketId()
+                        : entryTime != null ? Ticket.idFor(licensePlate, entryTime) : null;
+        if (entryTime == null
+                || quote.isExpired(System.currentTimeMillis())
+                || !quote.getSpotId().equals(spot.getSpotId())
+                || !quote.getTicketId().equals(ticketId)
+                || !quote.getEntryTime().equals(entryTime)
+                || BillingCalculator.calculateDuration(quote.getEntryTime(), LocalDateTime.now()) != quote.getDurationHours()
+                || TariffCalculator.getSchedule(spot.getType()) != quote.getTariff()
+                || finesDAO.getUnpaidFinesTotal(licensePlate) != quote.getPreviousFines()) {
+            logger.debug("Quote for {} is stale; recalculating", licensePlate);
+            return null;
+        }
+        return quote;
+    }
+    
     public Receipt processExit(String licensePlate, PaymentMethod paymentMethod) {
         try {
             if (licensePlate == null || licensePlate.trim().isEmpty()) {
-                System.err.println("✗ License plate is required");
+                logger.warn("License plate is required");
                 return null;
             }
             
@@ -136,37 +249,36 @@ LocalDateTime entryTime;
             
             Vehicle vehicle = findVehicle(licensePlate);
             if (vehicle == null) {
-                System.err.println("✗ Vehicle not found: " + licensePlate);
+                logger.warn("Vehicle not found: {}", licensePlate);
                 return null;
             }
             
             ParkingSpot spot = getVehicleSpot(vehicle);
             if (spot == null) {
-                System.err.println("✗ Parking spot not found");
+                logger.warn("Parking spot not found");
                 return null;
             }
             
-            String[] ticketData = ticketsDAO.getTicketByLicensePlate(licensePlate);
-            if (ticketData == null) {
-                System.err.println("✗ Ticket not found for vehicle: " + licensePlate);
-                return null;
+            // Charge the quote the driver was shown; recalculate only if it went stale
+            ExitQuote quote = takeValidQuote(licensePlate, vehicle, spot);
+            if (quote == null) {
+                quote = computeQuote(licensePlate, vehicle, spot);
+                if (quote == null) {
+                    return null;
+                }
             }
             
-            String ticketId = ticketData[0];
-            String spotId = ticketData[2];
-            Timestamp entryTimestamp = Timestamp.valueOf(ticketData[3]);
-            LocalDateTime entryTime = entryTimestamp.toLocalDateTime();
+            DatabaseManager database = DatabaseManager.getInstance();
+            String ticketId = quote.getTicketId();
+            String spotId = quote.getSpotId();
+            LocalDateTime entryTime = quote.getEntryTime();
             LocalDateTime exitTime = LocalDateTime.now();
-            
-            // --- RE-CALCULATE EVERYTHING TO BE SAFE ---
-            long durationHours = BillingCalculator.calculateDuration(entryTime, exitTime);
-            double hourlyRate = spot.getHourlyRate();
-            double parkingFee = BillingCalculator.calculateParkingFee(durationHours, hourlyRate);
-            
-            // STRATEGY PATTERN INTEGRATION
-            double overstayFine = FineCalculator.calculate(durationHours);
-            double previousFines = paymentsDAO.getUnpaidFines(licensePlate);
-            double totalFine = overstayFine + previousFines;
+            long durationHours = quote.getDurationHours();
+            long hourlyRate = quote.getHourlyRate();
+            long parkingFee = quote.getParkingFee();
+            long overstayFine = quote.getOverstayFine();
+            long previousFines = quote.getPreviousFines();
+            long totalFine = quote.getTotalFine();
             
             Payment payment = paymentProcessor.processPayment(
                 licensePlate,
@@ -177,11 +289,40 @@ LocalDateTime entryTime;
             );
             
             if (payment == null) {
-                System.err.println("✗ Payment processing failed");
+                logger.error("Payment processing failed");
                 return null;
             }
             
-            paymentsDAO.savePayment(payment);
+            // The overstay fine is paid with this exit; record it in the ledger as settled
+            Fine overstay = null;
+            if (overstayFine > 0) {
+                overstay = new Fine(licensePlate, overstayFine, "Overstay");
+                overstay.setPaid(true);
+            }
+            
+            // Persist the whole exit as one transaction: payment, fines, spot
+            // release, vehicle and ticket removal commit together or not at all.
+            // Only a failed statement rolls it back; a vehicle or ticket row
+            // that is already gone does not keep the car from leaving.
+            // The carried-over fines are checked again inside the transaction,
+            // so a fine issued after the quote is never marked paid unbilled.
+            // Exits commit before the gate acts, even in GROUP_COMMIT mode
+            String plate = licensePlate;
+            Fine settledOverstay = overstay;
+            boolean persisted = database.persistNow(
+                "exit " + plate,
+                () -> finesDAO.getUnpaidFinesTotal(plate) == previousFines
+                    && paymentsDAO.savePayment(payment)
+                    && (previousFines == 0 || finesDAO.markFinesAsPaid(plate))
+                    && (settledOverstay == null || finesDAO.addFine(settledOverstay))
+                    && spotsDAO.updateSpotStatus(spotId, SpotStatus.AVAILABLE, null)
+                    && vehiclesDAO.deleteVehicle(plate)
+                    && ticketsDAO.deleteTicket(ticketId));
+            
+            if (!persisted) {
+                logger.error("Failed to save exit for {}", licensePlate);
+                return null;
+            }
             
             Receipt receipt = new Receipt(
                 payment,
@@ -191,27 +332,28 @@ LocalDateTime entryTime;
                 exitTime,
                 durationHours,
                 hourlyRate,
+                quote.getTariffName(),
                 ticketId
             );
             
+            // Only free the spot in memory once the exit is committed
             spot.releaseVehicle();
             
-            // Update Spot Status in Database
-            spotsDAO.updateSpotStatus(spotId, SpotStatus.AVAILABLE, null);
-            
-            vehiclesDAO.deleteVehicle(licensePlate);
-            ticketsDAO.deleteTicket(ticketId);
+            // Journal after the lot has changed, so snapshots never miss an event
+            try {
+                EventJournal.getInstance().append(JournalEvent.exit(licensePlate, spotId, exitTime));
+            } catch (IOException e) {
+                // The exit is already saved; the next start loads the lot from the database
+                logger.error("Exit of {} saved but not journaled", licensePlate, e);
+            }
             
-            System.out.println("✓ Vehicle exit successful!");
-            System.out.println("  Vehicle: " + licensePlate);
-            System.out.println("  Spot released: " + spotId);
-            System.out.println("  Receipt: " + receipt.getReceiptId());
+            logger.info("Vehicle exit successful: {} released spot {}, receipt {}",
+                        licensePlate, spotId, receipt.getReceiptId());
             
             return receipt;
             
         } catch (Exception e) {
-            System.err.println("✗ Exit processing failed: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Exit processing failed: {}", e.getMessage(), e);
             return null;
         }
     }
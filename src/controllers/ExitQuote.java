@@ -0,0 +1,78 @@
+package controllers;
+
+import java.time.LocalDateTime;
+import models.tariff.TariffSchedule;
+
+/**
+ * Exit Quote - the bill worked out when the driver asks for it
+ * ExitController keeps the latest quote per plate; the payment step reuses
+ * it instead of repeating the ticket and fines lookups, as long as it has
+ * not expired and the stay has not rolled into another billed hour
+ *
+ * Only ExitController makes quotes, and it charges only the one it stored,
+ * so a quote made anywhere else is never charged
+ *
+ * Amounts are in sen (see Money)
+ *
+ * @author Member 3 - Exit & Payment Management Lead
+ */
+public final class ExitQuote {
+    private final String licensePlate;
+    private final String ticketId;
+    private final String spotId;
+    private final LocalDateTime entryTime;
+    private final LocalDateTime quotedAt;
+    private final long expiresAtMillis;
+    private final long durationHours;
+    private final long hourlyRate;
+    private final TariffSchedule tariff;
+    private final long parkingFee;
+    private final long overstayFine;
+    private final long previousFines;
+    private final long totalBill;
+
+    ExitQuote(String licensePlate, String ticketId, String spotId,
+              LocalDateTime entryTime, LocalDateTime quotedAt, long expiresAtMillis,
+              long durationHours, long hourlyRate, TariffSchedule tariff, long parkingFee,
+              long overstayFine, long previousFines, long totalBill) {
+        this.licensePlate = licensePlate;
+        this.ticketId = ticketId;
+        this.spotId = spotId;
+        this.entryTime = entryTime;
+        this.quotedAt = quotedAt;
+        this.expiresAtMillis = expiresAtMillis;
+        this.durationHours = durationHours;
+        this.hourlyRate = hourlyRate;
+        this.tariff = tariff;
+        this.parkingFee = parkingFee;
+        this.overstayFine = overstayFine;
+        this.previousFines = previousFines;
+        this.totalBill = totalBill;
+    }
+
+    /**
+     * The compiled tariff the fee came from, or null for the flat hourly rate
+     */
+    TariffSchedule getTariff() {
+        return tariff;
+    }
+
+    boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+
+    // Getters
+    public String getLicensePlate() { return licensePlate; }
+    public String getTicketId() { return ticketId; }
+    public String getSpotId() { return spotId; }
+    public LocalDateTime getEntryTime() { return entryTime; }
+    public LocalDateTime getQuotedAt() { return quotedAt; }
+    public long getDurationHours() { return durationHours; }
+    public long getHourlyRate() { return hourlyRate; }
+    public String getTariffName() { return tariff != null ? tariff.getName() : null; }
+    public long getParkingFee() { return parkingFee; }
+    public long getOverstayFine() { return overstayFine; }
+    public long getPreviousFines() { return previousFines; }
+    public long getTotalFine() { return overstayFine + previousFines; }
+    public long getTotalBill() { return totalBill; }
+}
@@ -1,7 +1,10 @@
 package controllers;
 
+import models.payment.Money;
 import models.payment.Payment;
 import models.payment.PaymentMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Payment Processor
@@ -10,43 +13,44 @@ import models.payment.PaymentMethod;
  * @author Member 3 - Exit & Payment Management Lead
  */
 public class PaymentProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(PaymentProcessor.class);
     
     /**
      * Process a payment transaction
      * 
      * @param licensePlate Vehicle license plate
-     * @param parkingFee Parking fee amount
-     * @param fineAmount Fine amount (if any)
+     * @param parkingFee Parking fee amount, in sen
+     * @param fineAmount Fine amount (if any), in sen
      * @param paymentMethod Payment method (CASH or CARD)
      * @param ticketId Associated ticket ID
      * @return Payment object if successful, null if failed
      */
-    public Payment processPayment(String licensePlate, double parkingFee, 
-                                  double fineAmount, PaymentMethod paymentMethod,
+    public Payment processPayment(String licensePlate, long parkingFee, 
+                                  long fineAmount, PaymentMethod paymentMethod,
                                   String ticketId) {
         // Validate inputs
         if (licensePlate == null || licensePlate.trim().isEmpty()) {
-            System.err.println("✗ Invalid license plate");
+            logger.warn("Invalid license plate");
             return null;
         }
         
         if (parkingFee < 0) {
-            System.err.println("✗ Parking fee cannot be negative");
+            logger.warn("Parking fee cannot be negative");
             return null;
         }
         
         if (fineAmount < 0) {
-            System.err.println("✗ Fine amount cannot be negative");
+            logger.warn("Fine amount cannot be negative");
             return null;
         }
         
         if (paymentMethod == null) {
-            System.err.println("✗ Payment method is required");
+            logger.warn("Payment method is required");
             return null;
         }
         
         if (ticketId == null || ticketId.trim().isEmpty()) {
-            System.err.println("✗ Ticket ID is required");
+            logger.warn("Ticket ID is required");
             return null;
         }
         
@@ -61,21 +65,20 @@ public class PaymentProcessor {
             );
             
             // Simulate payment processing
-            if (paymentMethod == PaymentMethod.CASH) {
-                System.out.println("✓ Cash payment received: RM " + 
-                    String.format("%.2f", payment.getTotalAmount()));
-            } else if (paymentMethod == PaymentMethod.CARD) {
-                System.out.println("✓ Card payment processed: RM " + 
-                    String.format("%.2f", payment.getTotalAmount()));
+            if (logger.isDebugEnabled()) {
+                if (paymentMethod == PaymentMethod.CASH) {
+                    logger.debug("Cash payment received: RM {}", Money.format(payment.getTotalAmount()));
+                } else if (paymentMethod == PaymentMethod.CARD) {
+                    logger.debug("Card payment processed: RM {}", Money.format(payment.getTotalAmount()));
+                }
             }
             
-            System.out.println("✓ Payment successful: " + payment.getPaymentId());
+            logger.info("Payment successful: {}", payment.getPaymentId());
             
             return payment;
             
         } catch (Exception e) {
-            System.err.println("✗ Payment processing failed: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Payment processing failed: {}", e.getMessage(), e);
             return null;
         }
     }
@@ -83,21 +86,21 @@ public class PaymentProcessor {
     /**
      * Validate payment amount
      * 
-     * @param amount Amount to validate
+     * @param amount Amount to validate, in sen
      * @return true if valid
      */
-    public boolean validatePaymentAmount(double amount) {
+    public boolean validatePaymentAmount(long amount) {
         return amount >= 0;
     }
     
     /**
      * Calculate change for cash payments
      * 
-     * @param totalDue Total amount due
-     * @param amountPaid Amount paid by customer
-     * @return Change to return
+     * @param totalDue Total amount due, in sen
+     * @param amountPaid Amount paid by customer, in sen
+     * @return Change to return, in sen
      */
-    public double calculateChange(double totalDue, double amountPaid) {
+    public long calculateChange(long totalDue, long amountPaid) {
         if (amountPaid < totalDue) {
             throw new IllegalArgumentException("Insufficient payment");
         }
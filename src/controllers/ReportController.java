@@ -1,12 +1,17 @@
 package controllers;
 
+import database.ActiveSessionRow;
 import database.ParkingSpotsDAO;
+import database.PaymentPage;
 import database.PaymentsDAO;
 import database.VehiclesDAO;
+import database.DaoRegistry;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.HashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Controller for generating reports
@@ -14,14 +19,21 @@ import java.util.HashMap;
  * * @author Hong - Report Module Lead
  */
 public class ReportController {
+    private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
+
+    // Transaction log rows fetched per page
+    private static final int HISTORY_PAGE_SIZE = 100;
+    private static final long MILLIS_PER_HOUR = 60L * 60 * 1000;
+
     private ParkingSpotsDAO spotsDAO;
     private PaymentsDAO paymentsDAO;
     private VehiclesDAO vehiclesDAO;
 
     public ReportController() {
-        this.spotsDAO = new ParkingSpotsDAO();
-        this.paymentsDAO = new PaymentsDAO();
-        this.vehiclesDAO = new VehiclesDAO();
+        DaoRegistry daos = DaoRegistry.getInstance();
+        this.spotsDAO = daos.getParkingSpotsDAO();
+        this.paymentsDAO = daos.getPaymentsDAO();
+        this.vehiclesDAO = daos.getVehiclesDAO();
     }
 
 /**
@@ -30,18 +42,18 @@ public class ReportController {
     public Map<String, Object> getDashboardStats() {
         Map<String, Object> stats = new HashMap<>();
         
-        // 1. Get accurate counts
+        // 1. Get accurate counts - both read from the trigger-maintained
+        // occupancy aggregate; spot status is written in the same transaction
+        // as the vehicle row, so the occupied count equals the vehicle count
         int totalSpots = spotsDAO.getTotalSpots();
-        
-        // FIX: Use vehicle count as the source of truth for occupancy
-        int currentVehicles = vehiclesDAO.getCurrentVehicleCount(); 
-        int occupiedSpots = currentVehicles; 
+        int occupiedSpots = spotsDAO.getOccupiedSpots();
+        int currentVehicles = occupiedSpots;
         
         // Calculate available based on that
         int availableSpots = totalSpots - occupiedSpots;
         
         // 2. Revenue Data
-        double totalRevenue = paymentsDAO.getTotalRevenue();
+        long totalRevenue = paymentsDAO.getTotalRevenue(); // sen
         int totalTransactions = paymentsDAO.getTotalPaymentsCount();
 
         stats.put("total_spots", totalSpots);
@@ -56,71 +68,79 @@ public class ReportController {
 
     /**
      * Get list of all currently parked vehicles
-     * Returns list of String arrays: [Plate, Type, Spot, EntryTime]
      */
-    public List<String[]> getCurrentVehicleReport() {
+    public List<ActiveSessionRow> getCurrentVehicleReport() {
         return vehiclesDAO.getAllCurrentVehicles();
     }
 
     /**
-     * Get revenue breakdown by payment method
+     * Get revenue breakdown by payment method, in sen
      */
-    public Map<String, Double> getRevenueBreakdown() {
-        Map<String, Double> breakdown = new HashMap<>();
-        breakdown.put("CASH", paymentsDAO.getRevenueByMethod("CASH"));
-        breakdown.put("CARD", paymentsDAO.getRevenueByMethod("CARD"));
+    public Map<String, Long> getRevenueBreakdown() {
+        Map<String, Long> breakdown = paymentsDAO.getRevenueByMethods();
+        breakdown.putIfAbsent("CASH", 0L);
+        breakdown.putIfAbsent("CARD", 0L);
         return breakdown;
     }
 
     /**
-     * Get detailed transaction log
-     * Returns: [Date, Plate, Method, Fee, Fine, Total]
+     * Get the next page of the detailed transaction log, newest first
+     *
+     * @param previous The page already shown, or null for the first page
+     */
+    public PaymentPage getTransactionHistoryPage(PaymentPage previous) {
+        return paymentsDAO.getPaymentsPage(null, null, previous, HISTORY_PAGE_SIZE);
+    }
+
+    /**
+     * Get the total collected across the whole transaction log, in sen
      */
-    public List<String[]> getTransactionHistory() {
-        return paymentsDAO.getAllPayments();
+    public long getTransactionHistoryTotal() {
+        return paymentsDAO.getRevenueBetween(null, null);
     }
 
     /**
      * Get list of currently parked vehicles that have overstayed
-     * Returns: [License Plate, Potential Fine, Overstay Duration, Entry Time]
+     * Durations are worked out from the stored epoch times; nothing is parsed
      */
-    public List<String[]> getOutstandingFines() {
-        List<String[]> list = new ArrayList<>();
-        List<String[]> activeVehicles = vehiclesDAO.getAllCurrentVehicles();
+    public List<Overstay> getOutstandingFines() {
+        List<Overstay> list = new ArrayList<>();
+        List<ActiveSessionRow> activeVehicles = vehiclesDAO.getAllCurrentVehicles();
         
         // We need the strategy to calculate the fine
         models.fine.FineStrategy strategy = services.FineCalculator.getStrategy();
+        long now = System.currentTimeMillis();
         
-        for (String[] row : activeVehicles) {
-            String plate = row[0];
-            String entryTimeStr = row[3]; // "2023-10-27 10:00:00"
+        for (ActiveSessionRow session : activeVehicles) {
+            // Whole hours parked so far
+            long duration = (now - session.getEntryTimeMillis()) / MILLIS_PER_HOUR;
+            if (duration == 0) duration = 1;
             
-            try {
-                // Parse Database String to LocalDateTime
-                // Note: format might vary, so we use a safe parser or Timestamp
-                java.sql.Timestamp ts = java.sql.Timestamp.valueOf(entryTimeStr);
-                java.time.LocalDateTime entryTime = ts.toLocalDateTime();
-                java.time.LocalDateTime now = java.time.LocalDateTime.now();
-                
-                // Calculate Duration
-                long duration = java.time.Duration.between(entryTime, now).toHours();
-                if (duration == 0) duration = 1;
-                
-                // Calculate Fine
-                double fine = strategy.calculateFine(duration);
-                
-                // Only add if there IS a fine
-                if (fine > 0) {
-                    String durationStr = duration + " hours";
-                    String fineStr = String.format("RM %.2f", fine);
-                    
-                    list.add(new String[]{plate, fineStr, durationStr, entryTimeStr});
-                }
-                
-            } catch (Exception e) {
-                System.err.println("Error parsing date for " + plate + ": " + e.getMessage());
+            // Only add if there IS a fine
+            long fine = strategy.calculateFine(duration);
+            if (fine > 0) {
+                list.add(new Overstay(session, duration, fine));
             }
         }
         return list;
     }
-}
\ No newline at end of file
+
+    /**
+     * A parked vehicle whose stay so far already carries a fine
+     */
+    public static final class Overstay {
+        private final ActiveSessionRow session;
+        private final long hoursParked;
+        private final long fine; // sen
+
+        Overstay(ActiveSessionRow session, long hoursParked, long fine) {
+            this.session = session;
+            this.hoursParked = hoursParked;
+            this.fine = fine;
+        }
+
+        public ActiveSessionRow getSession() { return session; }
+        public long getHoursParked() { return hoursParked; }
+        public long getFine() { return fine; }
+    }
+}
@@ -0,0 +1,43 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import models.vehicle.VehicleType;
+
+/**
+ * Active Session Row - a vehicle currently parked, with its spot
+ * Entry time is kept as epoch milliseconds, as stored
+ *
+ * @author Member 4 - Report Module Lead
+ */
+public final class ActiveSessionRow {
+    private final String licensePlate;
+    private final VehicleType vehicleType;
+    private final String spotId;
+    private final long entryTimeMillis;
+
+    ActiveSessionRow(String licensePlate, VehicleType vehicleType, String spotId, long entryTimeMillis) {
+        this.licensePlate = licensePlate;
+        this.vehicleType = vehicleType;
+        this.spotId = spotId;
+        this.entryTimeMillis = entryTimeMillis;
+    }
+
+    static ActiveSessionRow from(ResultSet rs) throws SQLException {
+        return new ActiveSessionRow(rs.getString("license_plate"),
+                                    VehicleType.valueOf(rs.getString("vehicle_type")),
+                                    rs.getString("spot_id"),
+                                    rs.getLong("entry_time"));
+    }
+
+    // Getters
+    public String getLicensePlate() { return licensePlate; }
+    public VehicleType getVehicleType() { return vehicleType; }
+    public String getSpotId() { return spotId; }
+    public long getEntryTimeMillis() { return entryTimeMillis; }
+
+    public LocalDateTime getEntryTime() {
+        return EpochTime.toLocalDateTime(entryTimeMillis);
+    }
+}
@@ -0,0 +1,100 @@
+package database;
+
+import models.parking.*;
+import models.vehicle.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary Codec - field encodings shared by the event journal and lot snapshots
+ * Strings are a length-prefixed UTF-8 run (length -1 for null), times are the
+ * local date-time as epoch milliseconds (Long.MIN_VALUE for null), enums are
+ * their ordinal in one byte
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+final class BinaryCodec {
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private BinaryCodec() {
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Bytes putString will write for the value
+     */
+    static int sizeOf(String value) {
+        return 2 + (value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        buffer.putLong(time == null ? NO_TIME : time.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    static LocalDateTime getTime(ByteBuffer buffer) {
+        long millis = buffer.getLong();
+        if (millis == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L),
+                                           (int) Math.floorMod(millis, 1000L) * 1_000_000,
+                                           ZoneOffset.UTC);
+    }
+
+    /**
+     * Create a spot of the given type (same mapping as ParkingSpotsDAO)
+     */
+    static ParkingSpot newSpot(SpotType type, int floorNumber, int rowNumber, int spotNumber) {
+        switch (type) {
+            case COMPACT:
+                return new CompactSpot(floorNumber, rowNumber, spotNumber);
+            case REGULAR:
+                return new RegularSpot(floorNumber, rowNumber, spotNumber);
+            case HANDICAPPED:
+                return new HandicappedSpot(floorNumber, rowNumber, spotNumber);
+            case RESERVED:
+                return new ReservedSpot(floorNumber, rowNumber, spotNumber);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Create a vehicle of the given type (same mapping as VehiclesDAO)
+     */
+    static Vehicle newVehicle(VehicleType type, String licensePlate, boolean hasHandicappedCard) {
+        switch (type) {
+            case MOTORCYCLE:
+                return new Motorcycle(licensePlate);
+            case CAR:
+                return new Car(licensePlate);
+            case SUV:
+                return new SUV(licensePlate);
+            case HANDICAPPED:
+                return new HandicappedVehicle(licensePlate, hasHandicappedCard);
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Connection Lease - a read connection borrowed from the pool for one query
+ * Closing the lease hands the connection back
+ *
+ * When the calling thread is inside a unit of work the lease wraps that unit's
+ * writer connection instead, so reads see the thread's own uncommitted writes;
+ * closing such a lease leaves the connection with the unit of work
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public class ConnectionLease implements AutoCloseable {
+    private final Connection connection;
+    private final StatementCache statementCache;
+    private final ConnectionPool pool;
+    private boolean released;
+
+    ConnectionLease(Connection connection, StatementCache statementCache, ConnectionPool pool) {
+        this.connection = connection;
+        this.statementCache = statementCache;
+        this.pool = pool;
+        this.released = false;
+    }
+
+    /**
+     * Get the leased connection
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Get a cached prepared statement for the SQL on the leased connection
+     * Close the ResultSet when done, but not the statement itself
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return statementCache.prepare(sql);
+    }
+
+    @Override
+    public void close() {
+        if (released) {
+            return;
+        }
+        released = true;
+        if (pool != null) {
+            pool.releaseReader(connection);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Connection Pool - a small bounded pool shaped after SQLite's locking model
+ * SQLite allows many readers but only one writer at a time, so the pool holds
+ * a single writer connection (checked out by one unit of work at a time) and
+ * a fixed number of reader connections handed out per call
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+class ConnectionPool {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private final Connection writer;
+    private final ReentrantLock writerLock;
+    private final List<Connection> readers;
+    private final BlockingQueue<Connection> idleReaders;
+    private final Map<Connection, StatementCache> statementCaches;
+    private volatile boolean closed;
+
+    ConnectionPool(String url, int readerCount, StorageProfile profile) throws SQLException {
+        if (readerCount < 1) {
+            throw new IllegalArgumentException("Pool needs at least one reader connection");
+        }
+        this.writer = DriverManager.getConnection(url);
+        this.writerLock = new ReentrantLock(true); // fair - gates are served in arrival order
+        this.readers = new ArrayList<>(readerCount);
+        this.idleReaders = new ArrayBlockingQueue<>(readerCount);
+        this.statementCaches = new IdentityHashMap<>();
+        this.closed = false;
+
+        try {
+            profile.apply(writer, true);
+            try (Statement stmt = writer.createStatement()) {
+                // INSERT OR REPLACE must fire delete triggers too, or the
+                // aggregate tables would count a replaced row twice
+                stmt.execute("PRAGMA recursive_triggers = 1");
+            }
+            statementCaches.put(writer, new StatementCache(writer));
+            for (int i = 0; i < readerCount; i++) {
+                Connection reader = DriverManager.getConnection(url);
+                readers.add(reader);
+                profile.apply(reader, false);
+                try (Statement stmt = reader.createStatement()) {
+                    // Readers must never write behind the writer's back
+                    stmt.execute("PRAGMA query_only = 1");
+                }
+                statementCaches.put(reader, new StatementCache(reader));
+                idleReaders.add(reader);
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Check out the writer connection, waiting until no other unit of work holds it
+     */
+    Connection acquireWriter() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            writerLock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the writer connection", e);
+        }
+        return writer;
+    }
+
+    /**
+     * Return the writer connection
+     */
+    void releaseWriter() {
+        writerLock.unlock();
+    }
+
+    /**
+     * Check out an idle reader connection, waiting if all are in use
+     */
+    Connection acquireReader() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        try {
+            return idleReaders.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a reader connection", e);
+        }
+    }
+
+    /**
+     * Return a reader connection to the pool
+     */
+    void releaseReader(Connection reader) {
+        idleReaders.offer(reader);
+    }
+
+    /**
+     * Prepared-statement cache belonging to one of the pool's connections
+     * (filled in during construction, read-only afterwards)
+     */
+    StatementCache statementCacheFor(Connection connection) {
+        return statementCaches.get(connection);
+    }
+
+    /**
+     * Connection used for one-off setup work (creating tables) before the pool is shared
+     */
+    Connection getWriterForSetup() {
+        return writer;
+    }
+
+    boolean isOpen() {
+        try {
+            return !closed && !writer.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    int getReaderCount() {
+        return readers.size();
+    }
+
+    /**
+     * Close every connection owned by the pool
+     */
+    void close() {
+        closed = true;
+        for (StatementCache cache : statementCaches.values()) {
+            cache.close();
+        }
+        for (Connection reader : readers) {
+            closeQuietly(reader);
+        }
+        closeQuietly(writer);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            logger.warn("Error closing pooled connection", e);
+        }
+    }
+}
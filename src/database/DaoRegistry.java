@@ -0,0 +1,56 @@
+package database;
+
+/**
+ * DAO Registry - one shared instance of each DAO
+ * DAOs hold no per-caller state (connections come from the pool on every
+ * call), so controllers and views can all share the same instances
+ *
+ * Usage:
+ *   VehiclesDAO vehiclesDAO = DaoRegistry.getInstance().getVehiclesDAO();
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public class DaoRegistry {
+    private final ParkingSpotsDAO parkingSpotsDAO;
+    private final VehiclesDAO vehiclesDAO;
+    private final TicketsDAO ticketsDAO;
+    private final PaymentsDAO paymentsDAO;
+    private final FinesDAO finesDAO;
+
+    private DaoRegistry() {
+        this.parkingSpotsDAO = new ParkingSpotsDAO();
+        this.vehiclesDAO = new VehiclesDAO();
+        this.ticketsDAO = new TicketsDAO();
+        this.paymentsDAO = new PaymentsDAO();
+        this.finesDAO = new FinesDAO();
+    }
+
+    // Initialization-on-demand holder, like DatabaseManager
+    private static class Holder {
+        private static final DaoRegistry INSTANCE = new DaoRegistry();
+    }
+
+    public static DaoRegistry getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public ParkingSpotsDAO getParkingSpotsDAO() {
+        return parkingSpotsDAO;
+    }
+
+    public VehiclesDAO getVehiclesDAO() {
+        return vehiclesDAO;
+    }
+
+    public TicketsDAO getTicketsDAO() {
+        return ticketsDAO;
+    }
+
+    public PaymentsDAO getPaymentsDAO() {
+        return paymentsDAO;
+    }
+
+    public FinesDAO getFinesDAO() {
+        return finesDAO;
+    }
+}
@@ -1,115 +1,221 @@
 package database;
 
 import java.sql.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Database Manager - handles SQLite database connections
- * Singleton pattern to ensure only one connection
+ * Singleton owning a small connection pool: one writer connection used by
+ * units of work and a few reader connections leased per query
  * 
  * @author Member 1 - Parking Structure Lead
  */
 public class DatabaseManager {
-    private static DatabaseManager instance;
-    private Connection connection;
-    private static final String DB_URL = "jdbc:sqlite:parking_lot.db";
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseManager.class);
+    
+    // -Dparking.db.file points a run (e.g. a benchmark) at another database
+    private static final String DB_FILE = System.getProperty("parking.db.file", "parking_lot.db");
+    private static final int READER_CONNECTIONS = Integer.getInteger("parking.db.readers", 4);
+    
+    private final StorageProfile storageProfile = StorageProfile.fromSystemProperty();
+    private final DurabilityMode durabilityMode = DurabilityMode.fromSystemProperty();
+    private ConnectionPool pool;
+    private WriteBehindQueue writeQueue;
+    private final ThreadLocal<UnitOfWork> currentUnitOfWork = new ThreadLocal<>();
     
     // Private constructor for Singleton
     private DatabaseManager() {
         try {
             // Load SQLite JDBC driver
             Class.forName("org.sqlite.JDBC");
-            // Create connection
-            connection = DriverManager.getConnection(DB_URL);
-            System.out.println("✓ Database connection established: parking_lot.db");
+            // Open the pool
+            pool = new ConnectionPool("jdbc:sqlite:" + DB_FILE, READER_CONNECTIONS, storageProfile);
+            logger.info("Database connection established: {} (1 writer, {} readers)", DB_FILE, pool.getReaderCount());
+            storageProfile.logEffectiveSettings(pool.getWriterForSetup());
             
-            // Create tables if they don't exist
-            createTables();
+            // Create or upgrade the schema once, before any DAO runs
+            SchemaBootstrap.initialize(pool.getWriterForSetup());
+            
+            if (durabilityMode == DurabilityMode.GROUP_COMMIT) {
+                writeQueue = new WriteBehindQueue(this);
+            }
         } catch (ClassNotFoundException e) {
-            System.err.println("✗ SQLite JDBC driver not found!");
-            e.printStackTrace();
+            logger.error("SQLite JDBC driver not found!", e);
         } catch (SQLException e) {
-            System.err.println("✗ Database connection failed!");
-            e.printStackTrace();
+            logger.error("Database connection failed!", e);
         }
     }
     
+    // Initialization-on-demand holder - the JVM runs the constructor exactly once
+    private static class Holder {
+        private static final DatabaseManager INSTANCE = new DatabaseManager();
+    }
+    
     /**
-     * Get DatabaseManager instance (Singleton pattern)
+     * Get DatabaseManager instance (Singleton pattern, thread-safe)
      */
     public static DatabaseManager getInstance() {
-        if (instance == null) {
-            instance = new DatabaseManager();
+        return Holder.INSTANCE;
+    }
+    
+    /**
+     * Start a unit of work - DAO writes until commit() form one transaction
+     * Checks out the writer connection (waiting for other threads' units to
+     * finish); on a thread already inside a unit of work, joins that unit
+     */
+    public UnitOfWork beginUnitOfWork() throws SQLException {
+        UnitOfWork current = currentUnitOfWork.get();
+        if (current != null) {
+            return new UnitOfWork(current);
+        }
+        
+        Connection writer = requirePool().acquireWriter();
+        try {
+            UnitOfWork unitOfWork = new UnitOfWork(this, writer, pool.statementCacheFor(writer));
+            currentUnitOfWork.set(unitOfWork);
+            return unitOfWork;
+        } catch (SQLException e) {
+            pool.releaseWriter();
+            throw e;
         }
-        return instance;
     }
     
     /**
-     * Get database connection
+     * Called by the outermost unit of work when it closes
      */
-    public Connection getConnection() {
-        return connection;
+    void endUnitOfWork(UnitOfWork unitOfWork) {
+        if (currentUnitOfWork.get() == unitOfWork) {
+            currentUnitOfWork.remove();
+            pool.releaseWriter();
+        }
     }
     
     /**
-     * Create all required tables
+     * Whether the calling thread is inside a unit of work (its reads then see
+     * the unit's uncommitted writes)
      */
-    private void createTables() throws SQLException {
-        Statement stmt = connection.createStatement();
-        
-        // Create parking_spots table
-        String createParkingSpotsTable = 
-            "CREATE TABLE IF NOT EXISTS parking_spots (" +
-            "spot_id VARCHAR(20) PRIMARY KEY, " +
-            "floor_number INTEGER NOT NULL, " +
-            "row_number INTEGER NOT NULL, " +
-            "spot_number INTEGER NOT NULL, " +
-            "spot_type VARCHAR(20) NOT NULL, " +
-            "hourly_rate DECIMAL(10,2) NOT NULL, " +
-            "status VARCHAR(20) NOT NULL, " +
-            "current_vehicle VARCHAR(20), " +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-            ")";
-        
-        stmt.execute(createParkingSpotsTable);
-        System.out.println("✓ Table 'parking_spots' ready");
-        
-        // Create floors table (optional - for tracking floor metadata)
-        String createFloorsTable = 
-            "CREATE TABLE IF NOT EXISTS floors (" +
-            "floor_number INTEGER PRIMARY KEY, " +
-            "total_spots INTEGER DEFAULT 0, " +
-            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-            ")";
-        
-        stmt.execute(createFloorsTable);
-        System.out.println("✓ Table 'floors' ready");
-        
-        stmt.close();
+    boolean inUnitOfWork() {
+        return currentUnitOfWork.get() != null;
     }
     
     /**
-     * Test database connection
+     * Lease a connection for reading
+     * Inside a unit of work this is the unit's own connection, so the
+     * thread sees what it has written but not yet committed
      */
-    public boolean testConnection() {
-        try {
-            return connection != null && !connection.isClosed();
+    public ConnectionLease acquireReadConnection() throws SQLException {
+        UnitOfWork current = currentUnitOfWork.get();
+        if (current != null) {
+            return current.lease();
+        }
+        ConnectionPool readers = requirePool();
+        Connection reader = readers.acquireReader();
+        return new ConnectionLease(reader, readers.statementCacheFor(reader), readers);
+    }
+    
+    /**
+     * Persist one gate event's writes according to the durability mode
+     * SYNC runs the command now, in its own unit of work, and returns whether
+     * it committed; GROUP_COMMIT queues it for the write-behind thread and
+     * returns whether it was accepted
+     * 
+     * @param description What the command writes, for the log
+     * @param command The DAO writes
+     * @return true if committed (SYNC) or queued (GROUP_COMMIT)
+     */
+    public boolean persist(String description, PersistenceCommand command) {
+        if (writeQueue != null) {
+            return writeQueue.submit(description, command);
+        }
+        return commit(description, command);
+    }
+    
+    /**
+     * Persist a command and wait for it to commit, in either durability mode
+     * For writes whose checks must still hold when they commit - an exit
+     * takes money, so the gate can't act on it until it is saved. Queued
+     * writes are committed first, so they stay in order
+     * 
+     * @param description What the command writes, for the log
+     * @param command The DAO writes
+     * @return true if committed
+     */
+    public boolean persistNow(String description, PersistenceCommand command) {
+        flushPendingWrites();
+        return commit(description, command);
+    }
+    
+    /**
+     * Run a command in its own unit of work and commit it
+     */
+    private boolean commit(String description, PersistenceCommand command) {
+        try (UnitOfWork uow = beginUnitOfWork()) {
+            if (!command.execute()) {
+                uow.rollback();
+                logger.error("Failed to persist {}", description);
+                return false;
+            }
+            uow.commit();
+            return true;
         } catch (SQLException e) {
+            logger.error("Transaction failed while persisting {}: {}", description, e.getMessage());
             return false;
         }
     }
     
     /**
-     * Close database connection
+     * Wait until every queued write has been committed
+     * Call before reading rows a queued command may still have to write;
+     * returns at once in SYNC mode
+     */
+    public void flushPendingWrites() {
+        if (writeQueue != null) {
+            writeQueue.flush();
+        }
+    }
+    
+    /**
+     * Durability mode gate writes are persisted with
+     */
+    public DurabilityMode getDurabilityMode() {
+        return durabilityMode;
+    }
+    
+    /**
+     * Storage profile the pool's connections were opened with
+     */
+    public StorageProfile getStorageProfile() {
+        return storageProfile;
+    }
+    
+    private ConnectionPool requirePool() throws SQLException {
+        if (pool == null) {
+            throw new SQLException("No database connection available");
+        }
+        return pool;
+    }
+    
+    /**
+     * Test database connection
+     */
+    public boolean testConnection() {
+        return pool != null && pool.isOpen();
+    }
+    
+    /**
+     * Close all pooled database connections
+     * In GROUP_COMMIT mode the write-behind queue is drained first
      */
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("✓ Database connection closed");
-            }
-        } catch (SQLException e) {
-            System.err.println("✗ Error closing database connection");
-            e.printStackTrace();
+        if (writeQueue != null) {
+            // Commit whatever the gates have queued before the connections go away
+            writeQueue.shutdown();
+        }
+        if (pool != null && pool.isOpen()) {
+            pool.close();
+            logger.info("Database connection closed (statement cache: {} hits, {} misses)",
+                        StatementCache.getHits(), StatementCache.getMisses());
         }
     }
 }
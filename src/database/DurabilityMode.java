@@ -0,0 +1,41 @@
+package database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Durability Mode - when a gate's writes reach the database
+ * Selected with -Dparking.db.durability=SYNC|GROUP_COMMIT (default SYNC)
+ *
+ * SYNC         - the gate waits for its own transaction to commit, and a
+ *                failed write is reported back to the gate
+ * GROUP_COMMIT - the gate is acknowledged from the in-memory ParkingLot and
+ *                its writes are queued; a single writer thread commits every
+ *                queued gate event in one transaction, at most
+ *                -Dparking.db.groupCommitMs (default 50) after the first one
+ *                arrived. A crash loses at most that window of events.
+ *                Exits are the exception: they take payment and check
+ *                the fines ledger, so they always commit before the gate
+ *                lets the car out (DatabaseManager.persistNow)
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public enum DurabilityMode {
+    SYNC,
+    GROUP_COMMIT;
+
+    private static final Logger logger = LoggerFactory.getLogger(DurabilityMode.class);
+
+    /**
+     * Mode named by the parking.db.durability system property
+     */
+    public static DurabilityMode fromSystemProperty() {
+        String name = System.getProperty("parking.db.durability", SYNC.name());
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown durability mode '{}', using {}", name, SYNC);
+            return SYNC;
+        }
+    }
+}
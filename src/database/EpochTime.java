@@ -0,0 +1,22 @@
+package database;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Epoch Time - conversions for the timestamp columns
+ * The driver stores a bound Timestamp as epoch milliseconds, so rows read
+ * the column as a plain long and only build a LocalDateTime when asked
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+final class EpochTime {
+
+    private EpochTime() {
+    }
+
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
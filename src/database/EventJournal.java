@@ -0,0 +1,477 @@
+package database;
+
+import models.parking.ParkingLot;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Event Journal - append-only binary log of gate events
+ * Every entry and exit is one record appended to a memory-mapped segment
+ * file, so a gate event costs a single sequential write. A LotSnapshot of the whole lot is written in the background every
+ * few thousand events or minutes, and once more on close(); the segments a
+ * snapshot covers are then deleted
+ *
+ * On startup, recover() loads the newest snapshot and replays the events
+ * after it, which is much faster than rebuilding the lot from SQLite
+ *
+ * The journal sits beside SQLite rather than replacing it: the gate commits
+ * its tickets, payments and fines to SQLite first, and only then journals
+ * the change to the lot. So append() never forces its record to disk - a
+ * written record is in the page cache and survives a crash of the process,
+ * segments are forced when they fill up and on close(), and a recovered lot
+ * is checked against SQLite, which is rebuilt from instead if the journal
+ * lost its tail to a power cut
+ *
+ * Segment file (journal/segment-{first sequence}.log):
+ *   16-byte header: int magic 'PLJ1', short version, 2 spare bytes, long first sequence
+ *   records: int payload length, int CRC32 of payload, payload
+ *            (long sequence + JournalEvent), length 0 marks the end
+ * A record whose checksum does not match (a write torn by a crash) ends the
+ * segment; every start opens a fresh segment, so nothing is appended after it
+ *
+ * Settings: -Dparking.journal=false disables it, -Dparking.journal.dir
+ * (default journal), -Dparking.journal.segmentKb (default 8192),
+ * -Dparking.journal.snapshotEvery (events, default 10000),
+ * -Dparking.journal.snapshotSeconds (default 300)
+ *
+ * The lot's state changes before its event is appended, and replay is
+ * idempotent, so a snapshot taken while the gates are busy is still safe
+ * to replay from
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public class EventJournal {
+    private static final Logger logger = LoggerFactory.getLogger(EventJournal.class);
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("parking.journal", "true"));
+    private static final Path DIRECTORY = Paths.get(System.getProperty("parking.journal.dir", "journal"));
+    private static final int SEGMENT_SIZE = Integer.getInteger("parking.journal.segmentKb", 8192) * 1024;
+    private static final int SNAPSHOT_EVERY = Integer.getInteger("parking.journal.snapshotEvery", 10000);
+    private static final long SNAPSHOT_SECONDS = Long.getLong("parking.journal.snapshotSeconds", 300L);
+
+    private static final int SEGMENT_MAGIC = 0x504C4A31; // "PLJ1"
+    private static final short SEGMENT_VERSION = 4;
+    private static final int SEGMENT_HEADER = 16;
+    private static final int RECORD_HEADER = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    // Per-thread buffer a gate encodes its event into before taking the lock
+    private static final ThreadLocal<ByteBuffer> SCRATCH =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
+
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService snapshotWriter;
+
+    // Guarded by this
+    private MappedByteBuffer segment;
+    private long nextSequence = 1;
+    private long eventsSinceSnapshot;
+    private boolean snapshotPending;
+    private boolean scanned;
+    private boolean failed;
+
+    private volatile ParkingLot lot;
+    private ParkingLot recoveredLot;
+
+    private EventJournal() {
+        this.snapshotWriter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "parking-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Initialization-on-demand holder, like DatabaseManager
+    private static class Holder {
+        private static final EventJournal INSTANCE = new EventJournal();
+    }
+
+    public static EventJournal getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Rebuild the lot from the newest snapshot plus the journal events after it
+     *
+     * @param name Name of the parking lot
+     * @return The recovered lot, or null if there is no usable snapshot
+     */
+    public synchronized ParkingLot recover(String name) {
+        if (!ENABLED) {
+            return null;
+        }
+        long start = System.nanoTime();
+
+        LotSnapshot snapshot = null;
+        for (Path file : listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX, true)) {
+            snapshot = LotSnapshot.read(file);
+            if (snapshot != null) {
+                break;
+            }
+        }
+
+        if (snapshot == null) {
+            scan(Long.MAX_VALUE, event -> { });
+            return null;
+        }
+
+        ParkingLot recovered = snapshot.getLot();
+        int[] replayed = {0};
+        scan(snapshot.getLastSequence(), event -> {
+            event.applyTo(recovered);
+            replayed[0]++;
+        });
+        recoveredLot = recovered;
+
+        logger.info("Recovered {} from snapshot at event {} ({} s old) plus {} journal events in {} ms ({} vehicles parked)",
+                    name, snapshot.getLastSequence(),
+                    (System.currentTimeMillis() - snapshot.getWrittenAt()) / 1000,
+                    replayed[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    recovered.getOccupiedSpots());
+        return recovered;
+    }
+
+    /**
+     * Start journaling changes to the lot
+     * A lot that did not come from recover() is snapshotted first, since
+     * the existing journal does not describe it
+     */
+    public synchronized void start(ParkingLot lot) {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            Files.createDirectories(DIRECTORY);
+            if (!scanned) {
+                scan(Long.MAX_VALUE, event -> { });
+            }
+            this.lot = lot;
+            openSegment();
+            if (lot != recoveredLot) {
+                writeSnapshot(nextSequence - 1);
+            }
+            if (SNAPSHOT_SECONDS > 0) {
+                snapshotWriter.scheduleWithFixedDelay(this::timedSnapshot,
+                        SNAPSHOT_SECONDS, SNAPSHOT_SECONDS, TimeUnit.SECONDS);
+            }
+            logger.info("Event journal started in {} at event {}", DIRECTORY, nextSequence);
+        } catch (IOException e) {
+            logger.error("Event journal could not be started, continuing without it", e);
+            segment = null;
+        }
+    }
+
+    /**
+     * Append one gate event; does nothing if the journal is disabled or not started
+     * The event is encoded before the journal lock is taken, so the lock is
+     * only held for the copy into the segment
+     *
+     * @throws IOException if the event could not be journaled. The journal
+     *         then deletes its snapshots, so the next start loads from SQLite,
+     *         and the next append starts over with a fresh segment and snapshot
+     */
+    public void append(JournalEvent event) throws IOException {
+        if (!ENABLED || lot == null) {
+            return;
+        }
+        ByteBuffer payload = encode(event);
+        synchronized (this) {
+            if (segment == null) {
+                if (!failed) {
+                    return; // closed
+                }
+                restart();
+            }
+            try {
+                write(payload);
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+                throw new IOException("Could not journal " + event, e);
+            }
+
+            if (++eventsSinceSnapshot >= SNAPSHOT_EVERY && !snapshotPending) {
+                snapshotPending = true;
+                long covered = nextSequence - 1;
+                snapshotWriter.execute(() -> backgroundSnapshot(covered));
+            }
+        }
+    }
+
+    /**
+     * Encode an event into this thread's scratch buffer, leaving room in
+     * front for the sequence number
+     */
+    private static ByteBuffer encode(JournalEvent event) {
+        int size = 8 + event.encodedSize();
+        ByteBuffer buffer = SCRATCH.get();
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(size);
+            SCRATCH.set(buffer);
+        }
+        buffer.clear();
+        buffer.position(8);
+        event.encode(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Write an encoded payload as the next record, caller holds the lock
+     */
+    private void write(ByteBuffer payload) throws IOException {
+        int length = payload.remaining();
+        if (segment.remaining() < RECORD_HEADER + length + RECORD_HEADER) {
+            segment.force();
+            openSegment();
+        }
+
+        long sequence = nextSequence;
+        payload.putLong(0, sequence);
+        crc.reset();
+        crc.update(payload.duplicate());
+
+        int recordStart = segment.position();
+        segment.position(recordStart + RECORD_HEADER);
+        segment.put(payload);
+        // Length last: until it is written the record reads as the end of the segment
+        segment.putInt(recordStart + 4, (int) crc.getValue());
+        segment.putInt(recordStart, length);
+        nextSequence++;
+    }
+
+    /**
+     * Stop writing to a segment that failed, and delete the snapshots, which
+     * no longer have a complete journal after them. Caller holds the lock
+     */
+    private void fail(Exception cause) {
+        logger.error("Event journal write failed; snapshots dropped, journal restarts on the next event", cause);
+        segment = null;
+        failed = true;
+        for (Path file : listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX, false)) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete snapshot {}: {}", file, e.toString());
+            }
+        }
+    }
+
+    /**
+     * Resume after a failed write: a fresh segment, then a snapshot of the
+     * lot as it is now, which already holds the events that were lost.
+     * Caller holds the lock
+     */
+    private void restart() throws IOException {
+        try {
+            openSegment();
+            writeSnapshot(nextSequence - 1);
+        } catch (IOException | RuntimeException e) {
+            segment = null;
+            throw e;
+        }
+        failed = false;
+        logger.info("Event journal restarted at event {}", nextSequence);
+    }
+
+    /**
+     * Timer tick - snapshot if anything was journaled since the last one
+     */
+    private void timedSnapshot() {
+        long covered;
+        synchronized (this) {
+            if (segment == null || eventsSinceSnapshot == 0 || snapshotPending) {
+                return;
+            }
+            snapshotPending = true;
+            covered = nextSequence - 1;
+        }
+        backgroundSnapshot(covered);
+    }
+
+    /**
+     * Stop journaling: force the current segment to disk and write a final
+     * snapshot, so the next start has no journal to replay
+     */
+    public void close() {
+        long covered;
+        synchronized (this) {
+            if (segment == null) {
+                return;
+            }
+            segment.force();
+            segment = null;
+            covered = nextSequence - 1;
+        }
+        snapshotWriter.shutdown(); // cancels the timer, lets a running snapshot finish
+        try {
+            snapshotWriter.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writeSnapshot(covered);
+        } catch (IOException e) {
+            logger.error("Shutdown snapshot failed; the journal will be replayed on next start", e);
+        }
+        logger.info("Event journal closed");
+    }
+
+    private void backgroundSnapshot(long covered) {
+        try {
+            writeSnapshot(covered);
+        } catch (IOException e) {
+            logger.error("Snapshot at event {} failed", covered, e);
+        } finally {
+            synchronized (this) {
+                snapshotPending = false;
+            }
+        }
+    }
+
+    /**
+     * Snapshot the lot as of the given event, then delete what it replaces
+     * Every change up to that event is already in the lot, because the lot
+     * changes before the event is appended
+     */
+    private void writeSnapshot(long covered) throws IOException {
+        long start = System.nanoTime();
+        Path file = DIRECTORY.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, covered, SNAPSHOT_SUFFIX));
+        LotSnapshot.write(file, lot, covered);
+        synchronized (this) {
+            eventsSinceSnapshot = nextSequence - 1 - covered;
+        }
+        prune(covered);
+        logger.info("Snapshot written at event {} in {} ms", covered,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Delete older snapshots and the segments whose events are all covered
+     */
+    private void prune(long covered) throws IOException {
+        for (Path file : listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX, false)) {
+            if (firstSequenceOf(file, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < covered) {
+                Files.deleteIfExists(file);
+            }
+        }
+        List<Path> segments = listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX, false);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            // Segment i ends where segment i + 1 begins
+            if (firstSequenceOf(segments.get(i + 1), SEGMENT_PREFIX, SEGMENT_SUFFIX) <= covered + 1) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    /**
+     * Start a new segment at the next sequence number
+     */
+    private void openSegment() throws IOException {
+        Path file = DIRECTORY.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        }
+        segment.putInt(SEGMENT_MAGIC);
+        segment.putShort(SEGMENT_VERSION);
+        segment.putShort((short) 0);
+        segment.putLong(nextSequence);
+        segment.position(SEGMENT_HEADER);
+    }
+
+    /**
+     * Read every segment in order, pass on events after the given sequence,
+     * and move nextSequence past the last event found
+     */
+    private void scan(long afterSequence, Consumer<JournalEvent> consumer) {
+        for (Path file : listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX, false)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (buffer.limit() < SEGMENT_HEADER || buffer.getInt(0) != SEGMENT_MAGIC
+                        || buffer.getShort(4) != SEGMENT_VERSION) {
+                    logger.warn("Skipping unrecognised journal segment {}", file);
+                    continue;
+                }
+                scanSegment(file, buffer, afterSequence, consumer);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not read journal segment {}: {}", file, e.toString());
+            }
+        }
+        scanned = true;
+    }
+
+    private void scanSegment(Path file, ByteBuffer buffer, long afterSequence, Consumer<JournalEvent> consumer) {
+        int position = SEGMENT_HEADER;
+        while (position + RECORD_HEADER <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length <= 0) {
+                return;
+            }
+            int payloadStart = position + RECORD_HEADER;
+            if (length > buffer.limit() - payloadStart) {
+                logger.warn("Journal segment {} ends in a torn record", file);
+                return;
+            }
+
+            ByteBuffer payload = buffer.duplicate();
+            payload.position(payloadStart).limit(payloadStart + length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                logger.warn("Journal segment {} has a bad checksum at offset {}; ignoring the rest of it",
+                            file, position);
+                return;
+            }
+
+            long sequence = payload.getLong();
+            nextSequence = Math.max(nextSequence, sequence + 1);
+            if (sequence > afterSequence) {
+                consumer.accept(JournalEvent.decode(payload));
+            }
+            position = payloadStart + length;
+        }
+    }
+
+    /**
+     * Journal files with the prefix, ordered by the sequence in their name
+     */
+    private static List<Path> listFiles(String prefix, String suffix, boolean newestFirst) {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(DIRECTORY)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(DIRECTORY, prefix + "*" + suffix)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not list {}: {}", DIRECTORY, e.toString());
+        }
+        // Names carry zero-padded sequence numbers, so name order is sequence order
+        Collections.sort(files);
+        if (newestFirst) {
+            Collections.reverse(files);
+        }
+        return files;
+    }
+
+    private static long firstSequenceOf(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+}
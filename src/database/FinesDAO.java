@@ -1,64 +1,185 @@
 package database;
 
 import models.fine.Fine;
+import models.payment.Money;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Data Access Object for Fines - the fines ledger
+ * Every fine is a row: overstay fines settled at the gate are recorded as
+ * PAID, anything still owed is UNPAID and is carried into the plate's next exit
+ *
+ * Most plates never owe anything, so outstanding balances are looked up in
+ * two steps before the database: a Bloom filter of plates with unpaid fines
+ * (a "no" is certain and ends the lookup), then a per-plate balance cache.
+ * The filter is widened before a write; the cache is only dropped or reset
+ * after the write commits, never adjusted by an amount
+ *
+ * Share the DaoRegistry instance; a second instance would keep its own cache
+ *
+ * @author Member 3 - Exit & Payment Management Lead
+ */
 public class FinesDAO {
-    private Connection connection;
+    private static final Logger logger = LoggerFactory.getLogger(FinesDAO.class);
 
-    public FinesDAO() {
-        this.connection = DatabaseManager.getInstance().getConnection();
-        createTable();
-    }
+    // Rebuild the filter after this many plates have settled, so paid-up
+    // plates stop passing it (a Bloom filter can't forget a plate)
+    private static final int REBUILD_AFTER_SETTLED = 4096;
+    private static final int MIN_EXPECTED_PLATES = 1024;
 
-    private void createTable() {
-        String sql = "CREATE TABLE IF NOT EXISTS fines (" +
-                     "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                     "license_plate VARCHAR(20) NOT NULL, " +
-                     "amount DECIMAL(10,2) NOT NULL, " +
-                     "reason VARCHAR(255), " +
-                     "status VARCHAR(20) DEFAULT 'UNPAID', " +
-                     "date_issued TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                     ")";
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(sql);
+    private final DatabaseManager database;
+    private final ConcurrentHashMap<String, Long> balances; // sen
+    private final AtomicInteger settledSinceBuild;
+    private volatile PlateBloomFilter unpaidPlates;
+
+    public FinesDAO() {
+        this.database = DatabaseManager.getInstance();
+        this.balances = new ConcurrentHashMap<>();
+        this.settledSinceBuild = new AtomicInteger();
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            this.unpaidPlates = buildFilter(lease);
         } catch (SQLException e) {
-            e.printStackTrace();
+            // Without the filter every lookup must go to the database
+            logger.error("Error loading unpaid fines; fine lookups will not be filtered", e);
+            this.unpaidPlates = null;
         }
     }
 
-    public void addFine(Fine fine) {
-        String sql = "INSERT INTO fines (license_plate, amount, reason, status) VALUES (?, ?, ?, 'UNPAID')";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, fine.getLicensePlate());
-            pstmt.setDouble(2, fine.getAmount());
+    /**
+     * Record a fine. An unpaid fine is added to the plate's outstanding balance
+     *
+     * @return true if successful
+     */
+    public boolean addFine(Fine fine) {
+        String sql = "INSERT INTO fines (license_plate, amount, reason, status) VALUES (?, ?, ?, ?)";
+        String plate = fine.getLicensePlate();
+        long amount = fine.getAmount();
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            if (!fine.isPaid()) {
+                // Into the filter before the row exists, so no reader can miss it;
+                // if the insert rolls back this is just a false positive
+                PlateBloomFilter filter = unpaidPlates;
+                if (filter != null) {
+                    filter.add(plate);
+                }
+                // Drop the cached balance rather than add to it: a load that
+                // ran after the commit already counts this fine
+                uow.afterCommit(() -> balances.remove(plate));
+            }
+            PreparedStatement pstmt = uow.prepare(sql);
+            pstmt.setString(1, plate);
+            pstmt.setLong(2, amount);
             pstmt.setString(3, fine.getReason());
+            pstmt.setString(4, fine.isPaid() ? "PAID" : "UNPAID");
             pstmt.executeUpdate();
-            System.out.println("⚠️ Fine added for " + fine.getLicensePlate() + ": RM " + fine.getAmount());
+            uow.commit();
+            logger.info("Fine added for {}: RM {}", plate, Money.format(amount));
+            return true;
         } catch (SQLException e) {
-            e.printStackTrace();
+            logger.error("Error adding fine for {}", plate, e);
+            return false;
+        }
+    }
+
+    /**
+     * Outstanding (unpaid) fines for a plate, in sen
+     * Plates the filter rules out never reach the database
+     */
+    public long getUnpaidFinesTotal(String licensePlate) {
+        PlateBloomFilter filter = unpaidPlates;
+        if (filter != null && !filter.mightContain(licensePlate)) {
+            return 0;
+        }
+        if (database.inUnitOfWork()) {
+            // Reads here see the unit's own uncommitted writes - don't cache them
+            Long total = queryUnpaidTotal(licensePlate);
+            return total != null ? total : 0;
         }
+        // computeIfAbsent holds the plate's entry while loading, and commits
+        // only ever drop or reset the entry, so a load that raced a commit
+        // is replaced rather than built on
+        Long total = balances.computeIfAbsent(licensePlate, this::queryUnpaidTotal);
+        return total != null ? total : 0;
     }
 
-    public double getUnpaidFinesTotal(String licensePlate) {
-        String sql = "SELECT SUM(amount) as total FROM fines WHERE license_plate = ? AND status = 'UNPAID'";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+    /**
+     * Settle every unpaid fine of a plate
+     *
+     * @return true if successful (including when there was nothing to settle)
+     */
+    public boolean markFinesAsPaid(String licensePlate) {
+        String sql = "UPDATE fines SET status = 'PAID' WHERE license_plate = ? AND status = 'UNPAID'";
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(sql);
             pstmt.setString(1, licensePlate);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) return rs.getDouble("total");
+            if (pstmt.executeUpdate() > 0) {
+                uow.afterCommit(() -> balances.put(licensePlate, 0L));
+                if (settledSinceBuild.incrementAndGet() >= REBUILD_AFTER_SETTLED) {
+                    // This unit holds the writer, so no other fine can be
+                    // added between reading the ledger and the commit
+                    PlateBloomFilter rebuilt;
+                    try (ConnectionLease lease = uow.lease()) {
+                        rebuilt = buildFilter(lease);
+                    }
+                    uow.afterCommit(() -> swapFilter(rebuilt));
+                }
+            }
+            uow.commit();
+            return true;
         } catch (SQLException e) {
-            e.printStackTrace();
+            logger.error("Error marking fines paid for {}", licensePlate, e);
+            return false;
         }
-        return 0.0;
     }
 
-    public void markFinesAsPaid(String licensePlate) {
-        String sql = "UPDATE fines SET status = 'PAID' WHERE license_plate = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+    /**
+     * Sum of a plate's unpaid fines, or null if the query failed (so it is not cached)
+     */
+    private Long queryUnpaidTotal(String licensePlate) {
+        String sql = "SELECT COALESCE(SUM(amount), 0) as total FROM fines WHERE license_plate = ? AND status = 'UNPAID'";
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
             pstmt.setString(1, licensePlate);
-            pstmt.executeUpdate();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) return rs.getLong("total");
+            }
         } catch (SQLException e) {
-            e.printStackTrace();
+            logger.error("Error getting unpaid fines for {}", licensePlate, e);
+            return null;
+        }
+        return 0L;
+    }
+
+    /**
+     * Filter holding every plate that currently has an unpaid fine
+     */
+    private PlateBloomFilter buildFilter(ConnectionLease lease) throws SQLException {
+        String sql = "SELECT DISTINCT license_plate FROM fines WHERE status = 'UNPAID'";
+        List<String> plates = new ArrayList<>();
+        try (ResultSet rs = lease.prepare(sql).executeQuery()) {
+            while (rs.next()) {
+                plates.add(rs.getString("license_plate"));
+            }
         }
+        // Room to double before the false-positive rate climbs
+        PlateBloomFilter filter = new PlateBloomFilter(Math.max(MIN_EXPECTED_PLATES, plates.size() * 2));
+        for (String plate : plates) {
+            filter.add(plate);
+        }
+        logger.debug("Unpaid fines filter built for {} plates", plates.size());
+        return filter;
+    }
+
+    private void swapFilter(PlateBloomFilter rebuilt) {
+        unpaidPlates = rebuilt;
+        settledSinceBuild.set(0);
+        // Settled plates fail the new filter, so their zero entries are no longer needed
+        balances.values().removeIf(balance -> balance == 0);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package database;
+
+import models.parking.ParkingLot;
+import models.parking.ParkingSpot;
+import models.vehicle.Vehicle;
+import models.vehicle.VehicleType;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+/**
+ * Journal Event - one gate event as recorded in the event journal
+ * Each gate event is a single record, an ENTRY or an EXIT, holding only
+ * what replay needs to put the lot back as it was. Tickets, payments and
+ * fines live in SQLite, which the gate has already committed to
+ *
+ * Replay is idempotent: an ENTRY for a vehicle already in its spot, or an
+ * EXIT for a vehicle no longer there, changes nothing. That lets recovery
+ * replay events a snapshot may already contain
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public final class JournalEvent {
+
+    public enum Type {
+        ENTRY,
+        EXIT
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    private final Type type;
+    private final LocalDateTime time;
+    private final String licensePlate;
+    private final String spotId;
+    private final VehicleType vehicleType;
+    private final boolean hasHandicappedCard;
+
+    private JournalEvent(Type type, LocalDateTime time, String licensePlate, String spotId,
+                         VehicleType vehicleType, boolean hasHandicappedCard) {
+        this.type = type;
+        this.time = time;
+        this.licensePlate = licensePlate;
+        this.spotId = spotId;
+        this.vehicleType = vehicleType;
+        this.hasHandicappedCard = hasHandicappedCard;
+    }
+
+    /**
+     * Vehicle parked in a spot
+     */
+    public static JournalEvent entry(Vehicle vehicle, ParkingSpot spot) {
+        return new JournalEvent(Type.ENTRY, vehicle.getEntryTime(), vehicle.getLicensePlate(),
+                                spot.getSpotId(), vehicle.getType(), vehicle.hasHandicappedCard());
+    }
+
+    /**
+     * Vehicle paid and left its spot
+     */
+    public static JournalEvent exit(String licensePlate, String spotId, LocalDateTime exitTime) {
+        return new JournalEvent(Type.EXIT, exitTime, licensePlate, spotId, null, false);
+    }
+
+    /**
+     * Apply the event to the lot being recovered
+     */
+    void applyTo(ParkingLot lot) {
+        ParkingSpot spot = lot.getSpotById(spotId);
+        if (spot == null) {
+            return;
+        }
+        Vehicle current = spot.getCurrentVehicle();
+        boolean present = current != null && current.getLicensePlate().equals(licensePlate);
+
+        if (type == Type.ENTRY && !present) {
+            Vehicle vehicle = BinaryCodec.newVehicle(vehicleType, licensePlate, hasHandicappedCard);
+            vehicle.setEntryTime(time);
+            spot.parkVehicle(vehicle);
+        } else if (type == Type.EXIT && present) {
+            spot.removeVehicle();
+        }
+    }
+
+    /**
+     * Upper bound of the bytes encode() writes
+     */
+    int encodedSize() {
+        return 1 + 8 + 1 + 1 + BinaryCodec.sizeOf(licensePlate) + BinaryCodec.sizeOf(spotId);
+    }
+
+    void encode(ByteBuffer buffer) {
+        buffer.put((byte) type.ordinal());
+        BinaryCodec.putTime(buffer, time);
+        BinaryCodec.putString(buffer, licensePlate);
+        BinaryCodec.putString(buffer, spotId);
+        buffer.put((byte) (vehicleType == null ? -1 : vehicleType.ordinal()));
+        buffer.put((byte) (hasHandicappedCard ? 1 : 0));
+    }
+
+    static JournalEvent decode(ByteBuffer buffer) {
+        Type type = TYPES[buffer.get()];
+        LocalDateTime time = BinaryCodec.getTime(buffer);
+        String licensePlate = BinaryCodec.getString(buffer);
+        String spotId = BinaryCodec.getString(buffer);
+        byte vehicleType = buffer.get();
+        boolean hasCard = buffer.get() != 0;
+        return new JournalEvent(type, time, licensePlate, spotId,
+                                vehicleType < 0 ? null : VEHICLE_TYPES[vehicleType], hasCard);
+    }
+
+    // Getters
+    public Type getType() { return type; }
+    public LocalDateTime getTime() { return time; }
+    public String getLicensePlate() { return licensePlate; }
+    public String getSpotId() { return spotId; }
+    public VehicleType getVehicleType() { return vehicleType; }
+
+    @Override
+    public String toString() {
+        return type + " " + licensePlate + (spotId != null ? " @ " + spotId : "");
+    }
+}
@@ -0,0 +1,198 @@
+package database;
+
+import models.parking.*;
+import models.vehicle.Vehicle;
+import models.vehicle.VehicleType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lot Snapshot - the whole ParkingLot in one compact binary file
+ * Written by the event journal as a checkpoint, periodically and on clean
+ * shutdown; recovery maps the newest snapshot into memory and replays only
+ * the journal events recorded after it
+ *
+ * Layout (big-endian):
+ *   int    magic 'PLS1'
+ *   short  format version (only the current one is read)
+ *   long   sequence of the last journal event the snapshot covers
+ *   long   time written, epoch milliseconds
+ *   int    parked vehicle count
+ *   string lot name
+ *   int    floor count
+ *   int    spot count, then per spot:
+ *          byte type, int floor, int row, int spot, long hourly rate in sen,
+ *          byte occupied [string plate, byte vehicle type, byte card, time entry]
+ *   int    CRC32 of everything before it
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+final class LotSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(LotSnapshot.class);
+
+    private static final int MAGIC = 0x504C5331; // "PLS1"
+    private static final short FORMAT_VERSION = 3;
+    private static final SpotType[] SPOT_TYPES = SpotType.values();
+    private static final VehicleType[] VEHICLE_TYPES = VehicleType.values();
+
+    private final ParkingLot lot;
+    private final long lastSequence;
+    private final long writtenAt;
+
+    private LotSnapshot(ParkingLot lot, long lastSequence, long writtenAt) {
+        this.lot = lot;
+        this.lastSequence = lastSequence;
+        this.writtenAt = writtenAt;
+    }
+
+    ParkingLot getLot() {
+        return lot;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * When the snapshot was written (epoch milliseconds)
+     */
+    long getWrittenAt() {
+        return writtenAt;
+    }
+
+    /**
+     * Write the lot to the file, replacing it atomically
+     * Each spot's vehicle is read once, so the lot may keep changing while
+     * this runs; journal replay covers whatever the snapshot misses
+     */
+    static void write(Path file, ParkingLot lot, long lastSequence) throws IOException {
+        List<ParkingSpot> spots = new ArrayList<>(lot.getTotalSpots());
+        for (Floor floor : lot.getFloors()) {
+            spots.addAll(floor.getAllSpots());
+        }
+        Vehicle[] vehicles = new Vehicle[spots.size()];
+
+        int size = 4 + 2 + 8 + 8 + 4 + BinaryCodec.sizeOf(lot.getName()) + 4 + 4 + 4;
+        int parked = 0;
+        for (int i = 0; i < spots.size(); i++) {
+            vehicles[i] = spots.get(i).getCurrentVehicle();
+            size += 1 + 12 + 8 + 1;
+            if (vehicles[i] != null) {
+                size += BinaryCodec.sizeOf(vehicles[i].getLicensePlate()) + 1 + 1 + 8;
+                parked++;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putShort(FORMAT_VERSION);
+        buffer.putLong(lastSequence);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putInt(parked);
+        BinaryCodec.putString(buffer, lot.getName());
+        buffer.putInt(lot.getTotalFloors());
+        buffer.putInt(spots.size());
+        for (int i = 0; i < spots.size(); i++) {
+            ParkingSpot spot = spots.get(i);
+            buffer.put((byte) spot.getType().ordinal());
+            buffer.putInt(spot.getFloorNumber());
+            buffer.putInt(spot.getRowNumber());
+            buffer.putInt(spot.getSpotNumber());
+            buffer.putLong(spot.getHourlyRate());
+            Vehicle vehicle = vehicles[i];
+            buffer.put((byte) (vehicle != null ? 1 : 0));
+            if (vehicle != null) {
+                BinaryCodec.putString(buffer, vehicle.getLicensePlate());
+                buffer.put((byte) vehicle.getType().ordinal());
+                buffer.put((byte) (vehicle.hasHandicappedCard() ? 1 : 0));
+                BinaryCodec.putTime(buffer, vehicle.getEntryTime());
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a snapshot file through a read-only memory mapping
+     * The file is decoded straight from the page cache, without copying it
+     * into the heap first
+     *
+     * @return The snapshot, or null if the file is damaged or not a snapshot
+     */
+    static LotSnapshot read(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unreadable snapshot {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    private static LotSnapshot decode(ByteBuffer buffer) {
+        if (buffer.remaining() < 4 + 2 + 4 || buffer.getInt(0) != MAGIC) {
+            return null;
+        }
+        int bodyLength = buffer.limit() - 4;
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.limit(bodyLength);
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(bodyLength)) {
+            logger.warn("Snapshot checksum mismatch");
+            return null;
+        }
+
+        buffer.position(4);
+        short version = buffer.getShort();
+        if (version != FORMAT_VERSION) {
+            logger.warn("Unsupported snapshot format version {}", version);
+            return null;
+        }
+        long lastSequence = buffer.getLong();
+        long writtenAt = buffer.getLong();
+        int expectedParked = buffer.getInt();
+        ParkingLot lot = new ParkingLot(BinaryCodec.getString(buffer));
+        int floorCount = buffer.getInt();
+        for (int f = 0; f < floorCount; f++) {
+            lot.addFloor();
+        }
+        int spotCount = buffer.getInt();
+        for (int i = 0; i < spotCount; i++) {
+            SpotType type = SPOT_TYPES[buffer.get()];
+            int floorNumber = buffer.getInt();
+            ParkingSpot spot = BinaryCodec.newSpot(type, floorNumber, buffer.getInt(), buffer.getInt());
+            spot.setHourlyRate(buffer.getLong());
+            lot.getFloor(floorNumber).addSpot(spot);
+            if (buffer.get() != 0) {
+                String plate = BinaryCodec.getString(buffer);
+                Vehicle vehicle = BinaryCodec.newVehicle(VEHICLE_TYPES[buffer.get()], plate, buffer.get() != 0);
+                vehicle.setEntryTime(BinaryCodec.getTime(buffer));
+                spot.parkVehicle(vehicle);
+            }
+        }
+        if (lot.getOccupiedSpots() != expectedParked) {
+            logger.warn("Snapshot lists {} parked vehicles but restores {}", expectedParked, lot.getOccupiedSpots());
+            return null;
+        }
+        return new LotSnapshot(lot, lastSequence, writtenAt);
+    }
+}
@@ -4,7 +4,11 @@ import models.parking.*;
 import models.vehicle.Vehicle;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Data Access Object for Parking Spots
@@ -12,73 +16,91 @@ import java.util.List;
  * * @author Member 1 - Parking Structure Lead
  */
 public class ParkingSpotsDAO {
-    private Connection connection;
+    private static final Logger logger = LoggerFactory.getLogger(ParkingSpotsDAO.class);
+    
+    private final DatabaseManager database;
+    
+    private static final String UPSERT_SPOT_SQL =
+        "INSERT OR REPLACE INTO parking_spots " +
+        "(spot_id, floor_number, row_number, spot_number, " +
+        "spot_type, hourly_rate, status, current_vehicle) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    // Rows sent to the driver per executeBatch() call in bulk writes
+    private static final int BATCH_SIZE = 500;
     
     public ParkingSpotsDAO() {
-        this.connection = DatabaseManager.getInstance().getConnection();
+        this.database = DatabaseManager.getInstance();
     }
     
     /**
      * Save a parking spot to database
      */
     public boolean saveSpot(ParkingSpot spot) {
-        String sql = "INSERT OR REPLACE INTO parking_spots " +
-                     "(spot_id, floor_number, row_number, spot_number, " +
-                     "spot_type, hourly_rate, status, current_vehicle) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, spot.getSpotId());
-            pstmt.setInt(2, spot.getFloorNumber());
-            pstmt.setInt(3, spot.getRowNumber());
-            pstmt.setInt(4, spot.getSpotNumber());
-            pstmt.setString(5, spot.getType().name());
-            pstmt.setDouble(6, spot.getHourlyRate());
-            pstmt.setString(7, spot.getStatus().name());
-            
-            // Save vehicle license plate if occupied
-            String vehiclePlate = null;
-            if (spot.getCurrentVehicle() != null) {
-                vehiclePlate = spot.getCurrentVehicle().getLicensePlate();
-            }
-            pstmt.setString(8, vehiclePlate);
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(UPSERT_SPOT_SQL);
+            bindSpot(pstmt, spot);
             
             pstmt.executeUpdate();
-            System.out.println("✓ Saved spot: " + spot.getSpotId());
+            uow.commit();
+            logger.debug("Saved spot: {}", spot.getSpotId());
             return true;
             
         } catch (SQLException e) {
-            System.err.println("✗ Error saving spot: " + spot.getSpotId());
-            e.printStackTrace();
+            logger.error("Error saving spot: {}", spot.getSpotId(), e);
             return false;
         }
     }
     
+    /**
+     * Fill the UPSERT_SPOT_SQL parameters from a spot
+     */
+    private void bindSpot(PreparedStatement pstmt, ParkingSpot spot) throws SQLException {
+        pstmt.setString(1, spot.getSpotId());
+        pstmt.setInt(2, spot.getFloorNumber());
+        pstmt.setInt(3, spot.getRowNumber());
+        pstmt.setInt(4, spot.getSpotNumber());
+        pstmt.setString(5, spot.getType().name());
+        pstmt.setLong(6, spot.getHourlyRate());
+        pstmt.setString(7, spot.getStatus().name());
+        
+        // Save vehicle license plate if occupied
+        String vehiclePlate = null;
+        if (spot.getCurrentVehicle() != null) {
+            vehiclePlate = spot.getCurrentVehicle().getLicensePlate();
+        }
+        pstmt.setString(8, vehiclePlate);
+    }
+    
     /**
      * Update spot status (when vehicle parks/leaves)
+     * A spot with no row is logged and skipped, so a gate event is not
+     * rolled back over it
+     * 
+     * @return false only if the update failed
      */
     public boolean updateSpotStatus(String spotId, SpotStatus status, String vehiclePlate) {
         String sql = "UPDATE parking_spots SET status = ?, current_vehicle = ? " +
                      "WHERE spot_id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(sql);
             pstmt.setString(1, status.name());
             pstmt.setString(2, vehiclePlate);
             pstmt.setString(3, spotId);
             
             int rowsAffected = pstmt.executeUpdate();
+            uow.commit();
             
             if (rowsAffected > 0) {
-                System.out.println("✓ Updated spot status: " + spotId + " -> " + status);
-                return true;
+                logger.debug("Updated spot status: {} -> {}", spotId, status);
             } else {
-                System.err.println("✗ Spot not found: " + spotId);
-                return false;
+                logger.warn("Spot not found: {}", spotId);
             }
+            return true;
             
         } catch (SQLException e) {
-            System.err.println("✗ Error updating spot status: " + spotId);
-            e.printStackTrace();
+            logger.error("Error updating spot status: {}", spotId, e);
             return false;
         }
     }
@@ -89,17 +111,17 @@ public class ParkingSpotsDAO {
     public ParkingSpot getSpotById(String spotId) {
         String sql = "SELECT * FROM parking_spots WHERE spot_id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
             pstmt.setString(1, spotId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return createSpotFromResultSet(rs);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return createSpotFromResultSet(rs);
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error getting spot: " + spotId);
-            e.printStackTrace();
+            logger.error("Error getting spot: {}", spotId, e);
         }
         
         return null;
@@ -113,22 +135,22 @@ public class ParkingSpotsDAO {
         String sql = "SELECT * FROM parking_spots WHERE floor_number = ? " +
                      "ORDER BY row_number, spot_number";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
             pstmt.setInt(1, floorNumber);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                ParkingSpot spot = createSpotFromResultSet(rs);
-                if (spot != null) {
-                    spots.add(spot);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ParkingSpot spot = createSpotFromResultSet(rs);
+                    if (spot != null) {
+                        spots.add(spot);
+                    }
                 }
-            }
             
-            System.out.println("✓ Loaded " + spots.size() + " spots for Floor " + floorNumber);
+                logger.debug("Loaded {} spots for Floor {}", spots.size(), floorNumber);
+            }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error loading spots for floor: " + floorNumber);
-            e.printStackTrace();
+            logger.error("Error loading spots for floor: {}", floorNumber, e);
         }
         
         return spots;
@@ -136,23 +158,94 @@ public class ParkingSpotsDAO {
     
     /**
      * Save entire parking lot structure to database
+     * Batched inserts in a single transaction - all spots are saved or none
      */
     public boolean saveParkingLot(ParkingLot parkingLot) {
-        System.out.println("\n=== Saving parking lot to database ===");
-        int successCount = 0;
+        logger.info("Saving parking lot to database");
         int totalSpots = 0;
         
-        for (Floor floor : parkingLot.getFloors()) {
-            for (ParkingSpot spot : floor.getAllSpots()) {
-                totalSpots++;
-                if (saveSpot(spot)) {
-                    successCount++;
+        // One statement, one transaction - rows go to the driver in batches
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(UPSERT_SPOT_SQL);
+            pstmt.clearBatch(); // cached statement - drop anything left by a failed run
+            int pending = 0;
+            for (Floor floor : parkingLot.getFloors()) {
+                for (ParkingSpot spot : floor.getAllSpots()) {
+                    bindSpot(pstmt, spot);
+                    pstmt.addBatch();
+                    totalSpots++;
+                    if (++pending == BATCH_SIZE) {
+                        pstmt.executeBatch();
+                        pending = 0;
+                    }
                 }
             }
+            if (pending > 0) {
+                pstmt.executeBatch();
+            }
+            uow.commit();
+            
+        } catch (SQLException e) {
+            logger.error("Error saving parking lot - no spots were saved", e);
+            return false;
         }
         
-        System.out.println("✓ Saved " + successCount + "/" + totalSpots + " spots to database");
-        return successCount == totalSpots;
+        logger.info("Saved {} spots to database", totalSpots);
+        return true;
+    }
+    
+    /**
+     * Write the current status and vehicle of many spots at once
+     * Used for mass status changes (e.g. resyncing after a restore)
+     * All rows are updated in one transaction, or none are
+     */
+    public boolean updateSpotStatuses(Collection<ParkingSpot> spots) {
+        String sql = "UPDATE parking_spots SET status = ?, current_vehicle = ? " +
+                     "WHERE spot_id = ?";
+        
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(sql);
+            pstmt.clearBatch();
+            int pending = 0;
+            int rowsAffected = 0;
+            for (ParkingSpot spot : spots) {
+                Vehicle vehicle = spot.getCurrentVehicle();
+                pstmt.setString(1, spot.getStatus().name());
+                pstmt.setString(2, vehicle != null ? vehicle.getLicensePlate() : null);
+                pstmt.setString(3, spot.getSpotId());
+                pstmt.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    rowsAffected += countRows(pstmt.executeBatch());
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                rowsAffected += countRows(pstmt.executeBatch());
+            }
+            uow.commit();
+            
+            logger.info("Updated status of {}/{} spots", rowsAffected, spots.size());
+            return rowsAffected == spots.size();
+            
+        } catch (SQLException e) {
+            logger.error("Error updating spot statuses", e);
+            return false;
+        }
+    }
+    
+    /**
+     * Sum the update counts returned by executeBatch()
+     */
+    private static int countRows(int[] updateCounts) {
+        int rows = 0;
+        for (int count : updateCounts) {
+            if (count > 0) {
+                rows += count;
+            } else if (count == Statement.SUCCESS_NO_INFO) {
+                rows++;
+            }
+        }
+        return rows;
     }
     
     /**
@@ -161,41 +254,42 @@ public class ParkingSpotsDAO {
     public boolean deleteSpot(String spotId) {
         String sql = "DELETE FROM parking_spots WHERE spot_id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(sql);
             pstmt.setString(1, spotId);
             int rowsAffected = pstmt.executeUpdate();
+            uow.commit();
             
             if (rowsAffected > 0) {
-                System.out.println("✓ Deleted spot: " + spotId);
+                logger.debug("Deleted spot: {}", spotId);
                 return true;
             } else {
-                System.err.println("✗ Spot not found: " + spotId);
+                logger.warn("Spot not found: {}", spotId);
                 return false;
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error deleting spot: " + spotId);
-            e.printStackTrace();
+            logger.error("Error deleting spot: {}", spotId, e);
             return false;
         }
     }
     
     /**
      * Get total number of spots in database
+     * Read from the occupancy_stats aggregate (one row per floor and spot type)
      */
     public int getTotalSpots() {
-        String sql = "SELECT COUNT(*) as total FROM parking_spots";
+        String sql = "SELECT COALESCE(SUM(total_spots), 0) as total FROM occupancy_stats";
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection();
+             ResultSet rs = lease.prepare(sql).executeQuery()) {
             
             if (rs.next()) {
                 return rs.getInt("total");
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error counting total spots");
-            e.printStackTrace();
+            logger.error("Error counting total spots", e);
         }
         
         return 0;
@@ -203,94 +297,157 @@ public class ParkingSpotsDAO {
     
     /**
      * Get number of occupied spots
+     * Read from the occupancy_stats aggregate
      */
     public int getOccupiedSpots() {
-        String sql = "SELECT COUNT(*) as total FROM parking_spots WHERE status = 'OCCUPIED'";
+        String sql = "SELECT COALESCE(SUM(occupied_spots), 0) as total FROM occupancy_stats";
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection();
+             ResultSet rs = lease.prepare(sql).executeQuery()) {
             
             if (rs.next()) {
                 return rs.getInt("total");
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error counting occupied spots");
-            e.printStackTrace();
+            logger.error("Error counting occupied spots", e);
         }
         
         return 0;
     }
 
-/**
+    /**
      * Load the entire Parking Lot structure and Sync with Active Vehicles
-     * FIX: Trusts the 'vehicles' table as the Source of Truth to ensure 
+     * Trusts the 'vehicles' table as the Source of Truth to ensure
      * Report Panel and Admin Panel are 100% synchronized.
+     *
+     * One joined query streams every spot together with its active vehicle;
+     * only spot rows whose stored status disagrees are rewritten, in one batch
      */
     public ParkingLot loadParkingLot(String name) {
-        // 1. Check if we have data
-        if (getTotalSpots() == 0) {
-            return null; 
-        }
-
-        System.out.println("Loading existing parking lot data...");
-        ParkingLot lot = new ParkingLot(name);
-        VehiclesDAO vehiclesDAO = new VehiclesDAO();
-
-        // 2. Load the Layout (Floors and Spots)
-        String sql = "SELECT * FROM parking_spots ORDER BY floor_number, row_number, spot_number";
+        String sql = "SELECT s.spot_id, s.floor_number, s.row_number, s.spot_number, " +
+                     "s.spot_type, s.status, s.current_vehicle, " +
+                     "v.license_plate, v.vehicle_type, v.has_handicapped_card, " +
+                     "v.entry_time, v.exit_time " +
+                     "FROM parking_spots s " +
+                     "LEFT JOIN vehicles v ON v.spot_id = s.spot_id AND v.exit_time IS NULL " +
+                     "ORDER BY s.floor_number, s.row_number, s.spot_number";
+        
+        ParkingLot lot = null;
+        int restoredCount = 0;
+        List<ParkingSpot> spotsToRepair = new ArrayList<>();
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection();
+             ResultSet rs = lease.prepare(sql).executeQuery()) {
             
+            String previousSpotId = null;
             while (rs.next()) {
-                int floorNum = rs.getInt("floor_number");
+                String spotId = rs.getString("spot_id");
+                
+                // A spot with more than one active vehicle row: keep the first
+                if (spotId.equals(previousSpotId)) {
+                    continue;
+                }
+                previousSpotId = spotId;
+                
+                if (lot == null) {
+                    logger.info("Loading existing parking lot data...");
+                    lot = new ParkingLot(name);
+                }
                 
                 // Create floors as we find them
+                int floorNum = rs.getInt("floor_number");
                 while (lot.getTotalFloors() < floorNum) {
                     lot.addFloor();
                 }
                 
-                // Create the spot 
+                // Create the spot and add it to its floor
                 ParkingSpot spot = createSpotFromResultSet(rs);
-                
-                // Add spot to floor
+                if (spot == null) {
+                    continue;
+                }
                 Floor targetFloor = lot.getFloor(floorNum);
                 if (targetFloor != null) {
                     targetFloor.addSpot(spot);
                 }
+                
+                // Rebuild the active vehicle straight from the joined columns
+                if (rs.getString("license_plate") != null) {
+                    Vehicle vehicle = VehiclesDAO.createVehicleFromResultSet(rs);
+                    if (vehicle != null) {
+                        spot.parkVehicle(vehicle);
+                        restoredCount++;
+                    }
+                }
+                
+                // Queue a repair only if the stored row disagrees with the vehicles table
+                Vehicle parked = spot.getCurrentVehicle();
+                String expectedPlate = parked != null ? parked.getLicensePlate() : null;
+                if (!spot.getStatus().name().equals(rs.getString("status"))
+                        || !Objects.equals(expectedPlate, rs.getString("current_vehicle"))) {
+                    spotsToRepair.add(spot);
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            logger.error("Error loading parking lot", e);
             return null;
         }
-
-        // 3. Force-Sync Active Vehicles from the Vehicles Table
-        System.out.println("Syncing active vehicles...");
-        List<String[]> activeVehicles = vehiclesDAO.getAllCurrentVehicles(); // The method we added earlier
-        int restoredCount = 0;
-
-        for (String[] row : activeVehicles) {
-            String licensePlate = row[0];
-            String spotId = row[2];
-            
-            // Get the full vehicle object
-            Vehicle vehicle = vehiclesDAO.getVehicleByPlate(licensePlate);
-            ParkingSpot spot = lot.getSpotById(spotId);
+        
+        // No spots stored yet - first run
+        if (lot == null) {
+            return null;
+        }
+        
+        // If the spot table was wrong, fix it now (one batched write)
+        if (!spotsToRepair.isEmpty()) {
+            logger.info("Repairing {} out-of-sync spot rows...", spotsToRepair.size());
+            updateSpotStatuses(spotsToRepair);
+        }
+        
+        logger.info("Sync Complete. Restored {} active vehicles.", restoredCount);
+        return lot;
+    }
+    
+    /**
+     * Check a lot restored from the snapshot against the database
+     * Matches the spot count and every active vehicle's spot, reading only
+     * the parked-vehicles index, so it is far cheaper than loadParkingLot
+     * 
+     * @param lot Lot rebuilt from the snapshot and journal
+     * @return true if the database agrees with it
+     */
+    public boolean validateParkingLot(ParkingLot lot) {
+        if (getTotalSpots() != lot.getTotalSpots()) {
+            logger.warn("Snapshot has {} spots, database has {}", lot.getTotalSpots(), getTotalSpots());
+            return false;
+        }
+        
+        String sql = "SELECT license_plate, spot_id FROM vehicles WHERE exit_time IS NULL";
+        int parked = 0;
+        try (ConnectionLease lease = database.acquireReadConnection();
+             ResultSet rs = lease.prepare(sql).executeQuery()) {
             
-            if (vehicle != null && spot != null) {
-                // FORCE the car into the spot
-                spot.parkVehicle(vehicle);
-                restoredCount++;
-                
-                // If the spot table was wrong, fix it now
-                updateSpotStatus(spotId, SpotStatus.OCCUPIED, licensePlate);
+            while (rs.next()) {
+                String plate = rs.getString("license_plate");
+                ParkingSpot spot = lot.findSpotByVehicle(plate);
+                if (spot == null || !spot.getSpotId().equals(rs.getString("spot_id"))) {
+                    logger.warn("Snapshot disagrees with database about vehicle {}", plate);
+                    return false;
+                }
+                parked++;
             }
+        } catch (SQLException e) {
+            logger.error("Error validating parking lot", e);
+            return false;
         }
-
-        System.out.println("✓ Sync Complete. Restored " + restoredCount + " active vehicles.");
-        return lot;
+        
+        if (parked != lot.getOccupiedSpots()) {
+            logger.warn("Snapshot has {} parked vehicles, database has {}", lot.getOccupiedSpots(), parked);
+            return false;
+        }
+        return true;
     }
+    
     /**
      * Helper method: Create ParkingSpot object from database ResultSet
      */
@@ -330,14 +487,15 @@ public class ParkingSpotsDAO {
     public boolean clearAllSpots() {
         String sql = "DELETE FROM parking_spots";
         
-        try (Statement stmt = connection.createStatement()) {
+        try (UnitOfWork uow = database.beginUnitOfWork();
+             Statement stmt = uow.getConnection().createStatement()) {
             stmt.execute(sql);
-            System.out.println("✓ Cleared all spots from database");
+            uow.commit();
+            logger.info("Cleared all spots from database");
             return true;
             
         } catch (SQLException e) {
-            System.err.println("✗ Error clearing spots");
-            e.printStackTrace();
+            logger.error("Error clearing spots", e);
             return false;
         }
     }
@@ -0,0 +1,41 @@
+package database;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Payment Page - one page of the transaction history, newest first
+ *
+ * Passing the page back to PaymentsDAO.getPaymentsPage fetches the rows
+ * strictly after its last one, keyed on (payment_time, payment_id), so
+ * paging costs the same at page 1000 as at page 1 (no OFFSET)
+ *
+ * @author Member 3 - Exit & Payment Management Lead
+ */
+public final class PaymentPage {
+    private final List<PaymentRow> rows;
+    private final boolean hasMore;
+
+    PaymentPage(List<PaymentRow> rows, boolean hasMore) {
+        this.rows = Collections.unmodifiableList(rows);
+        this.hasMore = hasMore;
+    }
+
+    public List<PaymentRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Whether older payments exist after this page
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /**
+     * The page's last row, where the next page starts; null if the page is empty
+     */
+    PaymentRow last() {
+        return rows.isEmpty() ? null : rows.get(rows.size() - 1);
+    }
+}
@@ -0,0 +1,61 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import models.payment.PaymentMethod;
+
+/**
+ * Payment Row - one row of the payments table
+ * Payment time is kept as epoch milliseconds and amounts as sen, as stored
+ *
+ * @author Member 3 - Exit & Payment Management Lead
+ */
+public final class PaymentRow {
+    private final String paymentId;
+    private final String licensePlate;
+    private final String ticketId;
+    private final long parkingFee;
+    private final long fineAmount;
+    private final long totalAmount;
+    private final PaymentMethod paymentMethod;
+    private final long paymentTimeMillis;
+
+    PaymentRow(String paymentId, String licensePlate, String ticketId,
+               long parkingFee, long fineAmount, long totalAmount,
+               PaymentMethod paymentMethod, long paymentTimeMillis) {
+        this.paymentId = paymentId;
+        this.licensePlate = licensePlate;
+        this.ticketId = ticketId;
+        this.parkingFee = parkingFee;
+        this.fineAmount = fineAmount;
+        this.totalAmount = totalAmount;
+        this.paymentMethod = paymentMethod;
+        this.paymentTimeMillis = paymentTimeMillis;
+    }
+
+    static PaymentRow from(ResultSet rs) throws SQLException {
+        return new PaymentRow(rs.getString("payment_id"),
+                              rs.getString("license_plate"),
+                              rs.getString("ticket_id"),
+                              rs.getLong("parking_fee"),
+                              rs.getLong("fine_amount"),
+                              rs.getLong("total_amount"),
+                              PaymentMethod.valueOf(rs.getString("payment_method")),
+                              rs.getLong("payment_time"));
+    }
+
+    // Getters
+    public String getPaymentId() { return paymentId; }
+    public String getLicensePlate() { return licensePlate; }
+    public String getTicketId() { return ticketId; }
+    public long getParkingFee() { return parkingFee; }
+    public long getFineAmount() { return fineAmount; }
+    public long getTotalAmount() { return totalAmount; }
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public long getPaymentTimeMillis() { return paymentTimeMillis; }
+
+    public LocalDateTime getPaymentTime() {
+        return EpochTime.toLocalDateTime(paymentTimeMillis);
+    }
+}
@@ -1,45 +1,41 @@
 package database;
 
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import models.payment.Payment;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Data Access Object for Payments
  * Handles all database operations for payments and fines
+ * Amounts are stored and summed as INTEGER sen, so totals are exact
  * 
  * @author Member 3 - Exit & Payment Management Lead
  */
 public class PaymentsDAO {
-    private Connection connection;
+    private static final Logger logger = LoggerFactory.getLogger(PaymentsDAO.class);
+
+    // Columns behind a PaymentRow
+    private static final String ROW_COLUMNS =
+        "payment_id, license_plate, ticket_id, parking_fee, fine_amount, total_amount, " +
+        "payment_method, payment_time";
+    // Rows the driver reads per batch when streaming the history
+    private static final int STREAM_FETCH_SIZE = 256;
+    // Stand-ins for an open-ended time range (payment_time is stored as epoch millis)
+    private static final Timestamp NO_LOWER_BOUND = new Timestamp(Long.MIN_VALUE);
+    private static final Timestamp NO_UPPER_BOUND = new Timestamp(Long.MAX_VALUE);
     
-    public PaymentsDAO() {
-        this.connection = DatabaseManager.getInstance().getConnection();
-        createTable();
-    }
+    private final DatabaseManager database;
     
-    /**
-     * Create payments table if not exists
-     */
-    private void createTable() {
-        String sql = "CREATE TABLE IF NOT EXISTS payments (" +
-                     "payment_id VARCHAR(50) PRIMARY KEY, " +
-                     "license_plate VARCHAR(20) NOT NULL, " +
-                     "ticket_id VARCHAR(50) NOT NULL, " +
-                     "parking_fee DECIMAL(10,2) NOT NULL, " +
-                     "fine_amount DECIMAL(10,2) DEFAULT 0, " +
-                     "total_amount DECIMAL(10,2) NOT NULL, " +
-                     "payment_method VARCHAR(20) NOT NULL, " +
-                     "payment_time TIMESTAMP NOT NULL, " +
-                     "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
-                     ")";
-        
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(sql);
-            System.out.println("✓ Table 'payments' ready");
-        } catch (SQLException e) {
-            System.err.println("✗ Error creating payments table");
-            e.printStackTrace();
-        }
+    public PaymentsDAO() {
+        this.database = DatabaseManager.getInstance();
     }
     
     /**
@@ -54,23 +50,24 @@ public class PaymentsDAO {
                      "fine_amount, total_amount, payment_method, payment_time) " +
                      "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(sql);
             pstmt.setString(1, payment.getPaymentId());
             pstmt.setString(2, payment.getLicensePlate());
             pstmt.setString(3, payment.getTicketId());
-            pstmt.setDouble(4, payment.getParkingFee());
-            pstmt.setDouble(5, payment.getFineAmount());
-            pstmt.setDouble(6, payment.getTotalAmount());
+            pstmt.setLong(4, payment.getParkingFee());
+            pstmt.setLong(5, payment.getFineAmount());
+            pstmt.setLong(6, payment.getTotalAmount());
             pstmt.setString(7, payment.getPaymentMethod().name());
             pstmt.setTimestamp(8, Timestamp.valueOf(payment.getPaymentTime()));
             
             pstmt.executeUpdate();
-            System.out.println("✓ Saved payment to database: " + payment.getPaymentId());
+            uow.commit();
+            logger.debug("Saved payment to database: {}", payment.getPaymentId());
             return true;
             
         } catch (SQLException e) {
-            System.err.println("✗ Error saving payment: " + payment.getPaymentId());
-            e.printStackTrace();
+            logger.error("Error saving payment: {}", payment.getPaymentId(), e);
             return false;
         }
     }
@@ -79,31 +76,22 @@ public class PaymentsDAO {
      * Get payment by payment ID
      * 
      * @param paymentId Payment ID to search
-     * @return Payment data as array, or null if not found
+     * @return The payment row, or null if not found
      */
-    public String[] getPaymentById(String paymentId) {
+    public PaymentRow getPaymentById(String paymentId) {
         String sql = "SELECT * FROM payments WHERE payment_id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
             pstmt.setString(1, paymentId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return new String[] {
-                    rs.getString("payment_id"),
-                    rs.getString("license_plate"),
-                    rs.getString("ticket_id"),
-                    String.valueOf(rs.getDouble("parking_fee")),
-                    String.valueOf(rs.getDouble("fine_amount")),
-                    String.valueOf(rs.getDouble("total_amount")),
-                    rs.getString("payment_method"),
-                    rs.getTimestamp("payment_time").toString()
-                };
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return PaymentRow.from(rs);
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error getting payment: " + paymentId);
-            e.printStackTrace();
+            logger.error("Error getting payment: {}", paymentId, e);
         }
         
         return null;
@@ -113,82 +101,69 @@ public class PaymentsDAO {
      * Get all payments for a license plate
      * 
      * @param licensePlate License plate to search
-     * @return Total amount paid by this vehicle
+     * @return Total amount paid by this vehicle, in sen
      */
-    public double getTotalPaidByVehicle(String licensePlate) {
-        String sql = "SELECT SUM(total_amount) as total FROM payments " +
+    public long getTotalPaidByVehicle(String licensePlate) {
+        String sql = "SELECT COALESCE(SUM(total_amount), 0) as total FROM payments " +
                      "WHERE license_plate = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
             pstmt.setString(1, licensePlate);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getDouble("total");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong("total");
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error getting total paid for: " + licensePlate);
-            e.printStackTrace();
+            logger.error("Error getting total paid for: {}", licensePlate, e);
         }
         
-        return 0.0;
-    }
-    
-    /**
-     * Get unpaid fines for a license plate
-     * For now, returns 0 (fine system can be implemented later)
-     * 
-     * @param licensePlate License plate to check
-     * @return Unpaid fine amount
-     */
-    public double getUnpaidFines(String licensePlate) {
-        // For now, return 0 - fine system can be implemented in future
-        // This is where you would check for overstaying fines or other penalties
-        return 0.0;
+        return 0;
     }
     
     /**
      * Get total revenue collected
+     * Read from the revenue_totals aggregate, not summed over every payment
      * 
-     * @return Total revenue
+     * @return Total revenue, in sen
      */
-    public double getTotalRevenue() {
-        String sql = "SELECT SUM(total_amount) as total FROM payments";
+    public long getTotalRevenue() {
+        String sql = "SELECT COALESCE(SUM(total_amount), 0) as total FROM revenue_totals";
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection();
+             ResultSet rs = lease.prepare(sql).executeQuery()) {
             
             if (rs.next()) {
-                return rs.getDouble("total");
+                return rs.getLong("total");
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error calculating total revenue");
-            e.printStackTrace();
+            logger.error("Error calculating total revenue", e);
         }
         
-        return 0.0;
+        return 0;
     }
     
     /**
      * Get total payments count
+     * Read from the revenue_totals aggregate
      * 
      * @return Total number of payments
      */
     public int getTotalPaymentsCount() {
-        String sql = "SELECT COUNT(*) as total FROM payments";
+        String sql = "SELECT COALESCE(SUM(transactions), 0) as total FROM revenue_totals";
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection();
+             ResultSet rs = lease.prepare(sql).executeQuery()) {
             
             if (rs.next()) {
                 return rs.getInt("total");
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error counting payments");
-            e.printStackTrace();
+            logger.error("Error counting payments", e);
         }
         
         return 0;
@@ -196,55 +171,204 @@ public class PaymentsDAO {
     
     /**
      * Get revenue by payment method
+     * Read from the revenue_totals aggregate
      * 
      * @param method Payment method (CASH or CARD)
-     * @return Revenue for that method
+     * @return Revenue for that method, in sen
      */
-    public double getRevenueByMethod(String method) {
-        String sql = "SELECT SUM(total_amount) as total FROM payments " +
+    public long getRevenueByMethod(String method) {
+        String sql = "SELECT COALESCE(SUM(total_amount), 0) as total FROM revenue_totals " +
                      "WHERE payment_method = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
             pstmt.setString(1, method);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getDouble("total");
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong("total");
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error getting revenue by method: " + method);
-            e.printStackTrace();
+            logger.error("Error getting revenue by method: {}", method, e);
         }
         
-        return 0.0;
+        return 0;
     }
 
     /**
-     * Get all payment records for the detailed report
-     * Orders by newest first
+     * Get revenue for every payment method in one read of the revenue_totals aggregate
+     * 
+     * @return Revenue in sen, keyed by payment method name
      */
-    public java.util.List<String[]> getAllPayments() {
-        java.util.List<String[]> list = new java.util.ArrayList<>();
-        String sql = "SELECT * FROM payments ORDER BY payment_time DESC";
+    public Map<String, Long> getRevenueByMethods() {
+        Map<String, Long> revenue = new HashMap<>();
+        String sql = "SELECT payment_method, SUM(total_amount) as total FROM revenue_totals " +
+                     "GROUP BY payment_method";
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection();
+             ResultSet rs = lease.prepare(sql).executeQuery()) {
             
             while (rs.next()) {
-                String[] row = {
-                    rs.getTimestamp("payment_time").toLocalDateTime().toString().replace("T", " "), // Date
-                    rs.getString("license_plate"),          // Plate
-                    rs.getString("payment_method"),         // Method (Cash/Card)
-                    String.format("%.2f", rs.getDouble("parking_fee")), // Fee
-                    String.format("%.2f", rs.getDouble("fine_amount")), // Fine
-                    String.format("%.2f", rs.getDouble("total_amount")) // Total
-                };
-                list.add(row);
+                revenue.put(rs.getString("payment_method"), rs.getLong("total"));
+            }
+            
+        } catch (SQLException e) {
+            logger.error("Error getting revenue by method", e);
+        }
+        
+        return revenue;
+    }
+    
+    /**
+     * Get revenue for each hour of a day, from the revenue_hourly aggregate
+     * 
+     * @param day Local date
+     * @return 24 hourly totals in sen, index 0 = midnight to 1am
+     */
+    public long[] getHourlyRevenue(LocalDate day) {
+        long[] hours = new long[24];
+        String sql = "SELECT hour, SUM(total_amount) as total FROM revenue_hourly " +
+                     "WHERE day = ? GROUP BY hour";
+        
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
+            pstmt.setString(1, day.toString());
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    hours[rs.getInt("hour")] = rs.getLong("total");
+                }
             }
+            
         } catch (SQLException e) {
-            e.printStackTrace();
+            logger.error("Error getting hourly revenue for {}", day, e);
         }
-        return list;
+        
+        return hours;
+    }
+
+    /**
+     * Get total revenue for payments in a time range
+     *
+     * @param from Earliest payment time (inclusive), or null for no lower bound
+     * @param to Latest payment time (exclusive), or null for no upper bound
+     * @return Revenue in the range, in sen
+     */
+    public long getRevenueBetween(LocalDateTime from, LocalDateTime to) {
+        String sql = "SELECT COALESCE(SUM(total_amount), 0) as total FROM payments " +
+                     "WHERE payment_time >= ? AND payment_time < ?";
+
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
+            pstmt.setTimestamp(1, lowerBound(from));
+            pstmt.setTimestamp(2, upperBound(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong("total");
+                }
+            }
+
+        } catch (SQLException e) {
+            logger.error("Error getting revenue between {} and {}", from, to, e);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Get one page of payment records for the detailed report, newest first
+     * Keyset paginated on (payment_time, payment_id), so each page is an
+     * index range read no matter how deep into the history it is
+     *
+     * @param from Earliest payment time (inclusive), or null for no lower bound
+     * @param to Latest payment time (exclusive), or null for no upper bound
+     * @param previous The page before this one, or null for the first page
+     * @param pageSize Maximum rows in the page
+     * @return The page (empty if there are no more payments)
+     */
+    public PaymentPage getPaymentsPage(LocalDateTime from, LocalDateTime to,
+                                       PaymentPage previous, int pageSize) {
+        String sql = "SELECT " + ROW_COLUMNS + " FROM payments " +
+                     "WHERE payment_time >= ? AND (payment_time, payment_id) < (?, ?) " +
+                     "ORDER BY payment_time DESC, payment_id DESC LIMIT ?";
+
+        PaymentRow after = previous == null ? null : previous.last();
+        List<PaymentRow> rows = new ArrayList<>(pageSize);
+        boolean hasMore = false;
+        if (previous != null && after == null) {
+            return new PaymentPage(rows, false); // nothing comes after an empty page
+        }
+
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
+            pstmt.setTimestamp(1, lowerBound(from));
+            if (after == null) {
+                // Every ID sorts after "", so this keeps exactly payment_time < to
+                pstmt.setTimestamp(2, upperBound(to));
+                pstmt.setString(3, "");
+            } else {
+                pstmt.setLong(2, after.getPaymentTimeMillis());
+                pstmt.setString(3, after.getPaymentId());
+            }
+            // One row past the page tells us whether another page exists
+            pstmt.setInt(4, pageSize + 1);
+            pstmt.setFetchSize(pageSize + 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rows.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    rows.add(PaymentRow.from(rs));
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error getting payments page", e);
+        }
+        return new PaymentPage(rows, hasMore);
+    }
+
+    /**
+     * Stream payment records in a time range to a consumer, newest first
+     * Rows are read in batches of STREAM_FETCH_SIZE and handed over one at a
+     * time, so exports of any size run in constant memory. The read
+     * connection is held until the last row is consumed
+     *
+     * @param from Earliest payment time (inclusive), or null for no lower bound
+     * @param to Latest payment time (exclusive), or null for no upper bound
+     * @param consumer Receives each row
+     * @return Number of rows streamed
+     */
+    public int streamPayments(LocalDateTime from, LocalDateTime to, Consumer<PaymentRow> consumer) {
+        String sql = "SELECT " + ROW_COLUMNS + " FROM payments " +
+                     "WHERE payment_time >= ? AND payment_time < ? " +
+                     "ORDER BY payment_time DESC, payment_id DESC";
+
+        int count = 0;
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
+            pstmt.setTimestamp(1, lowerBound(from));
+            pstmt.setTimestamp(2, upperBound(to));
+            pstmt.setFetchSize(STREAM_FETCH_SIZE);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(PaymentRow.from(rs));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error streaming payments after {} rows", count, e);
+        }
+        return count;
+    }
+
+    private static Timestamp lowerBound(LocalDateTime from) {
+        return from == null ? NO_LOWER_BOUND : Timestamp.valueOf(from);
+    }
+
+    private static Timestamp upperBound(LocalDateTime to) {
+        return to == null ? NO_UPPER_BOUND : Timestamp.valueOf(to);
     }
 }
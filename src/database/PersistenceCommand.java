@@ -0,0 +1,22 @@
+package database;
+
+/**
+ * Persistence Command - the DAO writes for one gate event
+ * Always runs inside a unit of work, so every write it makes commits
+ * together; returning false undoes all of them
+ *
+ * Usage:
+ *   database.persist("entry ABC123", () -> vehiclesDAO.saveVehicle(vehicle, spot)
+ *                                          && ticketsDAO.saveTicket(ticket));
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+@FunctionalInterface
+public interface PersistenceCommand {
+    /**
+     * Perform the writes
+     *
+     * @return true if every write succeeded
+     */
+    boolean execute();
+}
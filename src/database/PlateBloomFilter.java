@@ -0,0 +1,85 @@
+package database;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Plate Bloom Filter - a compact "might this plate be in the set?" test
+ * Answers "no" for certain and "maybe" with a small false-positive rate
+ * (about 1% at the expected size), using ~10 bits per plate
+ *
+ * Bits are set with compare-and-set, so adds and lookups need no lock.
+ * Plates can't be removed; the owner builds a fresh filter instead
+ *
+ * @author Member 3 - Exit & Payment Management Lead
+ */
+final class PlateBloomFilter {
+    private static final int HASHES = 7;
+    private static final int BITS_PER_PLATE = 10;
+    private static final int MIN_BITS = 1 << 12;
+
+    private final AtomicLongArray words;
+    private final int bitCount;
+
+    /**
+     * @param expectedPlates Plates the filter should hold at ~1% false positives
+     */
+    PlateBloomFilter(int expectedPlates) {
+        long bits = Math.max(MIN_BITS, (long) expectedPlates * BITS_PER_PLATE);
+        this.bitCount = (int) Math.min(bits, Integer.MAX_VALUE - 63);
+        this.words = new AtomicLongArray((bitCount + 63) >>> 6);
+    }
+
+    void add(String plate) {
+        long hash = hash(plate);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = index(h1 + i * h2);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    boolean mightContain(String plate) {
+        long hash = hash(plate);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            int bit = index(h1 + i * h2);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * 64-bit hash of the plate; the two halves drive the double hashing
+     * (the 32-bit String hash alone clusters short plates)
+     */
+    private static long hash(String plate) {
+        long h = 0xcbf29ce484222325L; // FNV-1a offset basis
+        for (int i = 0; i < plate.length(); i++) {
+            h ^= plate.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        // final avalanche (MurmurHash3 fmix64)
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
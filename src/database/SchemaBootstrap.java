@@ -0,0 +1,357 @@
+package database;
+
+import java.sql.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schema Bootstrap - brings the database schema up to date once, at startup
+ * The schema is a list of numbered migrations; each applied version is
+ * recorded in schema_version, so a database that is already up to date
+ * costs one query and an older one only runs the migrations it is missing
+ *
+ * This is the single source of truth for the table layout;
+ * database/schema.sql is a copy of it for reference
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+final class SchemaBootstrap {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaBootstrap.class);
+
+    // Version 1 - the tables as the application has always created them.
+    // IF NOT EXISTS keeps it safe on databases created before schema_version existed
+    private static final Migration BASELINE_TABLES = new Migration(1, "baseline tables",
+        "CREATE TABLE IF NOT EXISTS parking_spots (" +
+            "spot_id VARCHAR(20) PRIMARY KEY, " +
+            "floor_number INTEGER NOT NULL, " +
+            "row_number INTEGER NOT NULL, " +
+            "spot_number INTEGER NOT NULL, " +
+            "spot_type VARCHAR(20) NOT NULL, " +
+            "hourly_rate DECIMAL(10,2) NOT NULL, " +
+            "status VARCHAR(20) NOT NULL, " +
+            "current_vehicle VARCHAR(20), " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")",
+
+        // Optional - for tracking floor metadata
+        "CREATE TABLE IF NOT EXISTS floors (" +
+            "floor_number INTEGER PRIMARY KEY, " +
+            "total_spots INTEGER DEFAULT 0, " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")",
+
+        "CREATE TABLE IF NOT EXISTS vehicles (" +
+            "license_plate VARCHAR(20) PRIMARY KEY, " +
+            "vehicle_type VARCHAR(20) NOT NULL, " +
+            "has_handicapped_card BOOLEAN DEFAULT 0, " +
+            "entry_time TIMESTAMP NOT NULL, " +
+            "exit_time TIMESTAMP, " +
+            "spot_id VARCHAR(20), " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "FOREIGN KEY (spot_id) REFERENCES parking_spots(spot_id)" +
+            ")",
+
+        "CREATE TABLE IF NOT EXISTS tickets (" +
+            "ticket_id VARCHAR(50) PRIMARY KEY, " +
+            "license_plate VARCHAR(20) NOT NULL, " +
+            "spot_id VARCHAR(20) NOT NULL, " +
+            "entry_time TIMESTAMP NOT NULL, " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+            "FOREIGN KEY (license_plate) REFERENCES vehicles(license_plate), " +
+            "FOREIGN KEY (spot_id) REFERENCES parking_spots(spot_id)" +
+            ")",
+
+        "CREATE TABLE IF NOT EXISTS payments (" +
+            "payment_id VARCHAR(50) PRIMARY KEY, " +
+            "license_plate VARCHAR(20) NOT NULL, " +
+            "ticket_id VARCHAR(50) NOT NULL, " +
+            "parking_fee DECIMAL(10,2) NOT NULL, " +
+            "fine_amount DECIMAL(10,2) DEFAULT 0, " +
+            "total_amount DECIMAL(10,2) NOT NULL, " +
+            "payment_method VARCHAR(20) NOT NULL, " +
+            "payment_time TIMESTAMP NOT NULL, " +
+            "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")",
+
+        "CREATE TABLE IF NOT EXISTS fines (" +
+            "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+            "license_plate VARCHAR(20) NOT NULL, " +
+            "amount DECIMAL(10,2) NOT NULL, " +
+            "reason VARCHAR(255), " +
+            "status VARCHAR(20) DEFAULT 'UNPAID', " +
+            "date_issued TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+            ")"
+    );
+
+    // Version 2 - indexes for the queries run on every entry, exit and report.
+    // Partial indexes only hold the rows those queries can match (parked
+    // vehicles, unpaid fines), and they carry every column the query reads,
+    // including the filter column, so SQLite never touches the table
+    private static final Migration HOT_QUERY_INDEXES = new Migration(2, "hot query indexes",
+        // TicketsDAO.getTicketByLicensePlate - latest ticket for a plate
+        "CREATE INDEX IF NOT EXISTS idx_tickets_plate_entry " +
+            "ON tickets (license_plate, entry_time DESC)",
+
+        // VehiclesDAO.getCurrentVehicleCount / getAllCurrentVehicles
+        "CREATE INDEX IF NOT EXISTS idx_vehicles_parked " +
+            "ON vehicles (license_plate, vehicle_type, entry_time, spot_id, exit_time) " +
+            "WHERE exit_time IS NULL",
+
+        // PaymentsDAO.getRevenueByMethod
+        "CREATE INDEX IF NOT EXISTS idx_payments_method_total " +
+            "ON payments (payment_method, total_amount)",
+
+        // PaymentsDAO.getAllPayments - newest first
+        "CREATE INDEX IF NOT EXISTS idx_payments_time " +
+            "ON payments (payment_time)",
+
+        // FinesDAO.getUnpaidFinesTotal / markFinesAsPaid
+        "CREATE INDEX IF NOT EXISTS idx_fines_unpaid " +
+            "ON fines (license_plate, amount, status) " +
+            "WHERE status = 'UNPAID'"
+    );
+
+    // Version 3 - the transaction history is read a page at a time, keyed on
+    // (payment_time, payment_id); the ID breaks ties between payments taken in
+    // the same millisecond. This index supersedes the time-only one
+    private static final Migration PAYMENT_HISTORY_KEYSET = new Migration(3, "payment history keyset index",
+        "DROP INDEX IF EXISTS idx_payments_time",
+
+        // PaymentsDAO.getPaymentsPage / streamPayments / getRevenueBetween
+        "CREATE INDEX IF NOT EXISTS idx_payments_time_id " +
+            "ON payments (payment_time, payment_id)"
+    );
+
+    // Version 4 - every timestamp column holds epoch milliseconds, which is
+    // what the driver writes for a bound Timestamp and what the row classes
+    // read. Older admin "time travel" edits wrote local-time text instead;
+    // convert those in place ('utc' reads the text as local time)
+    private static final Migration EPOCH_TIMESTAMPS = new Migration(4, "epoch millisecond timestamps",
+        "UPDATE vehicles SET entry_time = CAST(strftime('%s', entry_time, 'utc') AS INTEGER) * 1000 " +
+            "WHERE typeof(entry_time) = 'text'",
+        "UPDATE vehicles SET exit_time = CAST(strftime('%s', exit_time, 'utc') AS INTEGER) * 1000 " +
+            "WHERE typeof(exit_time) = 'text'",
+        "UPDATE tickets SET entry_time = CAST(strftime('%s', entry_time, 'utc') AS INTEGER) * 1000 " +
+            "WHERE typeof(entry_time) = 'text'",
+        "UPDATE payments SET payment_time = CAST(strftime('%s', payment_time, 'utc') AS INTEGER) * 1000 " +
+            "WHERE typeof(payment_time) = 'text'"
+    );
+
+    // Version 5 - running totals for the dashboard, kept by triggers so they
+    // change in the same transaction as the payment or spot row behind them,
+    // whichever code path writes it. Dashboard reads become primary key
+    // lookups over a handful of rows, however long the history grows.
+    // The writer connection runs with recursive_triggers on, so the delete
+    // half of an INSERT OR REPLACE on parking_spots is counted too
+    private static final String SPOT_TYPE_OF_PAYMENT =
+        "COALESCE((SELECT s.spot_type FROM tickets t JOIN parking_spots s ON s.spot_id = t.spot_id " +
+        "WHERE t.ticket_id = NEW.ticket_id), 'UNKNOWN')";
+
+    private static final Migration DASHBOARD_AGGREGATES = new Migration(5, "dashboard aggregates",
+        // Revenue by payment method and spot type, all time
+        "CREATE TABLE IF NOT EXISTS revenue_totals (" +
+            "payment_method VARCHAR(20) NOT NULL, " +
+            "spot_type VARCHAR(20) NOT NULL, " +
+            "transactions INTEGER NOT NULL DEFAULT 0, " +
+            "parking_fee DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+            "fine_amount DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+            "total_amount DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+            "PRIMARY KEY (payment_method, spot_type)" +
+            ") WITHOUT ROWID",
+
+        // Revenue by local day and hour (a day is at most 24 x methods x types rows)
+        "CREATE TABLE IF NOT EXISTS revenue_hourly (" +
+            "day DATE NOT NULL, " +
+            "hour INTEGER NOT NULL, " +
+            "payment_method VARCHAR(20) NOT NULL, " +
+            "spot_type VARCHAR(20) NOT NULL, " +
+            "transactions INTEGER NOT NULL DEFAULT 0, " +
+            "total_amount DECIMAL(12,2) NOT NULL DEFAULT 0, " +
+            "PRIMARY KEY (day, hour, payment_method, spot_type)" +
+            ") WITHOUT ROWID",
+
+        // Current occupancy by floor and spot type
+        "CREATE TABLE IF NOT EXISTS occupancy_stats (" +
+            "floor_number INTEGER NOT NULL, " +
+            "spot_type VARCHAR(20) NOT NULL, " +
+            "total_spots INTEGER NOT NULL DEFAULT 0, " +
+            "occupied_spots INTEGER NOT NULL DEFAULT 0, " +
+            "PRIMARY KEY (floor_number, spot_type)" +
+            ") WITHOUT ROWID",
+
+        // Backfill from what is already there. Tickets are deleted at exit,
+        // so older payments can no longer be traced to a spot type
+        "INSERT INTO revenue_totals " +
+            "SELECT p.payment_method, COALESCE(s.spot_type, 'UNKNOWN'), COUNT(*), " +
+            "TOTAL(p.parking_fee), TOTAL(p.fine_amount), TOTAL(p.total_amount) " +
+            "FROM payments p LEFT JOIN tickets t ON t.ticket_id = p.ticket_id " +
+            "LEFT JOIN parking_spots s ON s.spot_id = t.spot_id " +
+            "GROUP BY 1, 2",
+        "INSERT INTO revenue_hourly " +
+            "SELECT date(p.payment_time / 1000, 'unixepoch', 'localtime'), " +
+            "CAST(strftime('%H', p.payment_time / 1000, 'unixepoch', 'localtime') AS INTEGER), " +
+            "p.payment_method, COALESCE(s.spot_type, 'UNKNOWN'), COUNT(*), TOTAL(p.total_amount) " +
+            "FROM payments p LEFT JOIN tickets t ON t.ticket_id = p.ticket_id " +
+            "LEFT JOIN parking_spots s ON s.spot_id = t.spot_id " +
+            "GROUP BY 1, 2, 3, 4",
+        "INSERT INTO occupancy_stats " +
+            "SELECT floor_number, spot_type, COUNT(*), TOTAL(status = 'OCCUPIED') " +
+            "FROM parking_spots GROUP BY 1, 2",
+
+        // Payments are append-only, so only inserts need counting
+        "CREATE TRIGGER IF NOT EXISTS trg_payments_revenue AFTER INSERT ON payments " +
+            "BEGIN " +
+            "INSERT INTO revenue_totals " +
+                "(payment_method, spot_type, transactions, parking_fee, fine_amount, total_amount) " +
+                "VALUES (NEW.payment_method, " + SPOT_TYPE_OF_PAYMENT + ", 1, " +
+                "NEW.parking_fee, NEW.fine_amount, NEW.total_amount) " +
+                "ON CONFLICT (payment_method, spot_type) DO UPDATE SET " +
+                "transactions = transactions + 1, " +
+                "parking_fee = parking_fee + excluded.parking_fee, " +
+                "fine_amount = fine_amount + excluded.fine_amount, " +
+                "total_amount = total_amount + excluded.total_amount; " +
+            "INSERT INTO revenue_hourly " +
+                "(day, hour, payment_method, spot_type, transactions, total_amount) " +
+                "VALUES (date(NEW.payment_time / 1000, 'unixepoch', 'localtime'), " +
+                "CAST(strftime('%H', NEW.payment_time / 1000, 'unixepoch', 'localtime') AS INTEGER), " +
+                "NEW.payment_method, " + SPOT_TYPE_OF_PAYMENT + ", 1, NEW.total_amount) " +
+                "ON CONFLICT (day, hour, payment_method, spot_type) DO UPDATE SET " +
+                "transactions = transactions + 1, " +
+                "total_amount = total_amount + excluded.total_amount; " +
+            "END",
+
+        "CREATE TRIGGER IF NOT EXISTS trg_spots_occupancy_insert AFTER INSERT ON parking_spots " +
+            "BEGIN " +
+            "INSERT INTO occupancy_stats (floor_number, spot_type, total_spots, occupied_spots) " +
+                "VALUES (NEW.floor_number, NEW.spot_type, 1, NEW.status = 'OCCUPIED') " +
+                "ON CONFLICT (floor_number, spot_type) DO UPDATE SET " +
+                "total_spots = total_spots + 1, " +
+                "occupied_spots = occupied_spots + excluded.occupied_spots; " +
+            "END",
+
+        "CREATE TRIGGER IF NOT EXISTS trg_spots_occupancy_delete AFTER DELETE ON parking_spots " +
+            "BEGIN " +
+            "UPDATE occupancy_stats SET total_spots = total_spots - 1, " +
+                "occupied_spots = occupied_spots - (OLD.status = 'OCCUPIED') " +
+                "WHERE floor_number = OLD.floor_number AND spot_type = OLD.spot_type; " +
+            "END",
+
+        "CREATE TRIGGER IF NOT EXISTS trg_spots_occupancy_status AFTER UPDATE OF status ON parking_spots " +
+            "WHEN OLD.status IS NOT NEW.status " +
+            "BEGIN " +
+            "UPDATE occupancy_stats SET " +
+                "occupied_spots = occupied_spots + (NEW.status = 'OCCUPIED') - (OLD.status = 'OCCUPIED') " +
+                "WHERE floor_number = NEW.floor_number AND spot_type = NEW.spot_type; " +
+            "END",
+
+        // Revenue by method is now read from revenue_totals; stop paying for this index on every payment
+        "DROP INDEX IF EXISTS idx_payments_method_total"
+    );
+
+    // Version 6 - money as INTEGER sen (1 RM = 100 sen), matching models.payment.Money.
+    // The declared DECIMAL types stay (SQLite can't alter them, and NUMERIC
+    // affinity keeps integers as integers); only the stored values change.
+    // Aggregates are rescaled in place: their float drift is far below half
+    // a sen, so rounding lands on the exact total, and older payments can't
+    // be traced to a spot type to rebuild them
+    private static final Migration MONEY_IN_SEN = new Migration(6, "money in sen",
+        "UPDATE parking_spots SET hourly_rate = CAST(ROUND(hourly_rate * 100) AS INTEGER)",
+        "UPDATE payments SET " +
+            "parking_fee = CAST(ROUND(parking_fee * 100) AS INTEGER), " +
+            "fine_amount = CAST(ROUND(COALESCE(fine_amount, 0) * 100) AS INTEGER), " +
+            "total_amount = CAST(ROUND(total_amount * 100) AS INTEGER)",
+        "UPDATE fines SET amount = CAST(ROUND(amount * 100) AS INTEGER)",
+        "UPDATE revenue_totals SET " +
+            "parking_fee = CAST(ROUND(parking_fee * 100) AS INTEGER), " +
+            "fine_amount = CAST(ROUND(fine_amount * 100) AS INTEGER), " +
+            "total_amount = CAST(ROUND(total_amount * 100) AS INTEGER)",
+        "UPDATE revenue_hourly SET total_amount = CAST(ROUND(total_amount * 100) AS INTEGER)"
+    );
+
+    // Applied in order; append new versions here, never edit an applied one
+    private static final Migration[] MIGRATIONS = {
+        BASELINE_TABLES,
+        HOT_QUERY_INDEXES,
+        PAYMENT_HISTORY_KEYSET,
+        EPOCH_TIMESTAMPS,
+        DASHBOARD_AGGREGATES,
+        MONEY_IN_SEN
+    };
+
+    static final int SCHEMA_VERSION = MIGRATIONS[MIGRATIONS.length - 1].version;
+
+    private SchemaBootstrap() {
+    }
+
+    /**
+     * Apply every migration newer than the database's recorded version
+     * Runs on the writer connection before the pool is handed out
+     */
+    static void initialize(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                         "version INTEGER PRIMARY KEY, " +
+                         "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                         ")");
+        }
+
+        int current = currentVersion(connection);
+        if (current >= SCHEMA_VERSION) {
+            logger.info("Database schema is up to date (version {})", current);
+            return;
+        }
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version > current) {
+                apply(connection, migration);
+            }
+        }
+        logger.info("Database schema migrated from version {} to {}", current, SCHEMA_VERSION);
+    }
+
+    /**
+     * Run one migration and record its version, in a single transaction
+     */
+    private static void apply(Connection connection, Migration migration) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            for (String ddl : migration.statements) {
+                stmt.execute(ddl);
+            }
+            stmt.execute("INSERT INTO schema_version (version) VALUES (" + migration.version + ")");
+            connection.commit();
+            logger.debug("Applied schema migration {} ({})", migration.version, migration.description);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Highest schema version recorded, or 0 for a new (or pre-versioning) database
+     */
+    static int currentVersion(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * One numbered step of the schema
+     */
+    private static final class Migration {
+        final int version;
+        final String description;
+        final String[] statements;
+
+        Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = statements;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package database;
+
+import java.sql.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Statement Cache - prepared statements kept open per pooled connection
+ * The DAOs run the same few SQL strings on every entry and exit; each string
+ * is compiled once per connection and the PreparedStatement is reused after
+ * that. Least recently used statements are closed when the cache is full
+ *
+ * A connection is only ever used by one thread at a time (the writer under
+ * its lock, readers through leases), so the cache itself needs no locking.
+ * Callers must not close the statements they get back - only their ResultSets
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public class StatementCache {
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    private static final int CAPACITY = Integer.getInteger("parking.db.statementCache", 64);
+
+    // Totals across every connection's cache
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements;
+
+    StatementCache(Connection connection) {
+        this.connection = connection;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > CAPACITY) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get the cached statement for the SQL, preparing it on first use
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement pstmt = statements.get(sql);
+        if (pstmt != null && !pstmt.isClosed()) {
+            hits.increment();
+            return pstmt;
+        }
+
+        misses.increment();
+        pstmt = connection.prepareStatement(sql);
+        statements.put(sql, pstmt);
+        return pstmt;
+    }
+
+    /**
+     * Close every cached statement
+     */
+    void close() {
+        Iterator<PreparedStatement> it = statements.values().iterator();
+        while (it.hasNext()) {
+            closeQuietly(it.next());
+            it.remove();
+        }
+    }
+
+    /**
+     * Number of prepare() calls served from a cache
+     */
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of prepare() calls that had to compile the SQL
+     */
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    private static void closeQuietly(PreparedStatement pstmt) {
+        try {
+            pstmt.close();
+        } catch (SQLException e) {
+            logger.warn("Error closing cached statement", e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package database;
+
+import java.sql.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Storage Profile - SQLite PRAGMA settings applied to every pooled connection
+ * Selected with -Dparking.db.profile=DURABLE|BALANCED|FAST (default BALANCED)
+ *
+ * DURABLE  - rollback journal, fsync on every commit (the driver defaults)
+ * BALANCED - WAL journal, fsync at checkpoints only; a power cut can lose the
+ *            last few commits but never corrupts the file
+ * FAST     - WAL journal, no fsync at all; for demos and benchmarks only
+ *
+ * Every profile sets busy_timeout so a reader or writer that meets a lock
+ * waits for it instead of failing straight away with SQLITE_BUSY
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public enum StorageProfile {
+    DURABLE("DELETE", "FULL", 0L, -2000, "DEFAULT", 5000),
+    BALANCED("WAL", "NORMAL", 64L * 1024 * 1024, -8000, "MEMORY", 5000),
+    FAST("WAL", "OFF", 256L * 1024 * 1024, -32000, "MEMORY", 5000);
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageProfile.class);
+
+    private final String journalMode;
+    private final String synchronous;
+    private final long mmapSize;
+    private final int cacheSize;     // negative = KiB, as in PRAGMA cache_size
+    private final String tempStore;
+    private final int busyTimeoutMs;
+
+    StorageProfile(String journalMode, String synchronous, long mmapSize,
+                   int cacheSize, String tempStore, int busyTimeoutMs) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.mmapSize = mmapSize;
+        this.cacheSize = cacheSize;
+        this.tempStore = tempStore;
+        this.busyTimeoutMs = busyTimeoutMs;
+    }
+
+    /**
+     * Profile named by the parking.db.profile system property
+     */
+    public static StorageProfile fromSystemProperty() {
+        String name = System.getProperty("parking.db.profile", BALANCED.name());
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown storage profile '{}', using {}", name, BALANCED);
+            return BALANCED;
+        }
+    }
+
+    /**
+     * Apply the profile to a freshly opened connection
+     * The journal mode is stored in the database file, so it only needs to be
+     * set once, on the writer connection
+     */
+    public void apply(Connection connection, boolean writer) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            // busy_timeout first, so the journal mode switch can wait for a lock
+            stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+            if (writer) {
+                stmt.execute("PRAGMA journal_mode = " + journalMode);
+            }
+            stmt.execute("PRAGMA synchronous = " + synchronous);
+            stmt.execute("PRAGMA mmap_size = " + mmapSize);
+            stmt.execute("PRAGMA cache_size = " + cacheSize);
+            stmt.execute("PRAGMA temp_store = " + tempStore);
+        }
+    }
+
+    /**
+     * Log the settings SQLite actually reports for the connection
+     * (e.g. journal_mode stays DELETE for an in-memory database)
+     */
+    public void logEffectiveSettings(Connection connection) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder settings = new StringBuilder();
+        try (Statement stmt = connection.createStatement()) {
+            String[] pragmas = {"journal_mode", "synchronous", "mmap_size",
+                                "cache_size", "temp_store", "busy_timeout"};
+            for (String pragma : pragmas) {
+                try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+                    String value = rs.next() ? rs.getString(1) : "?";
+                    settings.append(settings.length() == 0 ? "" : ", ").append(pragma).append('=').append(value);
+                }
+            }
+            logger.info("Storage profile {}: {}", name(), settings);
+        } catch (SQLException e) {
+            logger.error("Could not read storage settings", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name() + " (journal=" + journalMode + ", synchronous=" + synchronous +
+               ", mmap=" + (mmapSize / (1024 * 1024)) + "MB)";
+    }
+}
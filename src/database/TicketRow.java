@@ -0,0 +1,42 @@
+package database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Ticket Row - one row of the tickets table
+ * Entry time is kept as epoch milliseconds, as stored
+ *
+ * @author Member 2 - Vehicle & Entry Management Lead
+ */
+public final class TicketRow {
+    private final String ticketId;
+    private final String licensePlate;
+    private final String spotId;
+    private final long entryTimeMillis;
+
+    TicketRow(String ticketId, String licensePlate, String spotId, long entryTimeMillis) {
+        this.ticketId = ticketId;
+        this.licensePlate = licensePlate;
+        this.spotId = spotId;
+        this.entryTimeMillis = entryTimeMillis;
+    }
+
+    static TicketRow from(ResultSet rs) throws SQLException {
+        return new TicketRow(rs.getString("ticket_id"),
+                             rs.getString("license_plate"),
+                             rs.getString("spot_id"),
+                             rs.getLong("entry_time"));
+    }
+
+    // Getters
+    public String getTicketId() { return ticketId; }
+    public String getLicensePlate() { return licensePlate; }
+    public String getSpotId() { return spotId; }
+    public long getEntryTimeMillis() { return entryTimeMillis; }
+
+    public LocalDateTime getEntryTime() {
+        return EpochTime.toLocalDateTime(entryTimeMillis);
+    }
+}
@@ -2,6 +2,8 @@ package database;
 
 import models.vehicle.Ticket;
 import java.sql.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Data Access Object for Tickets
@@ -10,34 +12,12 @@ import java.sql.*;
  * @author Member 2 - Vehicle & Entry Management Lead
  */
 public class TicketsDAO {
-    private Connection connection;
+    private static final Logger logger = LoggerFactory.getLogger(TicketsDAO.class);
     
-    public TicketsDAO() {
-        this.connection = DatabaseManager.getInstance().getConnection();
-        createTable();
-    }
+    private final DatabaseManager database;
     
-    /**
-     * Create tickets table if not exists
-     */
-    private void createTable() {
-        String sql = "CREATE TABLE IF NOT EXISTS tickets (" +
-                     "ticket_id VARCHAR(50) PRIMARY KEY, " +
-                     "license_plate VARCHAR(20) NOT NULL, " +
-                     "spot_id VARCHAR(20) NOT NULL, " +
-                     "entry_time TIMESTAMP NOT NULL, " +
-                     "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-                     "FOREIGN KEY (license_plate) REFERENCES vehicles(license_plate), " +
-                     "FOREIGN KEY (spot_id) REFERENCES parking_spots(spot_id)" +
-                     ")";
-        
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(sql);
-            System.out.println("✓ Table 'tickets' ready");
-        } catch (SQLException e) {
-            System.err.println("✗ Error creating tickets table");
-            e.printStackTrace();
-        }
+    public TicketsDAO() {
+        this.database = DatabaseManager.getInstance();
     }
     
     /**
@@ -51,19 +31,20 @@ public class TicketsDAO {
                      "(ticket_id, license_plate, spot_id, entry_time) " +
                      "VALUES (?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(sql);
             pstmt.setString(1, ticket.getTicketId());
             pstmt.setString(2, ticket.getVehicle().getLicensePlate());
             pstmt.setString(3, ticket.getSpot().getSpotId());
             pstmt.setTimestamp(4, Timestamp.valueOf(ticket.getEntryTime()));
             
             pstmt.executeUpdate();
-            System.out.println("✓ Saved ticket to database: " + ticket.getTicketId());
+            uow.commit();
+            logger.debug("Saved ticket to database: {}", ticket.getTicketId());
             return true;
             
         } catch (SQLException e) {
-            System.err.println("✗ Error saving ticket: " + ticket.getTicketId());
-            e.printStackTrace();
+            logger.error("Error saving ticket: {}", ticket.getTicketId(), e);
             return false;
         }
     }
@@ -72,27 +53,22 @@ public class TicketsDAO {
      * Get ticket by ticket ID
      * 
      * @param ticketId Ticket ID to search
-     * @return Ticket data as String array [ticketId, licensePlate, spotId, entryTime]
+     * @return The ticket row, or null if not found
      */
-    public String[] getTicketById(String ticketId) {
+    public TicketRow getTicketById(String ticketId) {
         String sql = "SELECT * FROM tickets WHERE ticket_id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
             pstmt.setString(1, ticketId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return new String[] {
-                    rs.getString("ticket_id"),
-                    rs.getString("license_plate"),
-                    rs.getString("spot_id"),
-                    rs.getTimestamp("entry_time").toString()
-                };
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return TicketRow.from(rs);
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error getting ticket: " + ticketId);
-            e.printStackTrace();
+            logger.error("Error getting ticket: {}", ticketId, e);
         }
         
         return null;
@@ -102,28 +78,23 @@ public class TicketsDAO {
      * Get ticket by license plate
      * 
      * @param licensePlate License plate to search
-     * @return Ticket data as String array
+     * @return The plate's latest ticket row, or null if not found
      */
-    public String[] getTicketByLicensePlate(String licensePlate) {
+    public TicketRow getTicketByLicensePlate(String licensePlate) {
         String sql = "SELECT * FROM tickets WHERE license_plate = ? " +
                      "ORDER BY entry_time DESC LIMIT 1";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
             pstmt.setString(1, licensePlate);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return new String[] {
-                    rs.getString("ticket_id"),
-                    rs.getString("license_plate"),
-                    rs.getString("spot_id"),
-                    rs.getTimestamp("entry_time").toString()
-                };
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return TicketRow.from(rs);
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error getting ticket for: " + licensePlate);
-            e.printStackTrace();
+            logger.error("Error getting ticket for: {}", licensePlate, e);
         }
         
         return null;
@@ -131,29 +102,32 @@ public class TicketsDAO {
     
     /**
      * Delete ticket (after vehicle exits)
+     * A ticket that is already gone counts as deleted
      * 
      * @param ticketId Ticket ID to delete
-     * @return true if successful
+     * @return false only if the delete failed
      */
     public boolean deleteTicket(String ticketId) {
         String sql = "DELETE FROM tickets WHERE ticket_id = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(sql);
             pstmt.setString(1, ticketId);
             
             int rowsAffected = pstmt.executeUpdate();
+            uow.commit();
             
             if (rowsAffected > 0) {
-                System.out.println("✓ Deleted ticket: " + ticketId);
-                return true;
+                logger.debug("Deleted ticket: {}", ticketId);
+            } else {
+                logger.debug("Ticket {} was already deleted", ticketId);
             }
+            return true;
             
         } catch (SQLException e) {
-            System.err.println("✗ Error deleting ticket: " + ticketId);
-            e.printStackTrace();
+            logger.error("Error deleting ticket: {}", ticketId, e);
+            return false;
         }
-        
-        return false;
     }
     
     /**
@@ -164,16 +138,15 @@ public class TicketsDAO {
     public int getTotalTicketsIssued() {
         String sql = "SELECT COUNT(*) as total FROM tickets";
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection();
+             ResultSet rs = lease.prepare(sql).executeQuery()) {
             
             if (rs.next()) {
                 return rs.getInt("total");
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error counting tickets");
-            e.printStackTrace();
+            logger.error("Error counting tickets", e);
         }
         
         return 0;
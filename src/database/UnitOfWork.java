@@ -0,0 +1,211 @@
+package database;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Unit of Work - groups several DAO writes into one database transaction
+ * Everything written through the DAOs between begin and commit is saved
+ * with a single commit (one journal sync), or not at all
+ *
+ * Usage:
+ *   try (UnitOfWork uow = DatabaseManager.getInstance().beginUnitOfWork()) {
+ *       ...DAO writes...
+ *       uow.commit();
+ *   }
+ * Closing without commit rolls the transaction back
+ *
+ * A unit of work holds the pool's single writer connection and is bound to
+ * the thread that began it. Beginning another unit on the same thread (e.g.
+ * a DAO write inside a controller's unit) joins the outer one: its commit is
+ * left to the outer unit, and rolling it back makes the outer unit roll back
+ *
+ * Actions registered with afterCommit run once the outermost unit has
+ * committed, and are dropped if the writes they follow are rolled back; DAOs
+ * use them to keep in-memory caches in step with what was really saved
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public class UnitOfWork implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(UnitOfWork.class);
+
+    private final Connection connection;
+    private final StatementCache statementCache;
+    private final DatabaseManager manager;
+    private final UnitOfWork outer;
+    private final boolean previousAutoCommit;
+    private boolean finished;
+    private boolean rollbackOnly;
+    private final List<Runnable> afterCommit;           // outermost unit only
+    private final Map<Savepoint, Integer> savepointMarks; // afterCommit size at each savepoint
+
+    /**
+     * Outermost unit of work - owns the checked-out writer connection
+     */
+    UnitOfWork(DatabaseManager manager, Connection connection, StatementCache statementCache) throws SQLException {
+        this.connection = connection;
+        this.statementCache = statementCache;
+        this.manager = manager;
+        this.outer = null;
+        this.previousAutoCommit = connection.getAutoCommit();
+        this.finished = false;
+        this.rollbackOnly = false;
+        this.afterCommit = new ArrayList<>();
+        this.savepointMarks = new IdentityHashMap<>();
+        connection.setAutoCommit(false);
+    }
+
+    /**
+     * Nested unit of work - joins the transaction of the enclosing unit
+     */
+    UnitOfWork(UnitOfWork outer) {
+        this.connection = outer.connection;
+        this.statementCache = outer.statementCache;
+        this.manager = outer.manager;
+        this.outer = outer;
+        this.previousAutoCommit = false;
+        this.finished = false;
+        this.rollbackOnly = false;
+        this.afterCommit = null;
+        this.savepointMarks = null;
+    }
+
+    /**
+     * Get the connection this unit of work runs on
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Get a cached prepared statement for the SQL on this unit's connection
+     * Do not close the returned statement - it is reused by later calls
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return statementCache.prepare(sql);
+    }
+
+    /**
+     * Lease over this unit's connection, for reads made inside the unit
+     */
+    ConnectionLease lease() {
+        return new ConnectionLease(connection, statementCache, null);
+    }
+
+    /**
+     * Mark the current point of the transaction, so a later failure can be
+     * undone without discarding the writes made before it
+     */
+    Savepoint setSavepoint() throws SQLException {
+        Savepoint savepoint = connection.setSavepoint();
+        savepointMarks.put(savepoint, afterCommit.size());
+        return savepoint;
+    }
+
+    /**
+     * Undo every write made since the savepoint and keep the transaction usable
+     * Clears a rollback requested by a nested unit of work after that point
+     */
+    void rollbackTo(Savepoint savepoint) throws SQLException {
+        connection.rollback(savepoint);
+        rollbackOnly = false;
+        Integer mark = savepointMarks.remove(savepoint);
+        if (mark != null) {
+            afterCommit.subList(mark, afterCommit.size()).clear();
+        }
+    }
+
+    /**
+     * Keep the writes made since the savepoint and forget the savepoint
+     */
+    void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        connection.releaseSavepoint(savepoint);
+        savepointMarks.remove(savepoint);
+    }
+
+    /**
+     * Run the action after the outermost unit of work commits
+     * It is dropped if the transaction (or the savepoint it was registered
+     * after) rolls back. Actions run on the committing thread, before the
+     * writer connection is handed back, in the order they were registered
+     */
+    public void afterCommit(Runnable action) {
+        UnitOfWork root = this;
+        while (root.outer != null) {
+            root = root.outer;
+        }
+        root.afterCommit.add(action);
+    }
+
+    /**
+     * Commit all writes made in this unit of work
+     * For a nested unit the actual commit happens when the outer unit commits
+     */
+    public void commit() throws SQLException {
+        if (finished) {
+            throw new SQLException("Unit of work already finished");
+        }
+        if (outer != null) {
+            finished = true;
+            return;
+        }
+        if (rollbackOnly) {
+            rollback();
+            throw new SQLException("Transaction rolled back by a nested unit of work");
+        }
+        connection.commit();
+        finished = true;
+        for (Runnable action : afterCommit) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                logger.error("After-commit action failed", e);
+            }
+        }
+        afterCommit.clear();
+    }
+
+    /**
+     * Discard all writes made in this unit of work
+     */
+    public void rollback() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (outer != null) {
+            outer.rollbackOnly = true;
+            return;
+        }
+        afterCommit.clear();
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            logger.error("Error rolling back transaction", e);
+        }
+    }
+
+    /**
+     * Roll back if not committed, then restore the connection's auto-commit
+     * mode and hand the writer connection back to the pool
+     */
+    @Override
+    public void close() {
+        rollback();
+        if (outer != null) {
+            return;
+        }
+        try {
+            connection.setAutoCommit(previousAutoCommit);
+        } catch (SQLException e) {
+            logger.error("Error restoring auto-commit", e);
+        } finally {
+            manager.endUnitOfWork(this);
+        }
+    }
+}
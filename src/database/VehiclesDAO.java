@@ -6,6 +6,8 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Data Access Object for Vehicles
@@ -14,35 +16,12 @@ import java.util.List;
  * @author Member 2 - Vehicle & Entry Management Lead
  */
 public class VehiclesDAO {
-    private Connection connection;
+    private static final Logger logger = LoggerFactory.getLogger(VehiclesDAO.class);
     
-    public VehiclesDAO() {
-        this.connection = DatabaseManager.getInstance().getConnection();
-        createTable();
-    }
+    private final DatabaseManager database;
     
-    /**
-     * Create vehicles table if not exists
-     */
-    private void createTable() {
-        String sql = "CREATE TABLE IF NOT EXISTS vehicles (" +
-                     "license_plate VARCHAR(20) PRIMARY KEY, " +
-                     "vehicle_type VARCHAR(20) NOT NULL, " +
-                     "has_handicapped_card BOOLEAN DEFAULT 0, " +
-                     "entry_time TIMESTAMP NOT NULL, " +
-                     "exit_time TIMESTAMP, " +
-                     "spot_id VARCHAR(20), " +
-                     "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
-                     "FOREIGN KEY (spot_id) REFERENCES parking_spots(spot_id)" +
-                     ")";
-        
-        try (Statement stmt = connection.createStatement()) {
-            stmt.execute(sql);
-            System.out.println("✓ Table 'vehicles' ready");
-        } catch (SQLException e) {
-            System.err.println("✗ Error creating vehicles table");
-            e.printStackTrace();
-        }
+    public VehiclesDAO() {
+        this.database = DatabaseManager.getInstance();
     }
     
     /**
@@ -58,7 +37,8 @@ public class VehiclesDAO {
                      "entry_time, spot_id) " +
                      "VALUES (?, ?, ?, ?, ?)";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(sql);
             pstmt.setString(1, vehicle.getLicensePlate());
             pstmt.setString(2, vehicle.getType().name());
             pstmt.setBoolean(3, vehicle.hasHandicappedCard());
@@ -66,12 +46,12 @@ public class VehiclesDAO {
             pstmt.setString(5, spot.getSpotId());
             
             pstmt.executeUpdate();
-            System.out.println("✓ Saved vehicle to database: " + vehicle.getLicensePlate());
+            uow.commit();
+            logger.debug("Saved vehicle to database: {}", vehicle.getLicensePlate());
             return true;
             
         } catch (SQLException e) {
-            System.err.println("✗ Error saving vehicle: " + vehicle.getLicensePlate());
-            e.printStackTrace();
+            logger.error("Error saving vehicle: {}", vehicle.getLicensePlate(), e);
             return false;
         }
     }
@@ -85,17 +65,17 @@ public class VehiclesDAO {
     public Vehicle getVehicleByPlate(String licensePlate) {
         String sql = "SELECT * FROM vehicles WHERE license_plate = ? AND exit_time IS NULL";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection()) {
+            PreparedStatement pstmt = lease.prepare(sql);
             pstmt.setString(1, licensePlate);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return createVehicleFromResultSet(rs);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return createVehicleFromResultSet(rs);
+                }
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error getting vehicle: " + licensePlate);
-            e.printStackTrace();
+            logger.error("Error getting vehicle: {}", licensePlate, e);
         }
         
         return null;
@@ -111,20 +91,21 @@ public class VehiclesDAO {
     public boolean updateExitTime(String licensePlate, LocalDateTime exitTime) {
         String sql = "UPDATE vehicles SET exit_time = ? WHERE license_plate = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(sql);
             pstmt.setTimestamp(1, Timestamp.valueOf(exitTime));
             pstmt.setString(2, licensePlate);
             
             int rowsAffected = pstmt.executeUpdate();
+            uow.commit();
             
             if (rowsAffected > 0) {
-                System.out.println("✓ Updated exit time for: " + licensePlate);
+                logger.debug("Updated exit time for: {}", licensePlate);
                 return true;
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error updating exit time: " + licensePlate);
-            e.printStackTrace();
+            logger.error("Error updating exit time: {}", licensePlate, e);
         }
         
         return false;
@@ -132,29 +113,32 @@ public class VehiclesDAO {
     
     /**
      * Delete vehicle record (after exit and payment)
+     * A vehicle record that is already gone counts as deleted
      * 
      * @param licensePlate License plate
-     * @return true if successful
+     * @return false only if the delete failed
      */
     public boolean deleteVehicle(String licensePlate) {
         String sql = "DELETE FROM vehicles WHERE license_plate = ?";
         
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            PreparedStatement pstmt = uow.prepare(sql);
             pstmt.setString(1, licensePlate);
             
             int rowsAffected = pstmt.executeUpdate();
+            uow.commit();
             
             if (rowsAffected > 0) {
-                System.out.println("✓ Deleted vehicle record: " + licensePlate);
-                return true;
+                logger.debug("Deleted vehicle record: {}", licensePlate);
+            } else {
+                logger.debug("Vehicle record {} was already deleted", licensePlate);
             }
+            return true;
             
         } catch (SQLException e) {
-            System.err.println("✗ Error deleting vehicle: " + licensePlate);
-            e.printStackTrace();
+            logger.error("Error deleting vehicle: {}", licensePlate, e);
+            return false;
         }
-        
-        return false;
     }
     
     /**
@@ -165,16 +149,15 @@ public class VehiclesDAO {
     public int getCurrentVehicleCount() {
         String sql = "SELECT COUNT(*) as total FROM vehicles WHERE exit_time IS NULL";
         
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        try (ConnectionLease lease = database.acquireReadConnection();
+             ResultSet rs = lease.prepare(sql).executeQuery()) {
             
             if (rs.next()) {
                 return rs.getInt("total");
             }
             
         } catch (SQLException e) {
-            System.err.println("✗ Error counting vehicles");
-            e.printStackTrace();
+            logger.error("Error counting vehicles", e);
         }
         
         return 0;
@@ -182,8 +165,9 @@ public class VehiclesDAO {
     
     /**
      * Helper: Create Vehicle object from ResultSet
+     * Also used by ParkingSpotsDAO to rebuild vehicles from its restore join
      */
-    private Vehicle createVehicleFromResultSet(ResultSet rs) throws SQLException {
+    static Vehicle createVehicleFromResultSet(ResultSet rs) throws SQLException {
         String licensePlate = rs.getString("license_plate");
         String typeStr = rs.getString("vehicle_type");
         boolean hasCard = rs.getBoolean("has_handicapped_card");
@@ -222,32 +206,23 @@ public class VehiclesDAO {
     }
 
     /**
- * Get all currently parked vehicles with their spot info
- * Member 4 - Used for the Reporting Panel
- */
-public List<String[]> getAllCurrentVehicles() {
-    List<String[]> vehicles = new ArrayList<>();
-    String sql = "SELECT v.license_plate, v.vehicle_type, v.entry_time, v.spot_id " + 
-                 "FROM vehicles v WHERE v.exit_time IS NULL";
-    
-    try (Statement stmt = connection.createStatement();
-         ResultSet rs = stmt.executeQuery(sql)) {
-        
-        while (rs.next()) {
-            String[] row = new String[] {
-                rs.getString("license_plate"),
-                rs.getString("vehicle_type"),
-                rs.getString("spot_id"),
-                rs.getTimestamp("entry_time").toLocalDateTime().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
-            };
-            vehicles.add(row);
+     * Get all currently parked vehicles with their spot info
+     * Member 4 - Used for the Reporting Panel
+     */
+    public List<ActiveSessionRow> getAllCurrentVehicles() {
+        List<ActiveSessionRow> vehicles = new ArrayList<>();
+        String sql = "SELECT v.license_plate, v.vehicle_type, v.entry_time, v.spot_id " +
+                     "FROM vehicles v WHERE v.exit_time IS NULL";
+
+        try (ConnectionLease lease = database.acquireReadConnection();
+             ResultSet rs = lease.prepare(sql).executeQuery()) {
+
+            while (rs.next()) {
+                vehicles.add(ActiveSessionRow.from(rs));
+            }
+        } catch (SQLException e) {
+            logger.error("Error getting all current vehicles", e);
         }
-    } catch (SQLException e) {
-        System.err.println("✗ Error getting all current vehicles");
-        e.printStackTrace();
+        return vehicles;
     }
-    return vehicles;
 }
-
-
-}
\ No newline at end of file
@@ -0,0 +1,276 @@
+package database;
+
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-Behind Queue - persists gate events off the gate's thread
+ * Used in DurabilityMode.GROUP_COMMIT: submit() puts the command on a bounded
+ * queue and returns straight away; a single writer thread takes the commands
+ * that arrive within the group commit delay and runs them all in one unit of
+ * work, so a rush of gate events costs one commit instead of one each
+ *
+ * Commands run in submission order. Each runs behind a savepoint, so one that
+ * fails is undone on its own without losing the rest of its group. A group
+ * whose commit fails is run again from the start, a few times, before its
+ * commands are reported as lost
+ *
+ * When the queue is full, submit() waits for room - the gates slow down to
+ * the speed of the database instead of piling up unbounded work
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+class WriteBehindQueue {
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    private static final int CAPACITY = Integer.getInteger("parking.db.writeQueue", 1024);
+    private static final long MAX_DELAY_MS = Long.getLong("parking.db.groupCommitMs", 50L);
+    private static final int MAX_GROUP_SIZE = 256;
+    private static final long IDLE_POLL_MS = 100;
+    private static final int COMMIT_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MS = 200;
+
+    private final DatabaseManager database;
+    private final BlockingQueue<Task> queue;
+    private final Thread writerThread;
+    private volatile boolean running;
+
+    // Only touched by the writer thread
+    private long commands;
+    private long failedCommands;
+    private long commits;
+
+    WriteBehindQueue(DatabaseManager database) {
+        this.database = database;
+        this.queue = new ArrayBlockingQueue<>(CAPACITY);
+        this.running = true;
+        this.writerThread = new Thread(this::drain, "parking-write-behind");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        logger.info("Write-behind persistence enabled (queue {}, group commit delay {} ms)",
+                    CAPACITY, MAX_DELAY_MS);
+    }
+
+    /**
+     * Queue a command for the writer thread
+     *
+     * @return false if the queue has been shut down and the command was not accepted
+     */
+    boolean submit(String description, PersistenceCommand command) {
+        if (!running) {
+            logger.error("Write-behind queue is shut down, dropping {}", description);
+            return false;
+        }
+        try {
+            queue.put(new Task(description, command, null));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Interrupted while queueing {}", description);
+            return false;
+        }
+    }
+
+    /**
+     * Wait until every command submitted so far has been committed
+     */
+    void flush() {
+        if (!writerThread.isAlive() || Thread.currentThread() == writerThread) {
+            return;
+        }
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            queue.put(new Task("flush", null, done));
+            // Give up if the writer stops first (it commits everything before it does)
+            while (!done.await(IDLE_POLL_MS, TimeUnit.MILLISECONDS)) {
+                if (!writerThread.isAlive()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stop accepting commands, commit everything already queued and stop the writer thread
+     */
+    void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Write-behind queue stopped: {} commands in {} commits, {} failed",
+                    commands, commits, failedCommands);
+    }
+
+    /**
+     * Writer thread - collect a group, commit it, repeat until shut down and empty
+     */
+    private void drain() {
+        List<Task> group = new ArrayList<>(MAX_GROUP_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                Task first = queue.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                collectGroup(group);
+                commitGroup(group);
+            } catch (InterruptedException e) {
+                // Only shutdown stops the writer; keep draining
+            } catch (RuntimeException e) {
+                logger.error("Write-behind writer error", e);
+            } finally {
+                releaseFlushes(group);
+                group.clear();
+            }
+        }
+    }
+
+    /**
+     * Add the commands that arrive within the group commit delay
+     * A flush request ends the group early, so the flushing thread does not wait out the delay
+     */
+    private void collectGroup(List<Task> group) {
+        if (group.get(0).isFlush()) {
+            queue.drainTo(group, MAX_GROUP_SIZE - 1);
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_DELAY_MS);
+        while (group.size() < MAX_GROUP_SIZE) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                queue.drainTo(group, MAX_GROUP_SIZE - group.size());
+                return;
+            }
+            Task next;
+            try {
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                return; // commit what we have
+            }
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+            if (next.isFlush()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Run every command of the group in one unit of work, retrying the
+     * whole group if the commit itself fails
+     */
+    private void commitGroup(List<Task> group) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                tryCommitGroup(group);
+                return;
+            } catch (SQLException e) {
+                if (attempt == COMMIT_ATTEMPTS) {
+                    for (Task task : group) {
+                        if (!task.isFlush()) {
+                            failedCommands++;
+                            logger.error("Write-behind command lost after {} failed group commits: {}",
+                                         COMMIT_ATTEMPTS, task.description);
+                        }
+                    }
+                    logger.error("Group commit failed", e);
+                    return;
+                }
+                logger.warn("Group commit failed (attempt {} of {}), retrying: {}",
+                            attempt, COMMIT_ATTEMPTS, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS * attempt);
+                } catch (InterruptedException ie) {
+                    // Only shutdown stops the writer; retry at once
+                }
+            }
+        }
+    }
+
+    private void tryCommitGroup(List<Task> group) throws SQLException {
+        int size = 0;
+        List<Task> discarded = new ArrayList<>();
+        try (UnitOfWork uow = database.beginUnitOfWork()) {
+            for (Task task : group) {
+                if (task.isFlush()) {
+                    continue;
+                }
+                size++;
+                Savepoint savepoint = uow.setSavepoint();
+                if (runQuietly(task)) {
+                    uow.releaseSavepoint(savepoint);
+                } else {
+                    uow.rollbackTo(savepoint);
+                    discarded.add(task);
+                }
+            }
+            if (size == 0) {
+                return;
+            }
+            uow.commit();
+            commands += size;
+            commits++;
+            logger.debug("Group commit of {} commands", size);
+        }
+        // Reported only once the group is in, so a retried group doesn't report twice
+        for (Task task : discarded) {
+            failedCommands++;
+            logger.error("Write-behind command failed and was discarded: {}", task.description);
+        }
+    }
+
+    private static boolean runQuietly(Task task) {
+        try {
+            return task.command.execute();
+        } catch (RuntimeException e) {
+            logger.error("Write-behind command threw: {}", task.description, e);
+            return false;
+        }
+    }
+
+    private static void releaseFlushes(List<Task> group) {
+        for (Task task : group) {
+            if (task.isFlush()) {
+                task.flushed.countDown();
+            }
+        }
+    }
+
+    /**
+     * A queued command, or a flush marker that is released once committed
+     */
+    private static final class Task {
+        final String description;
+        final PersistenceCommand command;
+        final CountDownLatch flushed;
+
+        Task(String description, PersistenceCommand command, CountDownLatch flushed) {
+            this.description = description;
+            this.command = command;
+            this.flushed = flushed;
+        }
+
+        boolean isFlush() {
+            return flushed != null;
+        }
+    }
+}
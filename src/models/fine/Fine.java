@@ -4,12 +4,12 @@ import java.time.LocalDateTime;
 
 public class Fine {
     private String licensePlate;
-    private double amount;
+    private long amount; // sen
     private String reason;
     private LocalDateTime dateIssued;
     private boolean isPaid;
 
-    public Fine(String licensePlate, double amount, String reason) {
+    public Fine(String licensePlate, long amount, String reason) {
         this.licensePlate = licensePlate;
         this.amount = amount;
         this.reason = reason;
@@ -19,7 +19,7 @@ public class Fine {
 
     // Getters
     public String getLicensePlate() { return licensePlate; }
-    public double getAmount() { return amount; }
+    public long getAmount() { return amount; }
     public String getReason() { return reason; }
     public LocalDateTime getDateIssued() { return dateIssued; }
     public boolean isPaid() { return isPaid; }
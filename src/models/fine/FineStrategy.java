@@ -3,8 +3,9 @@ package models.fine;
 /**
  * Strategy Interface for Fine Calculation
  * Implements the Strategy Design Pattern
+ * Fines are in sen (see models.payment.Money)
  */
 public interface FineStrategy {
-    double calculateFine(long durationHours);
+    long calculateFine(long durationHours);
     String getStrategyName();
-}
\ No newline at end of file
+}
@@ -6,11 +6,11 @@ package models.fine;
  */
 public class FixedFineStrategy implements FineStrategy {
     @Override
-    public double calculateFine(long durationHours) {
+    public long calculateFine(long durationHours) {
         if (durationHours > 24) {
-            return 50.0;
+            return 5000;
         }
-        return 0.0;
+        return 0;
     }
 
     @Override
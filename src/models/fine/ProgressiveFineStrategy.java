@@ -2,30 +2,30 @@ package models.fine;
 
 public class ProgressiveFineStrategy implements FineStrategy {
     @Override
-    public double calculateFine(long durationHours) {
-        if (durationHours <= 24) return 0.0;
+    public long calculateFine(long durationHours) {
+        if (durationHours <= 24) return 0;
 
-        double fine = 0.0;
+        long fine = 0;
         long overstay = durationHours - 24;
 
         // First 24 hours overstay (Hours 25-48)
-        fine += 50.0;
+        fine += 5000;
 
         // Second 24 hours overstay (Hours 49-72)
         if (overstay > 24) {
-            fine += 100.0;
+            fine += 10000;
         }
 
         // Third 24 hours overstay (Hours 73+)
         if (overstay > 48) {
-            fine += 150.0;
+            fine += 15000;
         }
         
         // Capping logic (Optional based on requirement interpretation)
         // Requirement says "Above 72 hours: Additional RM 200". 
         // This implies specific tiers.
         if (overstay > 72) {
-            fine += 200.0;
+            fine += 20000;
         }
 
         return fine;
@@ -0,0 +1,119 @@
+package models.parking;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe bit set used for a floor's free-spot bitmaps
+ * Individual bits are set and cleared with compare-and-set, so several
+ * entry/exit gates can update the same floor without a lock
+ *
+ * Growing the set (when spots are added) is not meant to race with
+ * set/clear - the layout is built before the gates start
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+class AtomicBitSet {
+    private volatile AtomicLongArray words;
+
+    AtomicBitSet() {
+        this.words = new AtomicLongArray(1);
+    }
+
+    /**
+     * Sets the bit at the given index
+     */
+    void set(int index) {
+        if ((index >>> 6) >= words.length()) {
+            ensureCapacity(index);
+        }
+        AtomicLongArray w = words;
+        int wordIndex = index >>> 6;
+        long mask = 1L << index;
+        long current;
+        do {
+            current = w.get(wordIndex);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!w.compareAndSet(wordIndex, current, current | mask));
+    }
+
+    /**
+     * Sets or clears the bit at the given index
+     */
+    void set(int index, boolean value) {
+        if (value) {
+            set(index);
+        } else {
+            clear(index);
+        }
+    }
+
+    /**
+     * Clears the bit at the given index
+     */
+    void clear(int index) {
+        AtomicLongArray w = words;
+        int wordIndex = index >>> 6;
+        if (wordIndex >= w.length()) {
+            return;
+        }
+        long mask = 1L << index;
+        long current;
+        do {
+            current = w.get(wordIndex);
+            if ((current & mask) == 0) {
+                return;
+            }
+        } while (!w.compareAndSet(wordIndex, current, current & ~mask));
+    }
+
+    /**
+     * Clears every bit
+     */
+    void clear() {
+        AtomicLongArray w = words;
+        for (int i = 0; i < w.length(); i++) {
+            w.set(i, 0L);
+        }
+    }
+
+    /**
+     * Index of the first set bit at or after fromIndex, or -1 if none
+     */
+    int nextSetBit(int fromIndex) {
+        AtomicLongArray w = words;
+        int wordIndex = fromIndex >>> 6;
+        if (wordIndex >= w.length()) {
+            return -1;
+        }
+
+        long word = w.get(wordIndex) & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex >= w.length()) {
+                return -1;
+            }
+            word = w.get(wordIndex);
+        }
+    }
+
+    /**
+     * Grows the backing array so the index fits
+     */
+    private synchronized void ensureCapacity(int index) {
+        AtomicLongArray w = words;
+        int required = (index >>> 6) + 1;
+        if (required <= w.length()) {
+            return;
+        }
+
+        AtomicLongArray grown = new AtomicLongArray(Math.max(required, w.length() * 2));
+        for (int i = 0; i < w.length(); i++) {
+            grown.set(i, w.get(i));
+        }
+        words = grown;
+    }
+}
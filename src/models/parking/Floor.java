@@ -1,9 +1,16 @@
 package models.parking;
 
+import models.vehicle.Vehicle;
 import models.vehicle.VehicleType;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Represents one floor in the parking lot
@@ -12,10 +19,28 @@ import java.util.stream.Collectors;
  * @author Member 1 - Parking Structure Lead
  */
 public class Floor {
+    private static final Logger logger = LoggerFactory.getLogger(Floor.class);
+    
     private int floorNumber;
     private List<ParkingSpot> spots;
     private int totalSpots;
     
+    // Owning parking lot - set by ParkingLot.addFloor
+    ParkingLot parkingLot;
+    
+    // Spot ID -> spot for this floor
+    private Map<String, ParkingSpot> spotsById;
+    
+    // Free spots per type: bit i is set when spots.get(i) is available
+    private Map<SpotType, AtomicBitSet> freeSpots;
+    
+    // Occupancy counters, updated on every park/release so queries are O(1)
+    private AtomicInteger occupiedCount;
+    private AtomicIntegerArray occupiedByType;   // indexed by SpotType.ordinal()
+    private int[] spotsByType;                   // indexed by SpotType.ordinal()
+    
+    private static final SpotType[] ALL_SPOT_TYPES = SpotType.values();
+    
     /**
      * Creates a new floor
      * 
@@ -25,27 +50,165 @@ public class Floor {
         this.floorNumber = floorNumber;
         this.spots = new ArrayList<>();
         this.totalSpots = 0;
+        this.spotsById = new HashMap<>();
+        this.occupiedCount = new AtomicInteger();
+        this.occupiedByType = new AtomicIntegerArray(ALL_SPOT_TYPES.length);
+        this.spotsByType = new int[ALL_SPOT_TYPES.length];
+        this.freeSpots = new EnumMap<>(SpotType.class);
+        for (SpotType type : ALL_SPOT_TYPES) {
+            freeSpots.put(type, new AtomicBitSet());
+        }
     }
     
     /**
      * Adds a parking spot to this floor
      */
     public void addSpot(ParkingSpot spot) {
+        spot.floorIndex = spots.size();
         spots.add(spot);
+        spotsById.put(spot.getSpotId(), spot);
         totalSpots++;
-        System.out.println("Added spot " + spot.getSpotId() + " to Floor " + floorNumber);
+        spotsByType[spot.getType().ordinal()]++;
+        spot.floor = this;
+        if (parkingLot != null) {
+            parkingLot.indexSpot(spot);
+        }
+        freeSpots.get(spot.getType()).set(spot.floorIndex, spot.isAvailable());
+        if (spot.getCurrentVehicle() != null) {
+            onVehicleParked(spot, spot.getCurrentVehicle());
+        }
+        logger.debug("Added spot {} to Floor {}", spot.getSpotId(), floorNumber);
     }
     
     /**
      * Removes a parking spot by ID
      */
     public boolean removeSpot(String spotId) {
-        boolean removed = spots.removeIf(spot -> spot.getSpotId().equals(spotId));
-        if (removed) {
-            totalSpots--;
-            System.out.println("Removed spot " + spotId + " from Floor " + floorNumber);
+        ParkingSpot spot = getSpotById(spotId);
+        if (spot == null) {
+            return false;
+        }
+        
+        spots.remove(spot);
+        spotsById.remove(spotId);
+        totalSpots--;
+        spotsByType[spot.getType().ordinal()]--;
+        if (spot.getCurrentVehicle() != null) {
+            onVehicleRemoved(spot, spot.getCurrentVehicle());
+        }
+        spot.floor = null;
+        if (parkingLot != null) {
+            parkingLot.unindexSpot(spot);
+        }
+        rebuildFreeSpots();
+        logger.debug("Removed spot {} from Floor {}", spotId, floorNumber);
+        return true;
+    }
+    
+    /**
+     * Called by a spot on this floor when a vehicle is parked in it
+     */
+    void onVehicleParked(ParkingSpot spot, Vehicle vehicle) {
+        syncFreeBit(spot);
+        occupiedCount.incrementAndGet();
+        occupiedByType.incrementAndGet(spot.getType().ordinal());
+        if (parkingLot != null) {
+            parkingLot.onVehicleParked(vehicle.getLicensePlate(), spot);
+        }
+    }
+    
+    /**
+     * Called by a spot on this floor when its vehicle leaves
+     */
+    void onVehicleRemoved(ParkingSpot spot, Vehicle vehicle) {
+        syncFreeBit(spot);
+        occupiedCount.decrementAndGet();
+        occupiedByType.decrementAndGet(spot.getType().ordinal());
+        if (parkingLot != null) {
+            parkingLot.onVehicleRemoved(vehicle.getLicensePlate(), spot);
+        }
+    }
+    
+    /**
+     * Makes the spot's free bit match its current state
+     * Re-checks after writing: if another gate changed the spot in between,
+     * go round again so the last writer always leaves the bit correct
+     */
+    private void syncFreeBit(ParkingSpot spot) {
+        AtomicBitSet bits = freeSpots.get(spot.getType());
+        boolean available;
+        do {
+            available = spot.isAvailable();
+            bits.set(spot.floorIndex, available);
+        } while (spot.isAvailable() != available);
+    }
+    
+    /**
+     * Claims the first free spot of the given types for a vehicle
+     * If another gate wins the race for a spot, moves on to the next free one
+     * 
+     * @return The claimed spot, or null if none could be claimed on this floor
+     */
+    ParkingSpot claimFirstAvailableSpot(SpotType[] types, Vehicle vehicle) {
+        for (int i = nextAvailableIndex(types, 0); i >= 0; i = nextAvailableIndex(types, i + 1)) {
+            ParkingSpot spot = spots.get(i);
+            if (spot.assignVehicle(vehicle)) {
+                return spot;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Re-numbers spots and rebuilds the free-spot bitmaps
+     * Only needed when a spot is removed and positions shift
+     */
+    private void rebuildFreeSpots() {
+        for (AtomicBitSet bits : freeSpots.values()) {
+            bits.clear();
+        }
+        for (int i = 0; i < spots.size(); i++) {
+            ParkingSpot spot = spots.get(i);
+            spot.floorIndex = i;
+            if (spot.isAvailable()) {
+                freeSpots.get(spot.getType()).set(i);
+            }
+        }
+    }
+    
+    /**
+     * Position of the next available spot of any of the given types,
+     * starting at fromIndex (spot order on this floor), or -1 if none
+     */
+    private int nextAvailableIndex(SpotType[] types, int fromIndex) {
+        int next = -1;
+        for (SpotType type : types) {
+            int candidate = freeSpots.get(type).nextSetBit(fromIndex);
+            if (candidate >= 0 && (next < 0 || candidate < next)) {
+                next = candidate;
+            }
+        }
+        return next;
+    }
+    
+    /**
+     * Gets the first available spot (in floor order) of any of the given types
+     * Uses the free-spot bitmaps - no scanning or allocation
+     * 
+     * @return The spot, or null if none of those types are free on this floor
+     */
+    public ParkingSpot findFirstAvailableSpot(SpotType... types) {
+        int index = nextAvailableIndex(types, 0);
+        return index >= 0 ? spots.get(index) : null;
+    }
+    
+    /**
+     * Adds every available spot of the given types to the list, in floor order
+     */
+    void collectAvailableSpots(SpotType[] types, List<ParkingSpot> result) {
+        for (int i = nextAvailableIndex(types, 0); i >= 0; i = nextAvailableIndex(types, i + 1)) {
+            result.add(spots.get(i));
         }
-        return removed;
     }
     
     /**
@@ -59,28 +222,28 @@ public class Floor {
      * Gets all available spots on this floor
      */
     public List<ParkingSpot> getAvailableSpots() {
-        return spots.stream()
-                    .filter(ParkingSpot::isAvailable)
-                    .collect(Collectors.toList());
+        List<ParkingSpot> available = new ArrayList<>();
+        collectAvailableSpots(ALL_SPOT_TYPES, available);
+        return available;
     }
     
     /**
      * Gets available spots suitable for a specific vehicle type
+     * Only spot types the vehicle may use are returned (the same rules as
+     * ParkingLot.findAvailableSpots); use getAvailableSpots for every free spot
      */
     public List<ParkingSpot> getAvailableSpotsForVehicle(VehicleType vehicleType) {
-        return spots.stream()
-                    .filter(spot -> spot.isAvailable())
-                    .collect(Collectors.toList());
+        List<ParkingSpot> available = new ArrayList<>();
+        collectAvailableSpots(ParkingLot.compatibleSpotTypes(vehicleType), available);
+        return available;
     }
     
     /**
      * Gets a spot by its ID
+     * Looks up this floor's ID index; other floors' IDs are not in it
      */
     public ParkingSpot getSpotById(String spotId) {
-        return spots.stream()
-                    .filter(spot -> spot.getSpotId().equals(spotId))
-                    .findFirst()
-                    .orElse(null);
+        return spotsById.get(spotId);
     }
     
     /**
@@ -89,38 +252,28 @@ public class Floor {
     public double getOccupancyRate() {
         if (totalSpots == 0) return 0.0;
         
-        long occupiedCount = spots.stream()
-                                   .filter(spot -> !spot.isAvailable())
-                                   .count();
-        
-        return (occupiedCount * 100.0) / totalSpots;
+        return (getOccupiedCount() * 100.0) / totalSpots;
     }
     
     /**
      * Gets count of spots by type
      */
     public int getSpotCountByType(SpotType type) {
-        return (int) spots.stream()
-                          .filter(spot -> spot.getType() == type)
-                          .count();
+        return spotsByType[type.ordinal()];
     }
     
     /**
      * Gets available count by type
      */
     public int getAvailableCountByType(SpotType type) {
-        return (int) spots.stream()
-                          .filter(spot -> spot.getType() == type && spot.isAvailable())
-                          .count();
+        return spotsByType[type.ordinal()] - occupiedByType.get(type.ordinal());
     }
     
     /**
      * Gets occupied count by type
      */
     public int getOccupiedCountByType(SpotType type) {
-        return (int) spots.stream()
-                          .filter(spot -> spot.getType() == type && !spot.isAvailable())
-                          .count();
+        return occupiedByType.get(type.ordinal());
     }
     
     // Getters
@@ -128,11 +281,11 @@ public class Floor {
     public int getTotalSpots() { return totalSpots; }
     
     public int getOccupiedCount() { 
-        return (int) spots.stream().filter(s -> !s.isAvailable()).count(); 
+        return occupiedCount.get(); 
     }
     
     public int getAvailableCount() { 
-        return (int) spots.stream().filter(ParkingSpot::isAvailable).count(); 
+        return totalSpots - occupiedCount.get(); 
     }
     
     @Override
@@ -2,6 +2,8 @@ package models.parking;
 
 import models.vehicle.Vehicle;
 import models.vehicle.VehicleType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Handicapped parking spot - reserved for handicapped vehicles
@@ -10,6 +12,7 @@ import models.vehicle.VehicleType;
  * @author Member 1 - Parking Structure Lead
  */
 public class HandicappedSpot extends ParkingSpot {
+    private static final Logger logger = LoggerFactory.getLogger(HandicappedSpot.class);
     
     public HandicappedSpot(int floorNumber, int rowNumber, int spotNumber) {
         super(floorNumber, rowNumber, spotNumber, 
@@ -36,8 +39,8 @@ public class HandicappedSpot extends ParkingSpot {
         if (assigned && vehicle.getType() == VehicleType.HANDICAPPED && 
             vehicle.hasHandicappedCard()) {
             // Handicapped card holder gets special rate
-            this.hourlyRate = 2.0; // Actually RM 2/hour (shown as special rate)
-            System.out.println("Special handicapped rate applied: RM 2/hour");
+            this.hourlyRate = 200; // Actually RM 2/hour (shown as special rate)
+            logger.debug("Special handicapped rate applied: RM 2/hour");
         } else if (assigned) {
             // Regular vehicles pay normal handicapped spot rate
             this.hourlyRate = SpotType.HANDICAPPED.getDefaultRate();
@@ -3,7 +3,14 @@ package models.parking;
 import models.vehicle.Vehicle;
 import models.vehicle.VehicleType;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Main parking lot class - contains multiple floors
@@ -12,10 +19,39 @@ import java.util.List;
  * @author Member 1 - Parking Structure Lead
  */
 public class ParkingLot {
+    private static final Logger logger = LoggerFactory.getLogger(ParkingLot.class);
+    
     private String name;
     private List<Floor> floors;
     private int totalFloors;
     
+    // License plate -> spot, kept current by the spots themselves
+    // A gate holds ENTERING for the plate while it claims a spot
+    private Map<String, ParkingSpot> spotsByPlate;
+    private static final ParkingSpot ENTERING = new RegularSpot(0, 0, 0);
+    
+    // Spot ID -> spot across all floors, kept current by Floor.addSpot/removeSpot
+    private Map<String, ParkingSpot> spotsById;
+    
+    // Lot-wide occupied count, updated alongside the floors' counters
+    private AtomicInteger occupiedSpots;
+    
+    // Spot types each vehicle type may use, precomputed from canParkHere
+    private static final Map<VehicleType, SpotType[]> COMPATIBLE_SPOT_TYPES = 
+        new EnumMap<>(VehicleType.class);
+    
+    static {
+        for (VehicleType vehicleType : VehicleType.values()) {
+            List<SpotType> types = new ArrayList<>();
+            for (SpotType spotType : SpotType.values()) {
+                if (canParkHere(vehicleType, spotType)) {
+                    types.add(spotType);
+                }
+            }
+            COMPATIBLE_SPOT_TYPES.put(vehicleType, types.toArray(new SpotType[0]));
+        }
+    }
+    
     /**
      * Creates a new parking lot
      * 
@@ -25,7 +61,10 @@ public class ParkingLot {
         this.name = name;
         this.floors = new ArrayList<>();
         this.totalFloors = 0;
-        System.out.println("Created parking lot: " + name);
+        this.spotsByPlate = new ConcurrentHashMap<>();
+        this.spotsById = new HashMap<>();
+        this.occupiedSpots = new AtomicInteger();
+        logger.info("Created parking lot: {}", name);
     }
     
     /**
@@ -36,8 +75,9 @@ public class ParkingLot {
     public Floor addFloor() {
         totalFloors++;
         Floor floor = new Floor(totalFloors);
+        floor.parkingLot = this;
         floors.add(floor);
-        System.out.println("Added Floor " + totalFloors + " to " + name);
+        logger.debug("Added Floor {} to {}", totalFloors, name);
         return floor;
     }
     
@@ -48,7 +88,7 @@ public class ParkingLot {
      * @param numFloors Number of floors to create
      */
     public void initializeDefaultLayout(int numFloors) {
-        System.out.println("\n=== Initializing " + name + " with " + numFloors + " floors ===");
+        logger.info("Initializing {} with {} floors", name, numFloors);
         
         for (int f = 0; f < numFloors; f++) {
             Floor floor = addFloor();
@@ -75,9 +115,7 @@ public class ParkingLot {
             }
         }
         
-        System.out.println("=== Initialization complete ===");
-        System.out.println(this);
-        System.out.println();
+        logger.info("Initialization complete: {}", this);
     }
     
     /**
@@ -93,27 +131,110 @@ public class ParkingLot {
      */
     public List<ParkingSpot> findAvailableSpots(VehicleType vehicleType) {
         List<ParkingSpot> availableSpots = new ArrayList<>();
+        SpotType[] types = compatibleSpotTypes(vehicleType);
         
         for (Floor floor : floors) {
-            for (ParkingSpot spot : floor.getAvailableSpots()) {
-                if (canParkHere(vehicleType, spot)) {
-                    availableSpots.add(spot);
-                }
-            }
+            floor.collectAvailableSpots(types, availableSpots);
         }
         
-        System.out.println("Found " + availableSpots.size() + 
-                         " available spots for " + vehicleType);
+        logger.debug("Found {} available spots for {}", availableSpots.size(), vehicleType);
         return availableSpots;
     }
     
+    /**
+     * Finds the first available spot for a vehicle type
+     * Same rules and ordering as findAvailableSpots, but answered from
+     * the floors' free-spot bitmaps without building a list
+     * 
+     * @param vehicleType Type of vehicle
+     * @return First suitable free spot, or null if the lot is full for this type
+     */
+    public ParkingSpot findFirstAvailableSpot(VehicleType vehicleType) {
+        SpotType[] types = compatibleSpotTypes(vehicleType);
+        
+        for (int i = 0; i < floors.size(); i++) {
+            ParkingSpot spot = floors.get(i).findFirstAvailableSpot(types);
+            if (spot != null) {
+                return spot;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Claims the first available spot for a vehicle and assigns it
+     * Safe to call from several entry gates at once: each spot is claimed
+     * with a compare-and-set, and a gate that loses a race simply retries
+     * with the next free spot. The plate is reserved first, so the same
+     * vehicle can't be parked twice by two gates
+     * 
+     * @param vehicle Vehicle to park
+     * @return The spot the vehicle now occupies, or null if the lot is full for its type
+     * @throws IllegalStateException if the plate is already parked or entering at another gate
+     */
+    public ParkingSpot claimAvailableSpot(Vehicle vehicle) {
+        SpotType[] types = compatibleSpotTypes(vehicle.getType());
+        
+        reservePlate(vehicle.getLicensePlate());
+        for (int i = 0; i < floors.size(); i++) {
+            ParkingSpot spot = floors.get(i).claimFirstAvailableSpot(types, vehicle);
+            if (spot != null) {
+                return spot;
+            }
+        }
+        spotsByPlate.remove(vehicle.getLicensePlate(), ENTERING);
+        return null;
+    }
+    
+    /**
+     * Claims a specific spot for a vehicle
+     * Same plate rule as claimAvailableSpot
+     * 
+     * @return true if the vehicle now occupies the spot, false if the spot is taken or unsuitable
+     * @throws IllegalStateException if the plate is already parked or entering at another gate
+     */
+    public boolean claimSpot(ParkingSpot spot, Vehicle vehicle) {
+        reservePlate(vehicle.getLicensePlate());
+        if (spot.assignVehicle(vehicle)) {
+            return true;
+        }
+        spotsByPlate.remove(vehicle.getLicensePlate(), ENTERING);
+        return false;
+    }
+    
+    /**
+     * Marks a plate as entering, so no other gate can park it at the same time
+     * Parking the vehicle replaces the mark with its spot
+     */
+    private void reservePlate(String licensePlate) {
+        if (spotsByPlate.putIfAbsent(licensePlate, ENTERING) != null) {
+            throw new IllegalStateException("Vehicle " + licensePlate + " is already parked!");
+        }
+    }
+    
+    /**
+     * Gets the number of free spots of a type across all floors
+     */
+    public int getAvailableCountByType(SpotType spotType) {
+        int count = 0;
+        for (int i = 0; i < floors.size(); i++) {
+            count += floors.get(i).getAvailableCountByType(spotType);
+        }
+        return count;
+    }
+    
+    /**
+     * Spot types a vehicle type is allowed to park in
+     */
+    static SpotType[] compatibleSpotTypes(VehicleType vehicleType) {
+        return COMPATIBLE_SPOT_TYPES.get(vehicleType);
+    }
+    
     /**
      * Checks if a vehicle type can park in a spot type
      * Based on assignment requirements
      */
-    private boolean canParkHere(VehicleType vehicleType, ParkingSpot spot) {
-        SpotType spotType = spot.getType();
-        
+    private static boolean canParkHere(VehicleType vehicleType, SpotType spotType) {
         switch (vehicleType) {
             case MOTORCYCLE:
                 // Motorcycles can ONLY park in compact spots
@@ -138,16 +259,27 @@ public class ParkingLot {
     
     /**
      * Gets a spot by its ID
-     * Searches across all floors
+     * Looks up the lot-wide ID index
      */
     public ParkingSpot getSpotById(String spotId) {
-        for (Floor floor : floors) {
-            ParkingSpot spot = floor.getSpotById(spotId);
-            if (spot != null) {
-                return spot;
-            }
+        if (spotId == null) {
+            return null;
         }
-        return null;
+        return spotsById.get(spotId);
+    }
+    
+    /**
+     * Registers a spot in the lot-wide ID index (called via Floor)
+     */
+    void indexSpot(ParkingSpot spot) {
+        spotsById.put(spot.getSpotId(), spot);
+    }
+    
+    /**
+     * Removes a spot from the lot-wide ID index (called via Floor)
+     */
+    void unindexSpot(ParkingSpot spot) {
+        spotsById.remove(spot.getSpotId(), spot);
     }
     
     /**
@@ -155,16 +287,8 @@ public class ParkingLot {
      * Used during exit process (Member 3 will call this)
      */
     public Vehicle findVehicleByLicensePlate(String licensePlate) {
-        for (Floor floor : floors) {
-            for (ParkingSpot spot : floor.getAllSpots()) {
-                if (!spot.isAvailable() && 
-                    spot.getCurrentVehicle() != null &&
-                    spot.getCurrentVehicle().getLicensePlate().equals(licensePlate)) {
-                    return spot.getCurrentVehicle();
-                }
-            }
-        }
-        return null;
+        ParkingSpot spot = findSpotByVehicle(licensePlate);
+        return spot != null ? spot.getCurrentVehicle() : null;
     }
     
     /**
@@ -172,16 +296,11 @@ public class ParkingLot {
      * Used during exit process (Member 3 will call this)
      */
     public ParkingSpot findSpotByVehicle(String licensePlate) {
-        for (Floor floor : floors) {
-            for (ParkingSpot spot : floor.getAllSpots()) {
-                if (!spot.isAvailable() && 
-                    spot.getCurrentVehicle() != null &&
-                    spot.getCurrentVehicle().getLicensePlate().equals(licensePlate)) {
-                    return spot;
-                }
-            }
+        if (licensePlate == null) {
+            return null;
         }
-        return null;
+        ParkingSpot spot = spotsByPlate.get(licensePlate);
+        return spot != ENTERING ? spot : null;
     }
     
     /**
@@ -189,19 +308,35 @@ public class ParkingLot {
      * Used for reports (Member 4 will call this)
      */
     public List<Vehicle> getCurrentlyParkedVehicles() {
-        List<Vehicle> vehicles = new ArrayList<>();
+        List<Vehicle> vehicles = new ArrayList<>(spotsByPlate.size());
         
-        for (Floor floor : floors) {
-            for (ParkingSpot spot : floor.getAllSpots()) {
-                if (!spot.isAvailable() && spot.getCurrentVehicle() != null) {
-                    vehicles.add(spot.getCurrentVehicle());
-                }
+        for (ParkingSpot spot : spotsByPlate.values()) {
+            Vehicle vehicle = spot.getCurrentVehicle();
+            if (vehicle != null) {
+                vehicles.add(vehicle);
             }
         }
         
         return vehicles;
     }
     
+    /**
+     * Records that a vehicle now occupies a spot (called via Floor)
+     */
+    void onVehicleParked(String licensePlate, ParkingSpot spot) {
+        spotsByPlate.put(licensePlate, spot);
+        occupiedSpots.incrementAndGet();
+    }
+    
+    /**
+     * Records that a vehicle left a spot (called via Floor)
+     * The plate entry is only dropped if it still points at that spot
+     */
+    void onVehicleRemoved(String licensePlate, ParkingSpot spot) {
+        spotsByPlate.remove(licensePlate, spot);
+        occupiedSpots.decrementAndGet();
+    }
+    
     /**
      * Calculates overall occupancy rate across all floors
      */
@@ -217,27 +352,21 @@ public class ParkingLot {
      * Gets total number of spots across all floors
      */
     public int getTotalSpots() {
-        return floors.stream()
-                     .mapToInt(Floor::getTotalSpots)
-                     .sum();
+        return spotsById.size();
     }
     
     /**
      * Gets number of occupied spots
      */
     public int getOccupiedSpots() {
-        return floors.stream()
-                     .mapToInt(Floor::getOccupiedCount)
-                     .sum();
+        return occupiedSpots.get();
     }
     
     /**
      * Gets number of available spots
      */
     public int getAvailableSpots() {
-        return floors.stream()
-                     .mapToInt(Floor::getAvailableCount)
-                     .sum();
+        return getTotalSpots() - getOccupiedSpots();
     }
     
     /**
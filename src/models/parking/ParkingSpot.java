@@ -1,6 +1,9 @@
 package models.parking;
 
 import models.vehicle.Vehicle;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Abstract base class for all parking spot types
@@ -9,15 +12,28 @@ import models.vehicle.Vehicle;
  * @author Member 1 - Parking Structure Lead
  */
 public abstract class ParkingSpot {
+    private static final Logger logger = LoggerFactory.getLogger(ParkingSpot.class);
+    
     protected String spotId;           // Format: F1-R1-S1
     protected SpotType type;
-    protected SpotStatus status;
-    protected Vehicle currentVehicle;
-    protected double hourlyRate;
+    protected volatile Vehicle currentVehicle;
+    protected long hourlyRate;          // sen per hour
     protected int floorNumber;
     protected int rowNumber;
     protected int spotNumber;
     
+    // Spot state - only ever changed by compare-and-set so that concurrent
+    // entry gates cannot both claim the same spot
+    private final AtomicReference<SpotStatus> status = 
+        new AtomicReference<>(SpotStatus.AVAILABLE);
+    
+    // Floor this spot belongs to - set by Floor.addSpot so occupancy
+    // changes can keep the parking lot's indexes current
+    Floor floor;
+    
+    // Position of this spot within its floor (free-spot bitmap index)
+    int floorIndex = -1;
+    
     /**
      * Constructor for creating a parking spot
      * 
@@ -25,16 +41,15 @@ public abstract class ParkingSpot {
      * @param rowNumber Row number (1-based)
      * @param spotNumber Spot number (1-based)
      * @param type Type of spot
-     * @param hourlyRate Hourly rate for this spot
+     * @param hourlyRate Hourly rate for this spot, in sen
      */
     public ParkingSpot(int floorNumber, int rowNumber, int spotNumber, 
-                       SpotType type, double hourlyRate) {
+                       SpotType type, long hourlyRate) {
         this.floorNumber = floorNumber;
         this.rowNumber = rowNumber;
         this.spotNumber = spotNumber;
         this.type = type;
         this.hourlyRate = hourlyRate;
-        this.status = SpotStatus.AVAILABLE;
         this.currentVehicle = null;
         this.spotId = generateSpotId();
     }
@@ -51,31 +66,33 @@ public abstract class ParkingSpot {
      * Checks if this spot is currently available
      */
     public boolean isAvailable() {
-        return status == SpotStatus.AVAILABLE;
+        return status.get() == SpotStatus.AVAILABLE;
     }
     
     /**
      * Assigns a vehicle to this spot
+     * The claim is a single compare-and-set on the spot state, so when
+     * several gates race for the same spot exactly one of them wins
      * 
      * @param vehicle Vehicle to assign
      * @return true if assignment successful, false if spot occupied
      */
     public boolean assignVehicle(Vehicle vehicle) {
-        if (!isAvailable()) {
-            System.out.println("Cannot assign vehicle - spot " + spotId + " is occupied");
+        if (!canFitVehicle(vehicle)) {
+            logger.debug("Vehicle type {} cannot park in {} spot", vehicle.getType(), type);
             return false;
         }
         
-        if (!canFitVehicle(vehicle)) {
-            System.out.println("Vehicle type " + vehicle.getType() + 
-                             " cannot park in " + type + " spot");
+        if (!status.compareAndSet(SpotStatus.AVAILABLE, SpotStatus.OCCUPIED)) {
+            logger.debug("Cannot assign vehicle - spot {} is occupied", spotId);
             return false;
         }
         
         this.currentVehicle = vehicle;
-        this.status = SpotStatus.OCCUPIED;
-        System.out.println("Vehicle " + vehicle.getLicensePlate() + 
-                         " assigned to spot " + spotId);
+        if (floor != null) {
+            floor.onVehicleParked(this, vehicle);
+        }
+        logger.debug("Vehicle {} assigned to spot {}", vehicle.getLicensePlate(), spotId);
         return true;
     }
     
@@ -83,21 +100,28 @@ public abstract class ParkingSpot {
      * Releases the vehicle from this spot
      */
     public void releaseVehicle() {
-        if (currentVehicle != null) {
-            System.out.println("Releasing vehicle " + currentVehicle.getLicensePlate() + 
-                             " from spot " + spotId);
+        Vehicle released = currentVehicle;
+        if (released != null) {
+            logger.debug("Releasing vehicle {} from spot {}", released.getLicensePlate(), spotId);
         }
-        this.currentVehicle = null;
-        this.status = SpotStatus.AVAILABLE;
+        vacate(released);
     }
 
     /**
      * Park a vehicle in this spot
      * Updates status to OCCUPIED
+     * Unconditional - used when restoring saved state, not by the gates
      */
     public void parkVehicle(Vehicle vehicle) {
+        Vehicle previous = currentVehicle;
         this.currentVehicle = vehicle;
-        this.status = SpotStatus.OCCUPIED;
+        SpotStatus previousStatus = status.getAndSet(SpotStatus.OCCUPIED);
+        if (floor != null) {
+            if (previous != null && previousStatus == SpotStatus.OCCUPIED) {
+                floor.onVehicleRemoved(this, previous);
+            }
+            floor.onVehicleParked(this, vehicle);
+        }
     }
 
     /**
@@ -105,8 +129,19 @@ public abstract class ParkingSpot {
      * Updates status to AVAILABLE
      */
     public void removeVehicle() {
+        vacate(currentVehicle);
+    }
+    
+    /**
+     * Frees the spot - the vehicle reference is cleared before the state
+     * flips back to AVAILABLE so the next claimer never has it overwritten
+     */
+    private void vacate(Vehicle vehicle) {
         this.currentVehicle = null;
-        this.status = SpotStatus.AVAILABLE;
+        if (status.compareAndSet(SpotStatus.OCCUPIED, SpotStatus.AVAILABLE) &&
+            floor != null && vehicle != null) {
+            floor.onVehicleRemoved(this, vehicle);
+        }
     }
     
     /**
@@ -120,15 +155,15 @@ public abstract class ParkingSpot {
     // Getters
     public String getSpotId() { return spotId; }
     public SpotType getType() { return type; }
-    public SpotStatus getStatus() { return status; }
+    public SpotStatus getStatus() { return status.get(); }
     public Vehicle getCurrentVehicle() { return currentVehicle; }
-    public double getHourlyRate() { return hourlyRate; }
+    public long getHourlyRate() { return hourlyRate; }
     public int getFloorNumber() { return floorNumber; }
     public int getRowNumber() { return rowNumber; }
     public int getSpotNumber() { return spotNumber; }
     
     // Setters
-    public void setHourlyRate(double rate) { 
+    public void setHourlyRate(long rate) { 
         this.hourlyRate = rate; 
     }
     
@@ -139,7 +174,7 @@ public abstract class ParkingSpot {
         return String.format("%s (%s) - %s%s", 
             spotId, 
             type.getDisplayName(), 
-            status.getDisplayName(),
+            getStatus().getDisplayName(),
             vehicleInfo);
     }
 }
@@ -1,6 +1,8 @@
 package models.parking;
 
 import models.vehicle.Vehicle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Reserved parking spot - for VIP customers
@@ -10,6 +12,8 @@ import models.vehicle.Vehicle;
  * @author Member 1 - Parking Structure Lead
  */
 public class ReservedSpot extends ParkingSpot {
+    private static final Logger logger = LoggerFactory.getLogger(ReservedSpot.class);
+    
     private boolean hasReservation;
     private String reservedFor; // License plate of reserved vehicle
     
@@ -36,8 +40,7 @@ public class ReservedSpot extends ParkingSpot {
     public boolean assignVehicle(Vehicle vehicle) {
         // Check if someone else has reservation
         if (hasReservation && !vehicle.getLicensePlate().equals(reservedFor)) {
-            System.out.println("WARNING: Spot reserved for " + reservedFor + 
-                             " but " + vehicle.getLicensePlate() + " is parking");
+            logger.warn("Spot reserved for {} but {} is parking", reservedFor, vehicle.getLicensePlate());
             // Still allow parking but Member 4 will add fine
         }
         
@@ -50,7 +53,7 @@ public class ReservedSpot extends ParkingSpot {
     public void makeReservation(String licensePlate) {
         this.hasReservation = true;
         this.reservedFor = licensePlate;
-        System.out.println("Reservation made for " + licensePlate + " at spot " + spotId);
+        logger.info("Reservation made for {} at spot {}", licensePlate, spotId);
     }
     
     /**
@@ -59,7 +62,7 @@ public class ReservedSpot extends ParkingSpot {
     public void cancelReservation() {
         this.hasReservation = false;
         this.reservedFor = null;
-        System.out.println("Reservation cancelled for spot " + spotId);
+        logger.info("Reservation cancelled for spot {}", spotId);
     }
     
     // Getters
@@ -2,20 +2,20 @@ package models.parking;
 
 /**
  * Enum representing different types of parking spots
- * Each type has a display name and default hourly rate
+ * Each type has a display name and default hourly rate (in sen)
  *
  * @author Member 1
  */
 public enum SpotType {
-    COMPACT("Compact", 2.0),
-    REGULAR("Regular", 5.0),
-    HANDICAPPED("Handicapped", 2.0),
-    RESERVED("Reserved", 10.0);
+    COMPACT("Compact", 200),
+    REGULAR("Regular", 500),
+    HANDICAPPED("Handicapped", 200),
+    RESERVED("Reserved", 1000);
 
     private final String displayName;
-    private final double defaultRate;
+    private final long defaultRate;
 
-    SpotType(String displayName, double defaultRate) {
+    SpotType(String displayName, long defaultRate) {
         this.displayName = displayName;
         this.defaultRate = defaultRate;
     }
@@ -24,7 +24,7 @@ public enum SpotType {
         return displayName;
     }
 
-    public double getDefaultRate() {
+    public long getDefaultRate() {
         return defaultRate;
     }
 
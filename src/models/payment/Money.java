@@ -0,0 +1,83 @@
+package models.payment;
+
+/**
+ * Money - RM amounts as a primitive long count of sen (1 RM = 100 sen)
+ * Fees, fines, payments and revenue totals are all kept in sen, so sums are
+ * exact and never drift the way repeated double additions do
+ *
+ * Amounts are plain longs rather than objects, so billing and revenue
+ * rollups allocate nothing; the helpers here convert and format them
+ *
+ * @author Member 3 - Exit & Payment Management Lead
+ */
+public final class Money {
+    public static final long SEN_PER_RINGGIT = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Sen for a whole number of ringgit
+     */
+    public static long ofRinggit(long ringgit) {
+        return Math.multiplyExact(ringgit, SEN_PER_RINGGIT);
+    }
+
+    /**
+     * Sen for a decimal ringgit amount, rounded to the nearest sen
+     * Only for amounts read from old (pre-sen) data
+     */
+    public static long ofRinggit(double ringgit) {
+        return Math.round(ringgit * SEN_PER_RINGGIT);
+    }
+
+    /**
+     * Amount in ringgit as a double, for charts and other approximate uses only
+     */
+    public static double toRinggit(long sen) {
+        return sen / (double) SEN_PER_RINGGIT;
+    }
+
+    /**
+     * Price of a quantity at a unit price, failing rather than overflowing
+     */
+    public static long times(long unitSen, long quantity) {
+        return Math.multiplyExact(unitSen, quantity);
+    }
+
+    /**
+     * Append an amount as ringgit with two decimals ("1234.50", "-0.05")
+     * Writes digits straight into the builder, with no formatter or boxing
+     */
+    public static StringBuilder appendTo(StringBuilder sb, long sen) {
+        long ringgit = sen / SEN_PER_RINGGIT;
+        int cents = (int) Math.abs(sen % SEN_PER_RINGGIT);
+        if (sen < 0 && ringgit == 0) {
+            sb.append('-');
+        }
+        sb.append(ringgit).append('.');
+        if (cents < 10) {
+            sb.append('0');
+        }
+        return sb.append(cents);
+    }
+
+    /**
+     * Append an amount padded on the left to a fixed width, like "%7.2f"
+     */
+    public static StringBuilder appendTo(StringBuilder sb, long sen, int width) {
+        int start = sb.length();
+        appendTo(sb, sen);
+        for (int pad = width - (sb.length() - start); pad > 0; pad--) {
+            sb.insert(start, ' ');
+        }
+        return sb;
+    }
+
+    /**
+     * An amount as ringgit with two decimals, e.g. "15.00"
+     */
+    public static String format(long sen) {
+        return appendTo(new StringBuilder(24), sen).toString();
+    }
+}
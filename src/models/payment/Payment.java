@@ -6,15 +6,16 @@ import java.time.format.DateTimeFormatter;
 /**
  * Payment model class
  * Represents a payment transaction for parking fees
+ * Amounts are in sen (see Money)
  * 
  * @author Member 3 - Exit & Payment Management Lead
  */
 public class Payment {
     private String paymentId;
     private String licensePlate;
-    private double parkingFee;
-    private double fineAmount;
-    private double totalAmount;
+    private long parkingFee;
+    private long fineAmount;
+    private long totalAmount;
     private PaymentMethod paymentMethod;
     private LocalDateTime paymentTime;
     private String ticketId;
@@ -23,17 +24,17 @@ public class Payment {
      * Creates a new payment record
      * 
      * @param licensePlate Vehicle license plate
-     * @param parkingFee Parking fee amount
-     * @param fineAmount Fine amount (if any)
+     * @param parkingFee Parking fee amount, in sen
+     * @param fineAmount Fine amount (if any), in sen
      * @param paymentMethod Payment method used
      * @param ticketId Associated ticket ID
      */
-    public Payment(String licensePlate, double parkingFee, double fineAmount, 
+    public Payment(String licensePlate, long parkingFee, long fineAmount, 
                    PaymentMethod paymentMethod, String ticketId) {
         this.licensePlate = licensePlate;
         this.parkingFee = parkingFee;
         this.fineAmount = fineAmount;
-        this.totalAmount = parkingFee + fineAmount;
+        this.totalAmount = Math.addExact(parkingFee, fineAmount);
         this.paymentMethod = paymentMethod;
         this.ticketId = ticketId;
         this.paymentTime = LocalDateTime.now();
@@ -67,15 +68,15 @@ public class Payment {
         return licensePlate;
     }
     
-    public double getParkingFee() {
+    public long getParkingFee() {
         return parkingFee;
     }
     
-    public double getFineAmount() {
+    public long getFineAmount() {
         return fineAmount;
     }
     
-    public double getTotalAmount() {
+    public long getTotalAmount() {
         return totalAmount;
     }
     
@@ -93,10 +94,9 @@ public class Payment {
     
     @Override
     public String toString() {
-        return String.format("Payment[%s] - %s: RM %.2f (%s)",
-            paymentId,
-            licensePlate,
-            totalAmount,
-            paymentMethod.getDisplayName());
+        StringBuilder sb = new StringBuilder(64);
+        sb.append("Payment[").append(paymentId).append("] - ").append(licensePlate).append(": RM ");
+        Money.appendTo(sb, totalAmount);
+        return sb.append(" (").append(paymentMethod.getDisplayName()).append(')').toString();
     }
 }
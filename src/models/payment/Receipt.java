@@ -6,6 +6,7 @@ import java.time.format.DateTimeFormatter;
 /**
  * Receipt class
  * Generates detailed payment receipt for parking exit
+ * Amounts are in sen (see Money)
  * 
  * @author Member 3 - Exit & Payment Management Lead
  */
@@ -17,10 +18,11 @@ public class Receipt {
     private LocalDateTime entryTime;
     private LocalDateTime exitTime;
     private long durationHours;
-    private double hourlyRate;
-    private double parkingFee;
-    private double fineAmount;
-    private double totalPaid;
+    private long hourlyRate;
+    private String tariffName;
+    private long parkingFee;
+    private long fineAmount;
+    private long totalPaid;
     private PaymentMethod paymentMethod;
     private String ticketId;
     
@@ -33,12 +35,13 @@ public class Receipt {
      * @param entryTime Vehicle entry time
      * @param exitTime Vehicle exit time
      * @param durationHours Duration in hours (ceiling rounded)
-     * @param hourlyRate Hourly rate of the spot
+     * @param hourlyRate Hourly rate of the spot, in sen
+     * @param tariffName Tariff the fee was priced by, or null for the flat hourly rate
      * @param ticketId Ticket ID
      */
     public Receipt(Payment payment, String spotId, String spotType, 
                    LocalDateTime entryTime, LocalDateTime exitTime, 
-                   long durationHours, double hourlyRate, String ticketId) {
+                   long durationHours, long hourlyRate, String tariffName, String ticketId) {
         this.licensePlate = payment.getLicensePlate();
         this.spotId = spotId;
         this.spotType = spotType;
@@ -46,6 +49,7 @@ public class Receipt {
         this.exitTime = exitTime;
         this.durationHours = durationHours;
         this.hourlyRate = hourlyRate;
+        this.tariffName = tariffName;
         this.parkingFee = payment.getParkingFee();
         this.fineAmount = payment.getFineAmount();
         this.totalPaid = payment.getTotalAmount();
@@ -73,16 +77,26 @@ public class Receipt {
         sb.append(String.format("Exit Time       : %s\n", exitTime.format(formatter)));
         sb.append(String.format("Duration        : %d hour%s\n", durationHours, durationHours > 1 ? "s" : ""));
         sb.append("───────────────────────────────────────────────────────\n");
-        sb.append(String.format("Hourly Rate     : RM %.2f/hour\n", hourlyRate));
-        sb.append(String.format("Parking Fee     : RM %.2f (%d × %.2f)\n", 
-            parkingFee, durationHours, hourlyRate));
+        if (tariffName != null) {
+            sb.append("Tariff          : ").append(tariffName).append('\n');
+            sb.append("Parking Fee     : RM ");
+            Money.appendTo(sb, parkingFee).append('\n');
+        } else {
+            sb.append("Hourly Rate     : RM ");
+            Money.appendTo(sb, hourlyRate).append("/hour\n");
+            sb.append("Parking Fee     : RM ");
+            Money.appendTo(sb, parkingFee).append(" (").append(durationHours).append(" × ");
+            Money.appendTo(sb, hourlyRate).append(")\n");
+        }
         
         if (fineAmount > 0) {
-            sb.append(String.format("Fine Amount     : RM %.2f\n", fineAmount));
+            sb.append("Fine Amount     : RM ");
+            Money.appendTo(sb, fineAmount).append('\n');
         }
         
         sb.append("───────────────────────────────────────────────────────\n");
-        sb.append(String.format("TOTAL PAID      : RM %.2f\n", totalPaid));
+        sb.append("TOTAL PAID      : RM ");
+        Money.appendTo(sb, totalPaid).append('\n');
         sb.append(String.format("Payment Method  : %s\n", paymentMethod.getDisplayName()));
         sb.append("═══════════════════════════════════════════════════════\n");
         sb.append("          Thank you for parking with us!\n");
@@ -120,19 +134,23 @@ public class Receipt {
         return durationHours;
     }
     
-    public double getHourlyRate() {
+    public long getHourlyRate() {
         return hourlyRate;
     }
     
-    public double getParkingFee() {
+    public String getTariffName() {
+        return tariffName;
+    }
+    
+    public long getParkingFee() {
         return parkingFee;
     }
     
-    public double getFineAmount() {
+    public long getFineAmount() {
         return fineAmount;
     }
     
-    public double getTotalPaid() {
+    public long getTotalPaid() {
         return totalPaid;
     }
     
@@ -146,9 +164,8 @@ public class Receipt {
     
     @Override
     public String toString() {
-        return String.format("Receipt[%s] - %s: RM %.2f",
-            receiptId,
-            licensePlate,
-            totalPaid);
+        StringBuilder sb = new StringBuilder(64);
+        sb.append("Receipt[").append(receiptId).append("] - ").append(licensePlate).append(": RM ");
+        return Money.appendTo(sb, totalPaid).toString();
     }
 }
@@ -0,0 +1,164 @@
+package models.tariff;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import models.parking.SpotType;
+
+/**
+ * Tariff - a parking price list that varies over the week
+ * Built up from rules, then compiled into a TariffSchedule for billing:
+ *
+ *   new Tariff("Peak / Off-Peak", 500)
+ *       .rate(Tariff.WEEKDAYS, LocalTime.of(8, 0), LocalTime.of(18, 0), 800)
+ *       .rate(Tariff.WEEKEND, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, 300)
+ *       .cap(Tariff.EVERY_DAY, LocalTime.of(22, 0), LocalTime.of(7, 0), 1000)
+ *       .firstHoursFree(1)
+ *       .compile();
+ *
+ * Each billed hour is charged the rate in force when that hour starts.
+ * A window whose end is not after its start runs past midnight into the
+ * next day (equal times mean the whole day). Later rate rules override
+ * earlier ones where they overlap
+ *
+ * A cap limits what the billed hours starting inside one occurrence of its
+ * window (e.g. one night) can cost in total. Free hours are the first
+ * billed hours of every stay
+ *
+ * All amounts are in sen (see models.payment.Money)
+ *
+ * @author Member 3 - Exit & Payment Management Lead
+ */
+public class Tariff {
+    public static final Set<DayOfWeek> EVERY_DAY =
+        Collections.unmodifiableSet(EnumSet.allOf(DayOfWeek.class));
+    public static final Set<DayOfWeek> WEEKDAYS =
+        Collections.unmodifiableSet(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+    public static final Set<DayOfWeek> WEEKEND =
+        Collections.unmodifiableSet(EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY));
+
+    private final String name;
+    private final long baseRate;
+    private final List<Window> rates = new ArrayList<>();
+    private final List<Window> caps = new ArrayList<>();
+    private int freeHours;
+
+    /**
+     * @param name Name shown on bills and receipts
+     * @param baseRate Hourly rate wherever no rate rule applies, in sen
+     */
+    public Tariff(String name, long baseRate) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Tariff name is required");
+        }
+        if (baseRate < 0) {
+            throw new IllegalArgumentException("Hourly rate cannot be negative");
+        }
+        this.name = name;
+        this.baseRate = baseRate;
+    }
+
+    /**
+     * Peak / off-peak tariff for a spot type, priced from its default rate:
+     * weekday daytime at 1.5x, weekends at 0.8x, each night (10pm - 7am)
+     * capped at three hours' base rate, and the first hour free
+     */
+    public static Tariff peakOffPeak(SpotType type) {
+        long base = type.getDefaultRate();
+        return new Tariff("Peak / Off-Peak", base)
+            .rate(WEEKDAYS, LocalTime.of(8, 0), LocalTime.of(18, 0), base * 3 / 2)
+            .rate(WEEKEND, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT, base * 4 / 5)
+            .cap(EVERY_DAY, LocalTime.of(22, 0), LocalTime.of(7, 0), base * 3)
+            .firstHoursFree(1);
+    }
+
+    /**
+     * Charge a different hourly rate for hours starting in a window
+     *
+     * @param days Days the window starts on
+     * @param from Window start
+     * @param to Window end (at or before from = runs into the next day)
+     * @param hourlyRate Rate in the window, in sen
+     */
+    public Tariff rate(Set<DayOfWeek> days, LocalTime from, LocalTime to, long hourlyRate) {
+        if (hourlyRate < 0) {
+            throw new IllegalArgumentException("Hourly rate cannot be negative");
+        }
+        rates.add(new Window(days, from, to, hourlyRate));
+        return this;
+    }
+
+    /**
+     * Limit the total charged for hours starting in each occurrence of a window
+     * Windows must not cover the whole week
+     *
+     * @param days Days the window starts on
+     * @param from Window start
+     * @param to Window end (at or before from = runs into the next day)
+     * @param maxCharge Most one occurrence can cost, in sen
+     */
+    public Tariff cap(Set<DayOfWeek> days, LocalTime from, LocalTime to, long maxCharge) {
+        if (maxCharge < 0) {
+            throw new IllegalArgumentException("Cap cannot be negative");
+        }
+        caps.add(new Window(days, from, to, maxCharge));
+        return this;
+    }
+
+    /**
+     * Make the first billed hours of every stay free
+     */
+    public Tariff firstHoursFree(int hours) {
+        if (hours < 0) {
+            throw new IllegalArgumentException("Free hours cannot be negative");
+        }
+        this.freeHours = hours;
+        return this;
+    }
+
+    /**
+     * Compile into a schedule that prices any stay in constant time
+     *
+     * @throws IllegalArgumentException if the caps cover the whole week
+     */
+    public TariffSchedule compile() {
+        return TariffSchedule.compile(this);
+    }
+
+    public String getName() { return name; }
+    public long getBaseRate() { return baseRate; }
+    public int getFreeHours() { return freeHours; }
+    List<Window> getRates() { return rates; }
+    List<Window> getCaps() { return caps; }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * A daily time window on some days of the week, with an amount
+     */
+    static final class Window {
+        final Set<DayOfWeek> days;
+        final int fromMinute;
+        final int lengthMinutes;
+        final long amount;
+
+        Window(Set<DayOfWeek> days, LocalTime from, LocalTime to, long amount) {
+            if (days == null || days.isEmpty() || from == null || to == null) {
+                throw new IllegalArgumentException("Window needs days, a start and an end");
+            }
+            this.days = EnumSet.copyOf(days);
+            this.fromMinute = from.getHour() * 60 + from.getMinute();
+            int toMinute = to.getHour() * 60 + to.getMinute();
+            int length = toMinute - fromMinute;
+            this.lengthMinutes = length > 0 ? length : length + TariffSchedule.MINUTES_PER_DAY;
+            this.amount = amount;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package models.tariff;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tariff Schedule - a Tariff compiled for pricing stays
+ *
+ * The billed hours of a stay all start at the same minute past the hour,
+ * so for each of the 60 possible minutes the schedule holds the week's 168
+ * hour starts as prefix sums of their cost: one plain, and one with every
+ * cap applied from the start of its window. Pricing a stay is then a few
+ * table lookups plus whole weeks times the cost of a week, however long
+ * the stay is. Minutes whose hour starts fall in the same windows share
+ * their tables, so a tariff with rules on the hour builds only one set
+ *
+ * Times are taken to the minute, in local time
+ *
+ * @author Member 3 - Exit & Payment Management Lead
+ */
+public final class TariffSchedule {
+    static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int HOURS_PER_WEEK = 7 * 24;
+    private static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+    private static final int NOT_CAPPED = -1;
+
+    private final String name;
+    private final long baseRate;
+    private final int freeHours;
+    private final Table[] tables;
+
+    private TariffSchedule(String name, long baseRate, int freeHours, Table[] tables) {
+        this.name = name;
+        this.baseRate = baseRate;
+        this.freeHours = freeHours;
+        this.tables = tables;
+    }
+
+    static TariffSchedule compile(Tariff tariff) {
+        // Rate and cap window of every minute of the week (Monday 00:00 = 0)
+        long[] minuteRate = new long[MINUTES_PER_WEEK];
+        Arrays.fill(minuteRate, tariff.getBaseRate());
+        for (Tariff.Window window : tariff.getRates()) {
+            for (DayOfWeek day : window.days) {
+                int start = (day.getValue() - 1) * MINUTES_PER_DAY + window.fromMinute;
+                for (int k = 0; k < window.lengthMinutes; k++) {
+                    minuteRate[(start + k) % MINUTES_PER_WEEK] = window.amount;
+                }
+            }
+        }
+        int[] minuteCap = new int[MINUTES_PER_WEEK];
+        Arrays.fill(minuteCap, NOT_CAPPED);
+        List<Long> capAmounts = new ArrayList<>();
+        for (Tariff.Window window : tariff.getCaps()) {
+            // Each day's occurrence of the window is capped on its own
+            for (DayOfWeek day : window.days) {
+                int occurrence = capAmounts.size();
+                capAmounts.add(window.amount);
+                int start = (day.getValue() - 1) * MINUTES_PER_DAY + window.fromMinute;
+                for (int k = 0; k < window.lengthMinutes; k++) {
+                    minuteCap[(start + k) % MINUTES_PER_WEEK] = occurrence;
+                }
+            }
+        }
+
+        Table[] tables = new Table[60];
+        long[] rates = new long[HOURS_PER_WEEK];
+        int[] caps = new int[HOURS_PER_WEEK];
+        long[] previousRates = null;
+        int[] previousCaps = null;
+        for (int offset = 0; offset < 60; offset++) {
+            for (int hour = 0; hour < HOURS_PER_WEEK; hour++) {
+                rates[hour] = minuteRate[hour * 60 + offset];
+                caps[hour] = minuteCap[hour * 60 + offset];
+            }
+            if (Arrays.equals(rates, previousRates) && Arrays.equals(caps, previousCaps)) {
+                tables[offset] = tables[offset - 1];
+                continue;
+            }
+            tables[offset] = new Table(rates, caps, capAmounts);
+            previousRates = rates.clone();
+            previousCaps = caps.clone();
+        }
+        return new TariffSchedule(tariff.getName(), tariff.getBaseRate(), tariff.getFreeHours(), tables);
+    }
+
+    /**
+     * Parking fee for a stay
+     *
+     * @param entryTime When the stay started
+     * @param durationHours Billed hours (see BillingCalculator.calculateDuration)
+     * @return Fee in sen
+     */
+    public long calculateFee(LocalDateTime entryTime, long durationHours) {
+        if (entryTime == null) {
+            throw new IllegalArgumentException("Entry time cannot be null");
+        }
+        if (durationHours < 0) {
+            throw new IllegalArgumentException("Duration cannot be negative");
+        }
+        if (durationHours <= freeHours) {
+            return 0;
+        }
+        int minuteOfWeek = (entryTime.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY
+                           + entryTime.getHour() * 60 + entryTime.getMinute();
+        Table table = tables[minuteOfWeek % 60];
+        long hours = durationHours - freeHours;
+        int start = (int) ((minuteOfWeek / 60 - table.origin + HOURS_PER_WEEK + (long) freeHours)
+                           % HOURS_PER_WEEK);
+
+        long fee = 0;
+        int runEnd = table.runEnd[start];
+        if (runEnd != NOT_CAPPED) {
+            // Starting part-way into a capped window: its cap counts from here
+            int inRun = (int) Math.min(hours, runEnd - start);
+            fee = Math.min(table.runCap[start], table.raw[start + inRun] - table.raw[start]);
+            hours -= inRun;
+            if (hours == 0) {
+                return fee;
+            }
+            start = runEnd % HOURS_PER_WEEK;
+        }
+        int rest = (int) (hours % HOURS_PER_WEEK);
+        fee = Math.addExact(fee, Math.multiplyExact(hours / HOURS_PER_WEEK, table.weekCost));
+        return Math.addExact(fee, table.capped[start + rest] - table.capped[start]);
+    }
+
+    public String getName() { return name; }
+    public long getBaseRate() { return baseRate; }
+    public int getFreeHours() { return freeHours; }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    /**
+     * Cost tables for hour starts at a given minute past the hour
+     * Indexes count hours from origin, an hour start outside every cap
+     * window, so no capped run crosses the end of the week; the prefix
+     * sums cover two weeks so a range starting anywhere in the first fits
+     */
+    private static final class Table {
+        final int origin;
+        final long[] raw = new long[2 * HOURS_PER_WEEK + 1];
+        final long[] capped = new long[2 * HOURS_PER_WEEK + 1];
+        // For hour starts inside a capped run: where the run ends, and its cap
+        final int[] runEnd = new int[HOURS_PER_WEEK];
+        final long[] runCap = new long[HOURS_PER_WEEK];
+        final long weekCost;
+
+        Table(long[] rates, int[] caps, List<Long> capAmounts) {
+            int first = 0;
+            while (first < HOURS_PER_WEEK && caps[first] != NOT_CAPPED) {
+                first++;
+            }
+            if (first == HOURS_PER_WEEK) {
+                throw new IllegalArgumentException("Cap windows cannot cover the whole week");
+            }
+            this.origin = first;
+
+            long spentInRun = 0;
+            int previousCap = NOT_CAPPED;
+            for (int i = 0; i < 2 * HOURS_PER_WEEK; i++) {
+                int hour = (origin + i) % HOURS_PER_WEEK;
+                long rate = rates[hour];
+                int cap = caps[hour];
+                long charge = rate;
+                if (cap != NOT_CAPPED) {
+                    if (cap != previousCap) {
+                        spentInRun = 0;
+                    }
+                    charge = Math.max(0, Math.min(rate, capAmounts.get(cap) - spentInRun));
+                    spentInRun += charge;
+                }
+                previousCap = cap;
+                raw[i + 1] = Math.addExact(raw[i], rate);
+                capped[i + 1] = Math.addExact(capped[i], charge);
+            }
+            this.weekCost = capped[HOURS_PER_WEEK];
+
+            // Walk back from the end so each run start knows its end
+            int end = HOURS_PER_WEEK;
+            for (int i = HOURS_PER_WEEK - 1; i >= 0; i--) {
+                int cap = caps[(origin + i) % HOURS_PER_WEEK];
+                if (cap == NOT_CAPPED) {
+                    runEnd[i] = NOT_CAPPED;
+                    end = i;
+                    continue;
+                }
+                if (i + 1 < HOURS_PER_WEEK && caps[(origin + i + 1) % HOURS_PER_WEEK] != cap) {
+                    end = i + 1;
+                }
+                runEnd[i] = end;
+                runCap[i] = capAmounts.get(cap);
+            }
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package models.vehicle;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * Car class
  * Can park in Compact (RM 2/hour) OR Regular (RM 5/hour) spots
@@ -7,6 +10,7 @@ package models.vehicle;
  * @author Member 2 - Vehicle & Entry Management Lead
  */
 public class Car extends AbstractVehicle {
+    private static final Logger logger = LoggerFactory.getLogger(Car.class);
     
     /**
      * Creates a new car
@@ -15,7 +19,7 @@ public class Car extends AbstractVehicle {
      */
     public Car(String licensePlate) {
         super(licensePlate, VehicleType.CAR);
-        System.out.println("Created Car: " + licensePlate);
+        logger.debug("Created Car: {}", licensePlate);
     }
     
     @Override
@@ -1,5 +1,8 @@
 package models.vehicle;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * Handicapped Vehicle class
  * Can park in ANY spot type
@@ -9,6 +12,8 @@ package models.vehicle;
  * @author Member 2 - Vehicle & Entry Management Lead
  */
 public class HandicappedVehicle extends AbstractVehicle {
+    private static final Logger logger = LoggerFactory.getLogger(HandicappedVehicle.class);
+    
     private boolean hasHandicappedCard;
     
     /**
@@ -20,8 +25,7 @@ public class HandicappedVehicle extends AbstractVehicle {
     public HandicappedVehicle(String licensePlate, boolean hasHandicappedCard) {
         super(licensePlate, VehicleType.HANDICAPPED);
         this.hasHandicappedCard = hasHandicappedCard;
-        System.out.println("Created Handicapped Vehicle: " + licensePlate + 
-                         " (Card: " + (hasHandicappedCard ? "Yes" : "No") + ")");
+        logger.debug("Created Handicapped Vehicle: {} (Card: {})", licensePlate, hasHandicappedCard ? "Yes" : "No");
     }
     
     /**
@@ -1,5 +1,8 @@
 package models.vehicle;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * Motorcycle class
  * Can ONLY park in Compact spots (RM 2/hour)
@@ -7,6 +10,7 @@ package models.vehicle;
  * @author Member 2 - Vehicle & Entry Management Lead
  */
 public class Motorcycle extends AbstractVehicle {
+    private static final Logger logger = LoggerFactory.getLogger(Motorcycle.class);
     
     /**
      * Creates a new motorcycle
@@ -15,7 +19,7 @@ public class Motorcycle extends AbstractVehicle {
      */
     public Motorcycle(String licensePlate) {
         super(licensePlate, VehicleType.MOTORCYCLE);
-        System.out.println("Created Motorcycle: " + licensePlate);
+        logger.debug("Created Motorcycle: {}", licensePlate);
     }
     
     @Override
@@ -1,5 +1,8 @@
 package models.vehicle;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * SUV/Truck class
  * Can ONLY park in Regular spots (RM 5/hour)
@@ -8,6 +11,7 @@ package models.vehicle;
  * @author Member 2 - Vehicle & Entry Management Lead
  */
 public class SUV extends AbstractVehicle {
+    private static final Logger logger = LoggerFactory.getLogger(SUV.class);
     
     /**
      * Creates a new SUV
@@ -16,7 +20,7 @@ public class SUV extends AbstractVehicle {
      */
     public SUV(String licensePlate) {
         super(licensePlate, VehicleType.SUV);
-        System.out.println("Created SUV: " + licensePlate);
+        logger.debug("Created SUV: {}", licensePlate);
     }
     
     @Override
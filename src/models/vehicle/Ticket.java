@@ -1,8 +1,11 @@
 package models.vehicle;
 
 import models.parking.ParkingSpot;
+import models.payment.Money;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Parking Ticket class
@@ -13,6 +16,8 @@ import java.time.format.DateTimeFormatter;
  * @author Member 2 - Vehicle & Entry Management Lead
  */
 public class Ticket {
+    private static final Logger logger = LoggerFactory.getLogger(Ticket.class);
+    
     private String ticketId;
     private Vehicle vehicle;
     private ParkingSpot spot;
@@ -30,7 +35,7 @@ public class Ticket {
         this.entryTime = LocalDateTime.now();
         this.ticketId = generateTicketId();
         
-        System.out.println("✓ Generated ticket: " + ticketId);
+        logger.debug("Generated ticket: {}", ticketId);
     }
     
     /**
@@ -38,9 +43,17 @@ public class Ticket {
      * Example: T-ABC123-20250130143022
      */
     private String generateTicketId() {
+        return idFor(vehicle.getLicensePlate(), entryTime);
+    }
+    
+    /**
+     * Ticket ID for a plate parked at the given time
+     * (also used to bill a vehicle whose ticket record is lost)
+     */
+    public static String idFor(String licensePlate, LocalDateTime entryTime) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
         String timestamp = entryTime.format(formatter);
-        return String.format("T-%s-%s", vehicle.getLicensePlate(), timestamp);
+        return String.format("T-%s-%s", licensePlate, timestamp);
     }
     
     /**
@@ -64,7 +77,8 @@ public class Ticket {
         sb.append(String.format("Vehicle Type : %s\n", vehicle.getType().getDisplayName()));
         sb.append(String.format("Spot ID      : %s\n", spot.getSpotId()));
         sb.append(String.format("Spot Type    : %s\n", spot.getType().getDisplayName()));
-        sb.append(String.format("Hourly Rate  : RM %.2f/hour\n", spot.getHourlyRate()));
+        sb.append("Hourly Rate  : RM ");
+        Money.appendTo(sb, spot.getHourlyRate()).append("/hour\n");
         sb.append(String.format("Entry Time   : %s\n", getFormattedEntryTime()));
         sb.append("═══════════════════════════════════════\n");
         sb.append("Please keep this ticket for exit.\n");
@@ -0,0 +1,199 @@
+package services;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Asynchronous console appender for the SLF4J simple logger
+ * Only the simple logger writes to it: it is handed to the logger as its
+ * cached output stream while System.err itself stays untouched, so views'
+ * console output and printStackTrace are unaffected
+ *
+ * The logger flushes once per record (message plus any stack trace), and
+ * each record is queued whole for a background thread that writes it to
+ * the real console, so gate threads never wait on console I/O. When the
+ * queue is full, INFO and lower records are dropped (and counted); WARN
+ * and ERROR records wait for room instead, so they are never lost
+ *
+ * Enabled with -Dparking.log.async=true (the default for Main)
+ *
+ * @author Member 1 - Parking Structure Lead
+ */
+public class AsyncConsoleStream extends OutputStream {
+    private static final int DEFAULT_CAPACITY = 8192;
+    // The simple logger writes the level as a word before the " - " that starts the message
+    private static final Pattern WARN_OR_ERROR = Pattern.compile("(^|[\\s\\]])(WARN|ERROR)\\s");
+    private static final int HEADER_BYTES = 160;
+
+    private static AsyncConsoleStream installed;
+
+    private final PrintStream target;
+    private final BlockingQueue<byte[]> queue;
+    private final Thread writer;
+    private final AtomicLong dropped;
+    private byte[] pending;
+    private int pendingLength;
+    private volatile boolean running;
+
+    private AsyncConsoleStream(PrintStream target, int capacity) {
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.dropped = new AtomicLong();
+        this.pending = new byte[256];
+        this.pendingLength = 0;
+        this.running = true;
+        this.writer = new Thread(this::drain, "async-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Give the simple logger an async stream in place of System.err
+     * The logger caches the stream it finds in System.err when it starts,
+     * so the stream is there only while the logger starts up. Call before
+     * the first logger is created. Does nothing if already installed
+     */
+    public static synchronized void install() {
+        if (installed != null) {
+            return;
+        }
+        PrintStream console = System.err;
+        installed = new AsyncConsoleStream(console, Integer.getInteger("parking.log.queue", DEFAULT_CAPACITY));
+        System.setProperty("org.slf4j.simpleLogger.cacheOutputStream", "true");
+        // No autoflush: the logger's own flush at the end of a record queues it
+        System.setErr(new PrintStream(installed, false, StandardCharsets.UTF_8));
+        try {
+            LoggerFactory.getILoggerFactory();
+        } finally {
+            System.setErr(console);
+        }
+    }
+
+    /**
+     * Write out everything still queued; later records go straight to the console
+     * Safe to call from a shutdown hook
+     */
+    public static synchronized void shutdown() {
+        if (installed == null) {
+            return;
+        }
+        AsyncConsoleStream stream = installed;
+        installed = null;
+        stream.close();
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        ensureRoom(1);
+        pending[pendingLength++] = (byte) b;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        ensureRoom(len);
+        System.arraycopy(b, off, pending, pendingLength, len);
+        pendingLength += len;
+    }
+
+    /**
+     * The simple logger flushes after every record - that is when the record is queued
+     */
+    @Override
+    public synchronized void flush() {
+        if (pendingLength == 0) {
+            return;
+        }
+        byte[] record = new byte[pendingLength];
+        System.arraycopy(pending, 0, record, 0, pendingLength);
+        pendingLength = 0;
+        if (!running) {
+            // Shut down: nothing drains the queue any more
+            target.write(record, 0, record.length);
+            target.flush();
+        } else if (!queue.offer(record)) {
+            if (isWarnOrError(record)) {
+                putUninterruptibly(record);
+            } else {
+                dropped.incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            flush();
+            running = false;
+        }
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long lost = dropped.get();
+        if (lost > 0) {
+            target.println("✗ " + lost + " log lines dropped (async log queue full)");
+        }
+        target.flush();
+    }
+
+    private static boolean isWarnOrError(byte[] record) {
+        int length = Math.min(record.length, HEADER_BYTES);
+        for (int i = 0; i + 2 < length; i++) {
+            if (record[i] == ' ' && record[i + 1] == '-' && record[i + 2] == ' ') {
+                length = i + 1;
+                break;
+            }
+        }
+        return WARN_OR_ERROR.matcher(new String(record, 0, length, StandardCharsets.ISO_8859_1)).find();
+    }
+
+    private void putUninterruptibly(byte[] record) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(record);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ensureRoom(int extra) {
+        if (pendingLength + extra > pending.length) {
+            byte[] grown = new byte[Math.max(pending.length * 2, pendingLength + extra)];
+            System.arraycopy(pending, 0, grown, 0, pendingLength);
+            pending = grown;
+        }
+    }
+
+    private void drain() {
+        try {
+            while (running || !queue.isEmpty()) {
+                byte[] record = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (record == null) {
+                    continue;
+                }
+                target.write(record, 0, record.length);
+                // Only flush the console once the queue has run dry
+                if (queue.isEmpty()) {
+                    target.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        target.flush();
+    }
+}
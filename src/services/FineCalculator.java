@@ -1,24 +1,28 @@
 package services;
 
 import models.fine.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Context class for the Strategy Pattern.
  * The Admin Panel will interact with this to change logic.
  */
 public class FineCalculator {
+    private static final Logger logger = LoggerFactory.getLogger(FineCalculator.class);
+
     private static FineStrategy currentStrategy = new FixedFineStrategy(); // Default
 
     public static void setStrategy(FineStrategy strategy) {
         currentStrategy = strategy;
-        System.out.println("✓ Fine Strategy changed to: " + strategy.getStrategyName());
+        logger.info("Fine Strategy changed to: {}", strategy.getStrategyName());
     }
 
     public static FineStrategy getStrategy() {
         return currentStrategy;
     }
 
-    public static double calculate(long durationHours) {
+    public static long calculate(long durationHours) {
         return currentStrategy.calculateFine(durationHours);
     }
 }
\ No newline at end of file
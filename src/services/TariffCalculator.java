@@ -0,0 +1,41 @@
+package services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import models.parking.SpotType;
+import models.tariff.Tariff;
+import models.tariff.TariffSchedule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the tariff for each spot type, like FineCalculator holds the fine strategy.
+ * Spot types without a tariff keep the flat hourly rate of the spot.
+ * Tariffs are compiled once, when they are set, never at the exit gate.
+ */
+public class TariffCalculator {
+    private static final Logger logger = LoggerFactory.getLogger(TariffCalculator.class);
+
+    private static final Map<SpotType, TariffSchedule> schedules = new ConcurrentHashMap<>();
+
+    public static void setTariff(SpotType type, Tariff tariff) {
+        schedules.put(type, tariff.compile());
+        logger.info("Tariff for {} spots changed to: {}", type.getDisplayName(), tariff.getName());
+    }
+
+    /**
+     * Go back to the flat hourly rate of each spot
+     */
+    public static void clearTariff(SpotType type) {
+        if (schedules.remove(type) != null) {
+            logger.info("Tariff for {} spots changed to: flat hourly rate", type.getDisplayName());
+        }
+    }
+
+    /**
+     * The compiled tariff for a spot type, or null if it uses the flat rate
+     */
+    public static TariffSchedule getSchedule(SpotType type) {
+        return schedules.get(type);
+    }
+}
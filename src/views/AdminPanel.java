@@ -1,6 +1,7 @@
 package views;
 
 import models.parking.*;
+import models.payment.Money;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
@@ -13,6 +14,7 @@ import java.awt.*;
  */
 public class AdminPanel extends JPanel {
     private ParkingLot parkingLot;
+    private controllers.ExitController exitController;
     
     // GUI Components
     private JLabel totalSpotsLabel;
@@ -26,6 +28,7 @@ public class AdminPanel extends JPanel {
     
     public AdminPanel(ParkingLot parkingLot) {
         this.parkingLot = parkingLot;
+        this.exitController = new controllers.ExitController(parkingLot);
         initComponents();
         refreshData();
     }
@@ -199,7 +202,7 @@ public class AdminPanel extends JPanel {
                         spot.getSpotId(),
                         spot.getType().getDisplayName(),
                         spot.getStatus().getDisplayName(),
-                        String.format("%.2f", spot.getHourlyRate()),
+                        Money.format(spot.getHourlyRate()),
                         spot.getCurrentVehicle() != null ? 
                             spot.getCurrentVehicle().getLicensePlate() : "-"
                     };
@@ -244,10 +247,31 @@ public class AdminPanel extends JPanel {
             JOptionPane.showMessageDialog(this, "Strategy Updated: " + selected);
         });
 
+        JLabel lblTariff = new JLabel("Parking Tariff:");
+        lblTariff.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+
+        String[] tariffs = {"Flat Hourly Rate", "Peak / Off-Peak"};
+        JComboBox<String> tariffCombo = new JComboBox<>(tariffs);
+        tariffCombo.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+
+        tariffCombo.addActionListener(e -> {
+            String selected = (String) tariffCombo.getSelectedItem();
+            for (SpotType type : SpotType.values()) {
+                if (selected.contains("Peak")) {
+                    services.TariffCalculator.setTariff(type, models.tariff.Tariff.peakOffPeak(type));
+                } else {
+                    services.TariffCalculator.clearTariff(type);
+                }
+            }
+            JOptionPane.showMessageDialog(this, "Tariff Updated: " + selected);
+        });
+
         JPanel stratContent = new JPanel(new FlowLayout(FlowLayout.LEFT, 20, 10));
         stratContent.setOpaque(false);
         stratContent.add(lblStrat);
         stratContent.add(strategyCombo);
+        stratContent.add(lblTariff);
+        stratContent.add(tariffCombo);
         
         strategyCard.add(stratContent, BorderLayout.CENTER);
         container.add(strategyCard, gbc);
@@ -313,6 +337,53 @@ public class AdminPanel extends JPanel {
         
         simCard.add(simContent, BorderLayout.CENTER);
         container.add(simCard, gbc);
+
+        // --- CARD 3: UNPAID FINES ---
+        gbc.gridy++;
+        JPanel fineCard = createCard("🧾 Issue Unpaid Fine");
+
+        JPanel fineContent = new JPanel(new FlowLayout(FlowLayout.LEFT, 20, 10));
+        fineContent.setOpaque(false);
+
+        JTextField txtFinePlate = createStyledField("License Plate (e.g. ABC1234)");
+        JTextField txtFineAmount = createStyledField("Amount in RM (e.g. 50)");
+        JTextField txtFineReason = createStyledField("Reason (e.g. Parked in reserved spot)");
+
+        JButton btnIssueFine = new JButton("Issue Fine");
+        btnIssueFine.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        btnIssueFine.setOpaque(true);
+        btnIssueFine.setBorderPainted(false);
+        btnIssueFine.setCursor(new Cursor(Cursor.HAND_CURSOR));
+
+        btnIssueFine.addActionListener(e -> {
+            String plate = txtFinePlate.getText().trim().toUpperCase();
+            long amount;
+            try {
+                // Parsed exactly, so the sen amount is never rounded
+                amount = new java.math.BigDecimal(txtFineAmount.getText().trim()).movePointRight(2).longValueExact();
+            } catch (NumberFormatException | ArithmeticException ex) {
+                JOptionPane.showMessageDialog(this, "Amount must be in RM with at most 2 decimals.", "Input Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            if (exitController.issueFine(plate, amount, txtFineReason.getText())) {
+                JOptionPane.showMessageDialog(this,
+                    "Fine of RM " + Money.format(amount) + " recorded for " + plate + ".\n" +
+                    "It will be charged at the vehicle's next exit.");
+            } else {
+                JOptionPane.showMessageDialog(this, "Fine could not be recorded.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+
+        fineContent.add(new JLabel("Plate:"));
+        fineContent.add(txtFinePlate);
+        fineContent.add(new JLabel("Amount (RM):"));
+        fineContent.add(txtFineAmount);
+        fineContent.add(new JLabel("Reason:"));
+        fineContent.add(txtFineReason);
+        fineContent.add(btnIssueFine);
+
+        fineCard.add(fineContent, BorderLayout.CENTER);
+        container.add(fineCard, gbc);
         
         // Spacer
         gbc.gridy++;
@@ -363,58 +434,60 @@ public class AdminPanel extends JPanel {
      * FIX: Now updates BOTH 'vehicles' and 'tickets' tables to ensure consistency
      */
     private void performTimeTravel(String plate, int hours) {
-        java.sql.Connection conn = database.DatabaseManager.getInstance().getConnection();
-        
-        // SQLite Syntax: datetime('now', 'localtime', '-X hours')
-        String timeModifier = "-" + hours + " hours";
+        // Bound as a Timestamp so it is stored as epoch milliseconds like every other entry time
+        java.sql.Timestamp entryTime = java.sql.Timestamp.valueOf(java.time.LocalDateTime.now().minusHours(hours));
         
         // Query 1: Update Vehicle Record
-        String sqlVehicle = "UPDATE vehicles SET entry_time = datetime('now', 'localtime', ?) WHERE license_plate = ?";
+        String sqlVehicle = "UPDATE vehicles SET entry_time = ? WHERE license_plate = ?";
         
         // Query 2: Update Ticket Record (Crucial for Exit Controller!)
-        String sqlTicket = "UPDATE tickets SET entry_time = datetime('now', 'localtime', ?) WHERE license_plate = ?";
+        String sqlTicket = "UPDATE tickets SET entry_time = ? WHERE license_plate = ?";
         
-        try {
-            // Disable auto-commit to handle transaction
-            conn.setAutoCommit(false);
-            
-            int rowsV = 0;
-            int rowsT = 0;
+        int rowsV = 0;
+        int rowsT = 0;
+        
+        // Both updates run in one unit of work on the pool's writer connection
+        try (database.UnitOfWork uow = database.DatabaseManager.getInstance().beginUnitOfWork()) {
+            java.sql.Connection conn = uow.getConnection();
             
             // Run Update 1 (Vehicles)
             try (java.sql.PreparedStatement pstmt1 = conn.prepareStatement(sqlVehicle)) {
-                pstmt1.setString(1, timeModifier);
+                pstmt1.setTimestamp(1, entryTime);
                 pstmt1.setString(2, plate);
                 rowsV = pstmt1.executeUpdate();
             }
             
             // Run Update 2 (Tickets)
             try (java.sql.PreparedStatement pstmt2 = conn.prepareStatement(sqlTicket)) {
-                pstmt2.setString(1, timeModifier);
+                pstmt2.setTimestamp(1, entryTime);
                 pstmt2.setString(2, plate);
                 rowsT = pstmt2.executeUpdate();
             }
             
             if (rowsV > 0 || rowsT > 0) {
-                conn.commit(); // Save changes
-                JOptionPane.showMessageDialog(this, 
-                    "✅ Success! Time travel applied.\n" +
-                    "Vehicle Table Updated: " + (rowsV > 0 ? "Yes" : "No") + "\n" +
-                    "Ticket Table Updated: " + (rowsT > 0 ? "Yes" : "No") + "\n\n" +
-                    "Go to 'Vehicle Exit' now!", 
-                    "Simulation Active", JOptionPane.INFORMATION_MESSAGE);
+                uow.commit(); // Save changes
             } else {
-                conn.rollback();
-                JOptionPane.showMessageDialog(this, 
-                    "❌ Vehicle " + plate + " not found currently parked.", 
-                    "Simulation Failed", JOptionPane.ERROR_MESSAGE);
+                uow.rollback();
             }
             
-            conn.setAutoCommit(true); // Reset to default
-            
         } catch (java.sql.SQLException e) {
             e.printStackTrace();
             JOptionPane.showMessageDialog(this, "Database Error: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        // Dialogs are shown after the writer connection has been handed back
+        if (rowsV > 0 || rowsT > 0) {
+            JOptionPane.showMessageDialog(this, 
+                "✅ Success! Time travel applied.\n" +
+                "Vehicle Table Updated: " + (rowsV > 0 ? "Yes" : "No") + "\n" +
+                "Ticket Table Updated: " + (rowsT > 0 ? "Yes" : "No") + "\n\n" +
+                "Go to 'Vehicle Exit' now!", 
+                "Simulation Active", JOptionPane.INFORMATION_MESSAGE);
+        } else {
+            JOptionPane.showMessageDialog(this, 
+                "❌ Vehicle " + plate + " not found currently parked.", 
+                "Simulation Failed", JOptionPane.ERROR_MESSAGE);
         }
     }
 }
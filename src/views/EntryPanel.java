@@ -2,6 +2,7 @@ package views;
 
 import models.parking.ParkingLot;
 import models.parking.ParkingSpot;
+import models.payment.Money;
 import models.vehicle.Ticket; 
 import models.vehicle.*;
 import controllers.EntryController;
@@ -263,7 +264,7 @@ public class EntryPanel extends JPanel {
                 false, // Checkbox (False by default)
                 spot.getSpotId(),
                 spot.getType().getDisplayName(),
-                String.format("%.2f", spot.getHourlyRate()),
+                Money.format(spot.getHourlyRate()),
                 "Floor " + spot.getFloorNumber()
             };
             spotsTableModel.addRow(row);
@@ -1,16 +1,17 @@
 package views;
 
 import controllers.ExitController;
+import controllers.ExitQuote;
 import models.parking.ParkingLot;
 import models.vehicle.Vehicle;
 import models.parking.ParkingSpot;
+import models.payment.Money;
 import models.payment.PaymentMethod;
 import models.payment.Receipt;
 
 import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -39,7 +40,7 @@ public class ExitPanel extends JPanel {
     
     // State Variables
     private String currentLicensePlate;
-    private double[] currentBill; // [Duration, ParkingFee, Fine, Total]
+    private ExitQuote currentBill;
     
     public ExitPanel(ParkingLot parkingLot) {
         this.exitController = new ExitController(parkingLot);
@@ -188,47 +189,49 @@ public class ExitPanel extends JPanel {
     private void calculateBill() {
         if (currentLicensePlate == null) return;
         
-        // Call Controller (Returns: [Duration, ParkingFee, TotalFine, TotalBill])
-        currentBill = exitController.calculateBill(currentLicensePlate);
+        // Call Controller (the quote is kept for the payment step)
+        currentBill = exitController.quoteExit(currentLicensePlate);
         
         if (currentBill == null) {
             showMsg("Error calculating bill. Please check logs.", JOptionPane.ERROR_MESSAGE);
             return;
         }
         
-        long duration = (long) currentBill[0];
-        double parkingFee = currentBill[1];
-        double fines = currentBill[2];
-        double total = currentBill[3];
+        long duration = currentBill.getDurationHours();
+        long fines = currentBill.getTotalFine();
+        long total = currentBill.getTotalBill();
         
-        Vehicle v = exitController.findVehicle(currentLicensePlate);
-        ParkingSpot spot = exitController.getVehicleSpot(v);
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        LocalDateTime exitTime = LocalDateTime.now();
         
         StringBuilder sb = new StringBuilder();
         sb.append("══════════════════════════════\n");
         sb.append("         PARKING BILL         \n");
         sb.append("══════════════════════════════\n");
         sb.append(" Plate      : ").append(currentLicensePlate).append("\n");
-        sb.append(" Spot       : ").append(spot.getSpotId()).append("\n");
-        sb.append(" Entry Time : ").append(v.getEntryTime().format(fmt)).append("\n");
-        sb.append(" Exit Time  : ").append(exitTime.format(fmt)).append("\n");
+        sb.append(" Spot       : ").append(currentBill.getSpotId()).append("\n");
+        sb.append(" Entry Time : ").append(currentBill.getEntryTime().format(fmt)).append("\n");
+        sb.append(" Exit Time  : ").append(currentBill.getQuotedAt().format(fmt)).append("\n");
         sb.append(" Duration   : ").append(duration).append(" hours\n");
         sb.append("──────────────────────────────\n");
-        sb.append(String.format(" Parking Fee: RM %7.2f\n", parkingFee));
+        if (currentBill.getTariffName() != null) {
+            sb.append(" Tariff     : ").append(currentBill.getTariffName()).append("\n");
+        }
+        sb.append(" Parking Fee: RM ");
+        Money.appendTo(sb, currentBill.getParkingFee(), 7).append("\n");
         
         if (fines > 0) {
-            sb.append(String.format(" Fines      : RM %7.2f\n", fines));
+            sb.append(" Fines      : RM ");
+            Money.appendTo(sb, fines, 7).append("\n");
             sb.append(" (Includes Overstay/Previous)\n");
         }
         
         sb.append("──────────────────────────────\n");
-        sb.append(String.format(" TOTAL DUE  : RM %7.2f\n", total));
+        sb.append(" TOTAL DUE  : RM ");
+        Money.appendTo(sb, total, 7).append("\n");
         sb.append("══════════════════════════════\n");
         
         billDetailsArea.setText(sb.toString());
-        statusLabel.setText(String.format("💰 Total Due: RM %.2f", total));
+        statusLabel.setText("💰 Total Due: RM " + Money.format(total));
         
         processExitButton.setEnabled(true);
     }
@@ -239,7 +242,7 @@ public class ExitPanel extends JPanel {
         PaymentMethod method = cashRadio.isSelected() ? PaymentMethod.CASH : PaymentMethod.CARD;
         
         int confirm = JOptionPane.showConfirmDialog(this, 
-            "Confirm payment of RM " + String.format("%.2f", currentBill[3]) + " via " + method + "?",
+            "Confirm payment of RM " + Money.format(currentBill.getTotalBill()) + " via " + method + "?",
             "Confirm Payment", JOptionPane.YES_NO_OPTION);
             
         if (confirm != JOptionPane.YES_OPTION) return;
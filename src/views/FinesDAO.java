@@ -1,5 +0,0 @@
-package views;
-
-public class FinesDAO {
-  
-}
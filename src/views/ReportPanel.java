@@ -1,7 +1,12 @@
 package views;
 
 import controllers.ReportController;
+import database.ActiveSessionRow;
+import database.PaymentPage;
+import database.PaymentRow;
+import models.payment.Money;
 import java.awt.*;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 import javax.swing.*;
@@ -21,6 +26,8 @@ public class ReportPanel extends JPanel {
     private final Color ACCENT_BLUE = new Color(0, 102, 204);
     private final Color BG_COLOR = new Color(238, 238, 238);
     private final Font TITLE_FONT = new Font("SansSerif", Font.BOLD, 12);
+    // Rows arrive with epoch times; they are only turned into text here
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     
     // UI Components
     private JLabel lblTotalRevenue;
@@ -218,33 +225,55 @@ public class ReportPanel extends JPanel {
             public boolean isCellEditable(int row, int col) { return false; }
         };
 
-        List<String[]> logs = reportController.getTransactionHistory();
-        double totalSum = 0;
-        for (String[] row : logs) {
-            model.addRow(row);
-            try { totalSum += Double.parseDouble(row[5]); } catch (Exception ignored) {}
-        }
-
         JTable table = new JTable(model);
         table.setRowHeight(25);
         table.getTableHeader().setFont(new Font("SansSerif", Font.BOLD, 12));
-        
-        JLabel lblTotal = new JLabel(" Total Collected: RM " + String.format("%.2f", totalSum) + "   ");
+        JScrollPane scrollPane = new JScrollPane(table);
+
+        // Pages are fetched as the user scrolls near the bottom, so opening
+        // the log costs one page no matter how long the history is
+        PaymentPage[] lastPage = { null };
+        Runnable loadNextPage = () -> {
+            PaymentPage page = reportController.getTransactionHistoryPage(lastPage[0]);
+            for (PaymentRow row : page.getRows()) {
+                model.addRow(new Object[] {
+                    row.getPaymentTime().format(TIME_FORMAT),
+                    row.getLicensePlate(),
+                    row.getPaymentMethod().name(),
+                    Money.format(row.getParkingFee()),
+                    Money.format(row.getFineAmount()),
+                    Money.format(row.getTotalAmount())
+                });
+            }
+            lastPage[0] = page;
+        };
+        loadNextPage.run();
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar bar = (JScrollBar) e.getAdjustable();
+            int remaining = bar.getMaximum() - (bar.getValue() + bar.getVisibleAmount());
+            boolean nearBottom = remaining <= table.getRowHeight() * 5;
+            if (!e.getValueIsAdjusting() && nearBottom && lastPage[0].hasMore()) {
+                loadNextPage.run();
+            }
+        });
+
+        long totalSum = reportController.getTransactionHistoryTotal();
+        JLabel lblTotal = new JLabel(" Total Collected: RM " + Money.format(totalSum) + "   ");
         lblTotal.setFont(new Font("SansSerif", Font.BOLD, 14));
         lblTotal.setHorizontalAlignment(SwingConstants.RIGHT);
         lblTotal.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
 
-        dialog.add(new JScrollPane(table), BorderLayout.CENTER);
+        dialog.add(scrollPane, BorderLayout.CENTER);
         dialog.add(lblTotal, BorderLayout.SOUTH);
         dialog.setVisible(true);
     }
 
     public void refreshData() {
         Map<String, Object> stats = reportController.getDashboardStats();
-        Map<String, Double> revenueBreakdown = reportController.getRevenueBreakdown();
+        Map<String, Long> revenueBreakdown = reportController.getRevenueBreakdown();
         
-        double revenue = (double) stats.get("total_revenue");
-        lblTotalRevenue.setText(String.format("RM %.2f", revenue));
+        long revenue = (long) stats.get("total_revenue");
+        lblTotalRevenue.setText("RM " + Money.format(revenue));
         
         int occupied = (int) stats.get("occupied_spots");
         int total = (int) stats.get("total_spots");
@@ -259,14 +288,19 @@ public class ReportPanel extends JPanel {
 
         fineModel.setRowCount(0);
 
-        List<String[]> fines = reportController.getOutstandingFines();
+        List<ReportController.Overstay> fines = reportController.getOutstandingFines();
 
         if (fines.isEmpty()) {
             fineModel.addRow(new Object[]{"No Overstays", "-", "-", "-"});
         } else {
-            for (String[] row : fines) {
+            for (ReportController.Overstay fine : fines) {
                 // Row: [Plate, Fine Amount, Duration, Entry Time]
-                fineModel.addRow(row);
+                fineModel.addRow(new Object[] {
+                    fine.getSession().getLicensePlate(),
+                    "RM " + Money.format(fine.getFine()),
+                    fine.getHoursParked() + " hours",
+                    fine.getSession().getEntryTime().format(TIME_FORMAT)
+                });
             }
         }
         
@@ -275,14 +309,19 @@ public class ReportPanel extends JPanel {
             occupancyBar.setValue(percentage);
         }
 
-        double cash = revenueBreakdown.getOrDefault("CASH", 0.0);
-        double card = revenueBreakdown.getOrDefault("CARD", 0.0);
+        long cash = revenueBreakdown.getOrDefault("CASH", 0L);
+        long card = revenueBreakdown.getOrDefault("CARD", 0L);
         revenueChart.setData(cash, card);
 
         tableModel.setRowCount(0);
-        List<String[]> vehicles = reportController.getCurrentVehicleReport();
-        for (String[] row : vehicles) {
-            tableModel.addRow(row);
+        List<ActiveSessionRow> vehicles = reportController.getCurrentVehicleReport();
+        for (ActiveSessionRow row : vehicles) {
+            tableModel.addRow(new Object[] {
+                row.getLicensePlate(),
+                row.getVehicleType().name(),
+                row.getSpotId(),
+                row.getEntryTime().format(TIME_FORMAT)
+            });
         }
     }
 
@@ -290,14 +329,14 @@ public class ReportPanel extends JPanel {
     // INNER CLASS: CUSTOM CHART
     // ==========================================
     private class SimpleBarChart extends JPanel {
-        private double cashVal = 0;
-        private double cardVal = 0;
+        private long cashVal = 0; // sen
+        private long cardVal = 0;
 
         public SimpleBarChart() {
             setBackground(BG_COLOR);
         }
 
-        public void setData(double cash, double card) {
+        public void setData(long cash, long card) {
             this.cashVal = cash;
             this.cardVal = card;
             repaint();
@@ -322,12 +361,12 @@ public class ReportPanel extends JPanel {
             int cardW = (int) ((cardVal / max) * availableWidth);
 
             g2.setColor(Color.DARK_GRAY);
-            g2.drawString("Cash: RM " + cashVal, 10, pad + 20);
+            g2.drawString("Cash: RM " + Money.format(cashVal), 10, pad + 20);
             g2.setColor(new Color(46, 204, 113));
             g2.fillRoundRect(110, pad, Math.max(cashW, 5), barH, 5, 5);
 
             g2.setColor(Color.DARK_GRAY);
-            g2.drawString("Card: RM " + cardVal, 10, pad + barH + 40);
+            g2.drawString("Card: RM " + Money.format(cardVal), 10, pad + barH + 40);
             g2.setColor(new Color(52, 152, 219));
             g2.fillRoundRect(110, pad + barH + 20, Math.max(cardW, 5), barH, 5, 5);
         }